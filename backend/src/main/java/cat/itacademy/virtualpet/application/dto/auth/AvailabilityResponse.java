@@ -0,0 +1,14 @@
+package cat.itacademy.virtualpet.application.dto.auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    // null cuando el parámetro no se ha enviado
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
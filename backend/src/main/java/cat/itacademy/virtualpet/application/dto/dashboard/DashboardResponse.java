@@ -0,0 +1,46 @@
+package cat.itacademy.virtualpet.application.dto.dashboard;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.application.dto.user.UserResponse;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Everything the app needs for first paint: profile, own pets, counts per stage and active warnings.")
+public class DashboardResponse {
+
+    private UserResponse user;
+
+    private List<PetResponse> pets;
+
+    @Schema(description = "Number of own pets in each life stage (every stage present, 0 if none)")
+    private Map<LifeStage, Long> stageCounts;
+
+    @Schema(description = "Living pets with at least one warning")
+    private List<PetWarning> warnings;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PetWarning {
+
+        @Schema(example = "3")
+        private Long petId;
+
+        @Schema(example = "Kira")
+        private String petName;
+
+        @Schema(example = "[\"hunger_high\", \"fun_low\"]")
+        private List<String> warnings;
+    }
+}
@@ -0,0 +1,47 @@
+package cat.itacademy.virtualpet.application.dto.fields;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+
+
+/**
+ * How a projected column is written to JSON; matches what Jackson produces for the full DTOs.
+ */
+public enum FieldKind {
+
+    NUMBER {
+        @Override
+        public void write(JsonGenerator gen, Object value) throws IOException {
+            gen.writeNumber(((Number) value).longValue());
+        }
+    },
+    TEXT {
+        @Override
+        public void write(JsonGenerator gen, Object value) throws IOException {
+            gen.writeString((String) value);
+        }
+    },
+    ENUM {
+        @Override
+        public void write(JsonGenerator gen, Object value) throws IOException {
+            gen.writeString(((Enum<?>) value).name());
+        }
+    },
+    BOOLEAN {
+        @Override
+        public void write(JsonGenerator gen, Object value) throws IOException {
+            gen.writeBoolean((Boolean) value);
+        }
+    },
+    INSTANT {
+        @Override
+        public void write(JsonGenerator gen, Object value) throws IOException {
+            // ISO-8601, as the JavaTimeModule writes Instant with timestamps disabled
+            gen.writeString(((Instant) value).toString());
+        }
+    };
+
+    public abstract void write(JsonGenerator gen, Object value) throws IOException;
+}
@@ -0,0 +1,59 @@
+package cat.itacademy.virtualpet.application.dto.fields;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+
+/**
+ * Parses a {@code fields=} parameter into a set of enum constants, kept in declaration order.
+ */
+public final class FieldSelection {
+
+    private FieldSelection() { }
+
+
+    /**
+     * @param always field included whatever the client asks for (the id)
+     * @throws ResponseStatusException 400 for an unknown field name
+     */
+    public static <F extends Enum<F> & ProjectedField> EnumSet<F> parse(String raw, F[] known, F always) {
+        EnumSet<F> selected = EnumSet.of(always);
+        for (String name : raw.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            F field = find(known, trimmed);
+            if (field == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + trimmed + "'; allowed: " + names(known));
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+
+    /** Stable bit mask of a selection, for cache keys and ETags. */
+    public static <F extends Enum<F>> long mask(Set<F> fields) {
+        long mask = 0;
+        for (F field : fields) mask |= 1L << field.ordinal();
+        return mask;
+    }
+
+    // -------- helpers --------
+
+    private static <F extends ProjectedField> F find(F[] known, String name) {
+        for (F field : known) {
+            if (field.jsonName().equals(name)) return field;
+        }
+        return null;
+    }
+
+    private static String names(ProjectedField[] known) {
+        return Arrays.stream(known).map(ProjectedField::jsonName).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,15 @@
+package cat.itacademy.virtualpet.application.dto.fields;
+
+
+/**
+ * A response field that can be selected with {@code fields=}: its JSON name, the JPQL path
+ * it is read from and how its value is written.
+ */
+public interface ProjectedField {
+
+    String jsonName();
+
+    String path();
+
+    FieldKind kind();
+}
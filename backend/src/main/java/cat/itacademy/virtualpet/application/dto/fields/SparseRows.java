@@ -0,0 +1,82 @@
+package cat.itacademy.virtualpet.application.dto.fields;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Result of a {@code fields=} request: projected rows written as JSON objects holding only the
+ * selected fields. Rows may carry trailing columns beyond {@code fields} (e.g. the owner id
+ * used for access checks); those are never written.
+ */
+@JsonSerialize(using = SparseRows.Serializer.class)
+public final class SparseRows {
+
+    private final List<? extends ProjectedField> fields;
+    private final List<Object[]> rows;
+    private final boolean single;
+
+    private SparseRows(List<? extends ProjectedField> fields, List<Object[]> rows, boolean single) {
+        this.fields = fields;
+        this.rows = rows;
+        this.single = single;
+    }
+
+    /** Written as a JSON array of objects. */
+    public static SparseRows list(List<? extends ProjectedField> fields, List<Object[]> rows) {
+        return new SparseRows(fields, rows, false);
+    }
+
+    /** Written as a single JSON object. */
+    public static SparseRows single(List<? extends ProjectedField> fields, Object[] row) {
+        return new SparseRows(fields, List.<Object[]>of(row), true);
+    }
+
+    public List<? extends ProjectedField> getFields() { return fields; }
+
+    public List<Object[]> getRows() { return rows; }
+
+    public int size() { return rows.size(); }
+
+
+    static final class Serializer extends StdSerializer<SparseRows> {
+
+        Serializer() {
+            super(SparseRows.class);
+        }
+
+        @Override
+        public void serialize(SparseRows value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            // Field names are escaped once per response, not once per row
+            SerializableString[] names = new SerializableString[value.fields.size()];
+            for (int i = 0; i < names.length; i++) names[i] = new SerializedString(value.fields.get(i).jsonName());
+
+            if (value.single) {
+                writeRow(value.fields, names, value.rows.get(0), gen);
+                return;
+            }
+            gen.writeStartArray();
+            for (Object[] row : value.rows) writeRow(value.fields, names, row, gen);
+            gen.writeEndArray();
+        }
+
+        private static void writeRow(List<? extends ProjectedField> fields, SerializableString[] names,
+                                     Object[] row, JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                Object cell = row[i];
+                if (cell == null) gen.writeNull();
+                else fields.get(i).kind().write(gen, cell);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
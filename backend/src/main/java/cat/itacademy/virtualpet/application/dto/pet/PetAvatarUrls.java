@@ -0,0 +1,28 @@
+package cat.itacademy.virtualpet.application.dto.pet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Fixed avatar thumbnail sizes and the public URLs they are served from.
+ * The key is random and changes with every upload, so each URL is immutable.
+ */
+public final class PetAvatarUrls {
+
+    /** Square thumbnail edges in pixels, smallest first. */
+    public static final int[] SIZES = {64, 256};
+
+    private PetAvatarUrls() { }
+
+    public static Map<String, String> of(String avatarKey) {
+        if (avatarKey == null) return null;
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int size : SIZES) urls.put(String.valueOf(size), url(avatarKey, size));
+        return urls;
+    }
+
+    public static String url(String avatarKey, int size) {
+        return "/avatars/" + avatarKey + "/" + size + ".jpg";
+    }
+}
@@ -0,0 +1,49 @@
+package cat.itacademy.virtualpet.application.dto.pet;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+
+@Schema(description = "One element of a multi-get: the pet, or why that id could not be returned.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PetBatchItem {
+
+    private Long id;
+
+    @Schema(description = "200 found, 403 not your pet, 404 no such pet", example = "200")
+    private int status;
+
+    private PetResponse pet;
+
+    private String message;
+
+
+    public PetBatchItem() { }
+
+    public PetBatchItem(Long id, int status, PetResponse pet, String message) {
+        this.id = id;
+        this.status = status;
+        this.pet = pet;
+        this.message = message;
+    }
+
+    public static PetBatchItem found(PetResponse pet) {
+        return new PetBatchItem(pet.getId(), 200, pet, null);
+    }
+
+    public static PetBatchItem failed(Long id, int status, String message) {
+        return new PetBatchItem(id, status, null, message);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public PetResponse getPet() { return pet; }
+    public void setPet(PetResponse pet) { this.pet = pet; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
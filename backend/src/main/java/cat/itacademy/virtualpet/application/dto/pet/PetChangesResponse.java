@@ -0,0 +1,43 @@
+package cat.itacademy.virtualpet.application.dto.pet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+
+@Schema(description = "Pets changed since a cursor: current state of changed pets plus ids of deleted ones.")
+public class PetChangesResponse {
+
+    @Schema(description = "Pass as ?since= on the next call")
+    private long cursor;
+
+    @Schema(description = "More changes are pending: call again with the new cursor")
+    private boolean hasMore;
+
+    private List<PetResponse> changed;
+
+    @Schema(description = "Tombstones: ids of pets deleted since the cursor")
+    private List<Long> deleted;
+
+
+    public PetChangesResponse() { }
+
+    public PetChangesResponse(long cursor, boolean hasMore, List<PetResponse> changed, List<Long> deleted) {
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.changed = changed;
+        this.deleted = deleted;
+    }
+
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public List<PetResponse> getChanged() { return changed; }
+    public void setChanged(List<PetResponse> changed) { this.changed = changed; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+}
@@ -0,0 +1,50 @@
+package cat.itacademy.virtualpet.application.dto.pet;
+
+import cat.itacademy.virtualpet.application.dto.fields.FieldKind;
+import cat.itacademy.virtualpet.application.dto.fields.FieldSelection;
+import cat.itacademy.virtualpet.application.dto.fields.ProjectedField;
+
+import java.util.EnumSet;
+
+
+/**
+ * {@link PetResponse} fields selectable with {@code fields=}. Paths are relative to the alias {@code p}.
+ * {@code avatarUrls} is derived, not a column, so it is only in the full representation.
+ */
+public enum PetField implements ProjectedField {
+
+    ID("id", "p.id", FieldKind.NUMBER),
+    NAME("name", "p.name", FieldKind.TEXT),
+    BREED("breed", "p.breed", FieldKind.ENUM),
+    LIFE_STAGE("lifeStage", "p.lifeStage", FieldKind.ENUM),
+    HUNGER("hunger", "p.hunger", FieldKind.NUMBER),
+    HYGIENE("hygiene", "p.hygiene", FieldKind.NUMBER),
+    FUN("fun", "p.fun", FieldKind.NUMBER),
+    ACTION_COUNT("actionCount", "p.actionCount", FieldKind.NUMBER),
+    WELLNESS("wellness", "p.wellness", FieldKind.NUMBER),
+    OWNER_ID("ownerId", "p.owner.id", FieldKind.NUMBER),
+    CREATED_AT("createdAt", "p.createdAt", FieldKind.INSTANT),
+    VERSION("version", "p.version", FieldKind.NUMBER),
+    DEAD("dead", "p.dead", FieldKind.BOOLEAN),
+    DEATH_AT("deathAt", "p.deathAt", FieldKind.INSTANT),
+    AVATAR_VERSION("avatarVersion", "p.avatarVersion", FieldKind.NUMBER);
+
+    private final String jsonName;
+    private final String path;
+    private final FieldKind kind;
+
+    PetField(String jsonName, String path, FieldKind kind) {
+        this.jsonName = jsonName;
+        this.path = path;
+        this.kind = kind;
+    }
+
+    /** {@code id} is always included; unknown names → 400. */
+    public static EnumSet<PetField> parse(String fields) {
+        return FieldSelection.parse(fields, values(), ID);
+    }
+
+    @Override public String jsonName() { return jsonName; }
+    @Override public String path() { return path; }
+    @Override public FieldKind kind() { return kind; }
+}
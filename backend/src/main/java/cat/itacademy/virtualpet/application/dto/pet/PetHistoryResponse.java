@@ -0,0 +1,50 @@
+package cat.itacademy.virtualpet.application.dto.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stat history of one pet over [from, to), oldest point first.")
+public class PetHistoryResponse {
+
+    @Schema(example = "3")
+    private Long petId;
+
+    @Schema(description = "Level the points come from; chosen from the span when not requested")
+    private StatResolution resolution;
+
+    private Instant from;
+
+    private Instant to;
+
+    private List<Point> points;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+
+        @Schema(description = "Sample time (RAW) or bucket start (HOUR, DAY), UTC")
+        private Instant t;
+
+        @Schema(description = "Average over the bucket, one decimal", example = "42.5")
+        private double hunger;
+
+        private double hygiene;
+
+        private double fun;
+
+        @Schema(description = "Raw samples behind the point", example = "12")
+        private long samples;
+    }
+}
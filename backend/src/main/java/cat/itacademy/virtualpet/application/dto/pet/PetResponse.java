@@ -2,9 +2,11 @@ package cat.itacademy.virtualpet.application.dto.pet;
 
 import cat.itacademy.virtualpet.domain.pet.enums.Breed;
 import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.Instant;
+import java.util.Map;
 
 
 @Schema(description = "Pet information returned in responses.")
@@ -18,13 +20,27 @@ public class PetResponse {
     private int hygiene;
     private int fun;
     private int actionCount;
+
+    @Schema(description = "min(100 - hunger, hygiene, fun); at or below 25 the pet has warnings", example = "60")
+    private int wellness;
+
     private Long ownerId;
     private Instant createdAt;
 
+    @Schema(description = "Pet version; send it back as If-Match to act only on this state")
+    private long version;
+
 
     private boolean dead;
     private Instant deathAt;
 
+    @Schema(description = "0 until an avatar is uploaded; incremented on every new avatar")
+    private long avatarVersion;
+
+    @Schema(description = "Thumbnail URL per pixel size, e.g. {\"64\": \"/avatars/…/64.jpg\"}; absent without avatar")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, String> avatarUrls;
+
 
 
     public Long getId() { return id; }
@@ -51,15 +67,27 @@ public class PetResponse {
     public int getActionCount() { return actionCount; }
     public void setActionCount(int actionCount) { this.actionCount = actionCount; }
 
+    public int getWellness() { return wellness; }
+    public void setWellness(int wellness) { this.wellness = wellness; }
+
     public Long getOwnerId() { return ownerId; }
     public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
 
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public boolean isDead() { return dead; }
     public void setDead(boolean dead) { this.dead = dead; }
 
     public Instant getDeathAt() { return deathAt; }
     public void setDeathAt(Instant deathAt) { this.deathAt = deathAt; }
+
+    public long getAvatarVersion() { return avatarVersion; }
+    public void setAvatarVersion(long avatarVersion) { this.avatarVersion = avatarVersion; }
+
+    public Map<String, String> getAvatarUrls() { return avatarUrls; }
+    public void setAvatarUrls(Map<String, String> avatarUrls) { this.avatarUrls = avatarUrls; }
 }
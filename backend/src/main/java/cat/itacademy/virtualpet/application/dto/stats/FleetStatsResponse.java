@@ -0,0 +1,54 @@
+package cat.itacademy.virtualpet.application.dto.stats;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Counts and averages over every pet, kept incrementally and recounted in the background.")
+public class FleetStatsResponse {
+
+    @Schema(example = "120")
+    private long total;
+
+    @Schema(example = "97")
+    private long alive;
+
+    @Schema(example = "23")
+    private long dead;
+
+    @Schema(description = "Pets per breed (every breed present, 0 if none)")
+    private Map<Breed, Long> byBreed;
+
+    @Schema(description = "Pets per life stage (every stage present, 0 if none)")
+    private Map<LifeStage, Long> byStage;
+
+    @Schema(description = "Average stats of living pets; null when none is alive")
+    private Averages averages;
+
+    @Schema(description = "Last time the counters were recounted from the database")
+    private Instant recountedAt;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Averages {
+
+        @Schema(description = "One decimal", example = "48.3")
+        private double hunger;
+
+        private double hygiene;
+
+        private double fun;
+    }
+}
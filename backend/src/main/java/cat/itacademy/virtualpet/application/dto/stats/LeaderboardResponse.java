@@ -0,0 +1,48 @@
+package cat.itacademy.virtualpet.application.dto.stats;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.Leaderboard;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Best living pets of one leaderboard, best first.")
+public class LeaderboardResponse {
+
+    @Schema(example = "WELLNESS")
+    private Leaderboard board;
+
+    private List<Entry> entries;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        @Schema(example = "1")
+        private int rank;
+
+        @Schema(example = "42")
+        private Long petId;
+
+        @Schema(example = "Kira")
+        private String name;
+
+        private Breed breed;
+
+        private LifeStage lifeStage;
+
+        @Schema(description = "AGE: seconds alive, ACTIONS: action count, WELLNESS: 0-100 (below 25 is at risk)",
+                example = "86400")
+        private long value;
+    }
+}
@@ -0,0 +1,49 @@
+package cat.itacademy.virtualpet.application.dto.stats;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lifetime percentiles (createdAt → deathAt) of dead pets, from periodic histogram snapshots.")
+public class LifespanStatsResponse {
+
+    @Schema(description = "All deaths; null when there are none")
+    private Percentiles overall;
+
+    @Schema(description = "Per breed (every breed present, null if none died)")
+    private Map<Breed, Percentiles> byBreed;
+
+    @Schema(description = "Per action count at death: 0-4, 5-9, 10-14, 15+ (every bracket present, null if none)")
+    private Map<String, Percentiles> byActionCount;
+
+    @Schema(description = "Time of the snapshot the figures come from; deaths since then are not included yet")
+    private Instant snapshotAt;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Percentiles {
+
+        @Schema(example = "42")
+        private long deaths;
+
+        @Schema(description = "Lifetimes in milliseconds, within 1%", example = "3600000")
+        private long p50Millis;
+
+        private long p90Millis;
+
+        private long p99Millis;
+
+        private long maxMillis;
+    }
+}
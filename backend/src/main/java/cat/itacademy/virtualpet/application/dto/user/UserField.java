@@ -0,0 +1,39 @@
+package cat.itacademy.virtualpet.application.dto.user;
+
+import cat.itacademy.virtualpet.application.dto.fields.FieldKind;
+import cat.itacademy.virtualpet.application.dto.fields.FieldSelection;
+import cat.itacademy.virtualpet.application.dto.fields.ProjectedField;
+
+import java.util.EnumSet;
+
+
+/**
+ * {@link UserResponse} fields selectable with {@code fields=}. {@code roles} is a collection
+ * table, not a column, so it is only available in the full response.
+ */
+public enum UserField implements ProjectedField {
+
+    ID("id", "u.id", FieldKind.NUMBER),
+    USERNAME("username", "u.username", FieldKind.TEXT),
+    EMAIL("email", "u.email", FieldKind.TEXT),
+    CREATED_AT("createdAt", "u.createdAt", FieldKind.INSTANT);
+
+    private final String jsonName;
+    private final String path;
+    private final FieldKind kind;
+
+    UserField(String jsonName, String path, FieldKind kind) {
+        this.jsonName = jsonName;
+        this.path = path;
+        this.kind = kind;
+    }
+
+    /** {@code id} is always included; unknown names → 400. */
+    public static EnumSet<UserField> parse(String fields) {
+        return FieldSelection.parse(fields, values(), ID);
+    }
+
+    @Override public String jsonName() { return jsonName; }
+    @Override public String path() { return path; }
+    @Override public FieldKind kind() { return kind; }
+}
@@ -5,7 +5,7 @@ import cat.itacademy.virtualpet.domain.pet.Pet;
 import org.mapstruct.*;
 
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", imports = PetAvatarUrls.class)
 public interface PetMapper {
 
 
@@ -19,13 +19,18 @@ public interface PetMapper {
     @Mapping(target = "actionCount", ignore = true)
     @Mapping(target = "dead", ignore = true)
     @Mapping(target = "deathAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "avatarKey", ignore = true)
+    @Mapping(target = "avatarVersion", ignore = true)
     Pet toEntity(PetCreateRequest dto);
 
 
     @Mapping(source = "owner.id", target = "ownerId")
+    @Mapping(target = "avatarUrls", expression = "java(PetAvatarUrls.of(pet.getAvatarKey()))")
     PetResponse toResponse(Pet pet);
 
     @Mapping(source = "owner.id", target = "ownerId")
+    @Mapping(target = "avatarUrls", expression = "java(PetAvatarUrls.of(pet.getAvatarKey()))")
     PetActionResponse toActionResponse(Pet pet);
 
 
@@ -1,18 +1,23 @@
 package cat.itacademy.virtualpet.application.service.auth;
 
 import cat.itacademy.virtualpet.application.dto.auth.AuthResponse;
+import cat.itacademy.virtualpet.application.dto.auth.AvailabilityResponse;
 import cat.itacademy.virtualpet.application.dto.auth.LoginRequest;
 import cat.itacademy.virtualpet.application.dto.auth.RegisterRequest;
 import cat.itacademy.virtualpet.domain.user.User;
 import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import cat.itacademy.virtualpet.infrastructure.security.BCryptStrengthCalibrator;
 import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import cat.itacademy.virtualpet.infrastructure.security.PasswordHashingService;
+import cat.itacademy.virtualpet.web.error.ConstraintViolations;
 import cat.itacademy.virtualpet.web.error.EmailAlreadyRegisteredException;
 import cat.itacademy.virtualpet.web.error.UsernameAlreadyTakenException;
 import cat.itacademy.virtualpet.web.error.InvalidEmailException;
 import cat.itacademy.virtualpet.web.error.IncorrectPasswordException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
@@ -23,8 +28,11 @@ import java.util.Set;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashing;
+    private final BCryptStrengthCalibrator bcryptStrength;
     private final JwtService jwtService;
+    private final UserAvailabilityIndex availabilityIndex;
 
 
     public AuthResponse register(RegisterRequest in) {
@@ -33,16 +41,7 @@ public class AuthService {
 
         log.info("AUTH → REGISTER attempt username='{}' email='{}'", username, email);
 
-        if (userRepository.existsByEmail(email)) {
-            log.warn("AUTH → REGISTER email already registered: {}", email);
-            throw new EmailAlreadyRegisteredException(email);
-        }
-        if (userRepository.existsByUsername(username)) {
-            log.warn("AUTH → REGISTER username already taken: {}", username);
-            throw new UsernameAlreadyTakenException(username);
-        }
-
-        final String hash = passwordEncoder.encode(in.getPassword());
+        final String hash = passwordHashing.encode(in.getPassword());
 
         User user = User.builder()
                 .username(username)
@@ -51,7 +50,22 @@ public class AuthService {
                 .roles(Set.of("ROLE_USER"))
                 .build();
 
-        userRepository.save(user);
+        // Single INSERT: the unique constraints decide, no exists* pre-checks (racy and 2 extra round trips)
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, User.UK_EMAIL)) {
+                log.warn("AUTH → REGISTER email already registered: {}", email);
+                throw new EmailAlreadyRegisteredException(email);
+            }
+            if (ConstraintViolations.isViolationOf(ex, User.UK_USERNAME)) {
+                log.warn("AUTH → REGISTER username already taken: {}", username);
+                throw new UsernameAlreadyTakenException(username);
+            }
+            throw ex;
+        }
+        availabilityIndex.add(username, email);
+        userCache.put(user);
         log.info("AUTH → REGISTER success userId={} email={}", user.getId(), email);
 
         String token = jwtService.generateToken(user);
@@ -67,17 +81,21 @@ public class AuthService {
         final String email = sanitizeEmail(in.getEmail());
         log.info("AUTH → LOGIN attempt email='{}'", email);
 
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("AUTH → LOGIN invalid email: {}", email);
                     return new InvalidEmailException();
                 });
 
-        if (!passwordEncoder.matches(in.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashing.matches(in.getPassword(), user.getPasswordHash())) {
             log.warn("AUTH → LOGIN incorrect password for userId={} email={}", user.getId(), email);
             throw new IncorrectPasswordException();
         }
 
+        if (bcryptStrength.needsRehash(user.getPasswordHash())) {
+            rehashPassword(user, in.getPassword());
+        }
+
         String token = jwtService.generateToken(user);
         log.info("AUTH → LOGIN success userId={} email={}", user.getId(), email);
         log.debug("AUTH → LOGIN JWT issued for userId={}", user.getId());
@@ -87,7 +105,36 @@ public class AuthService {
                 .build();
     }
 
+
+    public AvailabilityResponse checkAvailability(String rawUsername, String rawEmail) {
+        final String username = sanitize(rawUsername);
+        final String email = sanitizeEmail(rawEmail);
+
+        AvailabilityResponse resp = AvailabilityResponse.builder()
+                .usernameAvailable(username == null || username.isEmpty() ? null : availabilityIndex.isUsernameAvailable(username))
+                .emailAvailable(email == null || email.isEmpty() ? null : availabilityIndex.isEmailAvailable(email))
+                .build();
+        log.debug("AUTH → AVAILABILITY username='{}' -> {} email='{}' -> {}",
+                username, resp.getUsernameAvailable(), email, resp.getEmailAvailable());
+        return resp;
+    }
+
     // -------- helpers --------
+
+    // Best effort: a failed upgrade must never fail an otherwise valid login. Updates the stored
+    // row, not the cached copy, so a failed save leaves the cache on the persisted hash
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            User stored = userRepository.findById(user.getId()).orElseThrow();
+            stored.setPasswordHash(passwordHashing.encode(rawPassword));
+            userCache.put(userRepository.save(stored));
+            log.info("AUTH → LOGIN password rehashed to strength={} for userId={}",
+                    bcryptStrength.getStrength(), user.getId());
+        } catch (RuntimeException ex) {
+            log.warn("AUTH → LOGIN rehash skipped for userId={}: {}", user.getId(), ex.getMessage());
+        }
+    }
+
     private String sanitizeEmail(String raw) {
         return raw == null ? null : raw.trim().toLowerCase();
     }
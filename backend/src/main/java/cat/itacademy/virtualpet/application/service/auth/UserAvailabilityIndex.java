@@ -0,0 +1,104 @@
+package cat.itacademy.virtualpet.application.service.auth;
+
+import cat.itacademy.virtualpet.domain.user.UserIdentity;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.bloom.CountingBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+
+/**
+ * In-memory Bloom filters over usernames and emails, loaded once at startup by streaming
+ * the users table and kept current on register/delete. Answers "definitely free" without
+ * touching the database; only "maybe taken" falls through to the indexed lookup.
+ */
+@Slf4j
+@Component
+public class UserAvailabilityIndex {
+
+    private final UserRepository userRepository;
+    private final CountingBloomFilter usernames;
+    private final CountingBloomFilter emails;
+    private final Counter bloomNegatives;
+    private final Counter dbLookups;
+
+    // Until the initial load finishes every answer goes to the database
+    private volatile boolean loaded = false;
+
+    public UserAvailabilityIndex(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.availability.expected-users:100000}") long expectedUsers,
+            @Value("${auth.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+
+        this.userRepository = userRepository;
+        this.usernames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        this.bloomNegatives = Counter.builder("auth.availability.lookups").tag("source", "bloom").register(meterRegistry);
+        this.dbLookups = Counter.builder("auth.availability.lookups").tag("source", "database").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        AtomicLong count = new AtomicLong();
+        try (Stream<UserIdentity> rows = userRepository.streamAllIdentities()) {
+            rows.forEach(row -> {
+                add(row.getUsername(), row.getEmail());
+                count.incrementAndGet();
+            });
+        }
+        loaded = true;
+        log.info("AVAILABILITY → index loaded users={} slots={} hashes={}",
+                count.get(), usernames.slotCount(), usernames.hashFunctions());
+    }
+
+
+    public boolean isUsernameAvailable(String username) {
+        if (loaded && !usernames.mightContain(key(username))) {
+            bloomNegatives.increment();
+            return true;
+        }
+        dbLookups.increment();
+        return !userRepository.existsByUsername(username);
+    }
+
+
+    public boolean isEmailAvailable(String email) {
+        if (loaded && !emails.mightContain(key(email))) {
+            bloomNegatives.increment();
+            return true;
+        }
+        dbLookups.increment();
+        return !userRepository.existsByEmail(email);
+    }
+
+
+    public void add(String username, String email) {
+        if (username != null) usernames.add(key(username));
+        if (email != null) emails.add(key(email));
+    }
+
+
+    public void remove(String username, String email) {
+        // Removing before the load completes could cancel out a different user's counters
+        if (!loaded) return;
+        if (username != null) usernames.remove(key(username));
+        if (email != null) emails.remove(key(email));
+    }
+
+    // Case-insensitive keys: a superset of what the DB collation considers equal
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,10 @@
+package cat.itacademy.virtualpet.application.service.dashboard;
+
+import cat.itacademy.virtualpet.application.dto.dashboard.DashboardResponse;
+
+
+public interface DashboardService {
+
+
+    DashboardResponse getDashboard(String userEmail);
+}
@@ -0,0 +1,125 @@
+package cat.itacademy.virtualpet.application.service.dashboard;
+
+import cat.itacademy.virtualpet.application.dto.dashboard.DashboardResponse;
+import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.application.mapper.PetMapper;
+import cat.itacademy.virtualpet.application.mapper.UserMapper;
+import cat.itacademy.virtualpet.application.service.pet.PetWarnings;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.infrastructure.cache.PetListVersions;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Builds GET /me/dashboard from the cached user and a single owner-pets query, and keeps the
+ * result per user. An entry is tagged with the owner's {@link PetListVersions} tag, read from the
+ * database on every request, so any node rebuilds it on the first read after a change; the TTL
+ * bounds staleness of profile changes.
+ */
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final UserCache userCache;
+    private final PetRepository petRepository;
+    private final PetListVersions petListVersions;
+    private final UserMapper userMapper;
+    private final PetMapper petMapper;
+    private final Cache<Long, Entry> dashboards;
+
+    public DashboardServiceImpl(
+            UserCache userCache,
+            PetRepository petRepository,
+            PetListVersions petListVersions,
+            UserMapper userMapper,
+            PetMapper petMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.dashboard.max-size:10000}") long maxSize,
+            @Value("${cache.dashboard.ttl:PT5M}") Duration ttl) {
+
+        this.userCache = userCache;
+        this.petRepository = petRepository;
+        this.petListVersions = petListVersions;
+        this.userMapper = userMapper;
+        this.petMapper = petMapper;
+        this.dashboards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, dashboards, "dashboards");
+    }
+
+
+    @Override
+    public DashboardResponse getDashboard(String userEmail) {
+        User user = userCache.findByEmail(userEmail)
+                .orElseThrow(() -> {
+                    log.warn("User not found by email {}", userEmail);
+                    return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
+                });
+
+        // Read the version before loading: a write racing with the load leaves an older tag behind
+        String version = petListVersions.ownerETag(user.getId());
+        Entry cached = dashboards.getIfPresent(user.getId());
+        if (cached != null && cached.version().equals(version)) {
+            log.debug("USER {} → DASHBOARD served from cache", userEmail);
+            return cached.response();
+        }
+
+        log.info("USER {} → BUILD DASHBOARD", userEmail);
+        DashboardResponse response = build(user);
+        dashboards.put(user.getId(), new Entry(version, response));
+        return response;
+    }
+
+    // -------- helpers --------
+
+    private DashboardResponse build(User user) {
+        List<Pet> pets = petRepository.findAllByOwnerId(user.getId());
+
+        Map<LifeStage, Long> stageCounts = new EnumMap<>(LifeStage.class);
+        for (LifeStage stage : LifeStage.values()) stageCounts.put(stage, 0L);
+
+        List<PetResponse> petResponses = new ArrayList<>(pets.size());
+        List<DashboardResponse.PetWarning> warnings = new ArrayList<>();
+        for (Pet pet : pets) {
+            petResponses.add(petMapper.toResponse(pet));
+            stageCounts.merge(pet.getLifeStage(), 1L, Long::sum);
+            List<String> active = PetWarnings.of(pet);
+            if (!active.isEmpty()) {
+                warnings.add(new DashboardResponse.PetWarning(pet.getId(), pet.getName(), active));
+            }
+        }
+
+        log.debug("USER {} → DASHBOARD pets={} warnings={}", user.getEmail(), pets.size(), warnings.size());
+        // Shared between requests through the cache: hand out read-only views
+        return new DashboardResponse(
+                userMapper.toResponse(user),
+                Collections.unmodifiableList(petResponses),
+                Collections.unmodifiableMap(stageCounts),
+                Collections.unmodifiableList(warnings));
+    }
+
+    private record Entry(String version, DashboardResponse response) { }
+}
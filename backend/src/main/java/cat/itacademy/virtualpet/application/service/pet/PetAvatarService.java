@@ -0,0 +1,12 @@
+package cat.itacademy.virtualpet.application.service.pet;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+
+public interface PetAvatarService {
+
+
+    // Streams the body to disk and queues thumbnailing; the pet's avatarVersion changes when done
+    void upload(Long petId, InputStream body, long contentLength, String userEmail) throws IOException;
+}
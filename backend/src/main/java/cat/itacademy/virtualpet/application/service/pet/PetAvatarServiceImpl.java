@@ -0,0 +1,209 @@
+package cat.itacademy.virtualpet.application.service.pet;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetAvatarUrls;
+import cat.itacademy.virtualpet.infrastructure.avatars.AvatarThumbnailer;
+import cat.itacademy.virtualpet.infrastructure.avatars.AvatarThumbnailer.Probe;
+import cat.itacademy.virtualpet.infrastructure.avatars.PetAvatarStore;
+import cat.itacademy.virtualpet.web.error.AvatarProcessingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Avatar uploads: the body is copied to a temp file through a fixed 64 KiB buffer, checked
+ * from its header, then thumbnailed on a bounded pool. Only when every size is on disk is the
+ * new key swapped into the pet, so clients never see URLs whose files are still being written.
+ * When the queue is full uploads are refused up front (503 + Retry-After) before reading the body.
+ */
+@Slf4j
+@Service
+public class PetAvatarServiceImpl implements PetAvatarService {
+
+    private static final int COPY_BUFFER = 64 * 1024;
+    private static final int SWAP_ATTEMPTS = 3;
+
+    private final PetService petService;
+    private final PetAvatarStore store;
+    private final AvatarThumbnailer thumbnailer;
+    private final ThreadPoolExecutor executor;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWait;
+    private final Timer duration;
+    private final Counter failures;
+
+    public PetAvatarServiceImpl(
+            PetService petService,
+            PetAvatarStore store,
+            AvatarThumbnailer thumbnailer,
+            MeterRegistry meterRegistry,
+            @Value("${pets.avatar.max-bytes:10485760}") long maxBytes,
+            @Value("${pets.avatar.max-pixels:40000000}") long maxPixels,
+            @Value("${pets.avatar.pool-size:0}") int poolSize,
+            @Value("${pets.avatar.queue-capacity:32}") int queueCapacity,
+            @Value("${pets.avatar.retry-after-seconds:2}") long retryAfterSeconds) {
+
+        this.petService = petService;
+        this.store = store;
+        this.thumbnailer = thumbnailer;
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // Half the cores by default: thumbnailing is CPU-bound and must not starve request handling
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThumbnailThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("pets.avatar.queue.wait")
+                .description("Time an uploaded avatar waits for a thumbnail thread")
+                .register(meterRegistry);
+        this.duration = Timer.builder("pets.avatar.processing")
+                .description("Decode, resize and write all thumbnail sizes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("pets.avatar.failures").register(meterRegistry);
+
+        meterRegistry.gauge("pets.avatar.queue.size", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("pets.avatar.active", executor, ThreadPoolExecutor::getActiveCount);
+
+        log.info("AVATAR → pool ready threads={} queueCapacity={}", threads, queueCapacity);
+    }
+
+
+    @Override
+    public void upload(Long petId, InputStream body, long contentLength, String userEmail) throws IOException {
+        petService.checkPetAccess(petId, userEmail);
+        if (contentLength > maxBytes) throw tooLarge();
+        if (executor.getQueue().remainingCapacity() == 0) throw busy();
+
+        Path upload = store.newUpload();
+        boolean queued = false;
+        try {
+            long bytes = copyBounded(body, upload);
+            Probe probe = probe(upload);
+            if (probe.pixels() > maxPixels) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Avatar must have at most " + maxPixels + " pixels");
+            }
+
+            String key = store.newKey();
+            long enqueuedAt = System.nanoTime();
+            executor.execute(() -> process(petId, upload, key, enqueuedAt));
+            queued = true;
+            log.info("USER {} → AVATAR PET {} queued bytes={} {} {}x{}",
+                    userEmail, petId, bytes, probe.format(), probe.width(), probe.height());
+        } catch (RejectedExecutionException ex) {
+            throw busy();
+        } finally {
+            if (!queued) Files.deleteIfExists(upload);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // -------- helpers --------
+
+    private void process(Long petId, Path upload, String key, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            thumbnailer.render(upload, store.directory(key), PetAvatarUrls.SIZES);
+            store.delete(swap(petId, key));
+        } catch (Exception ex) {
+            failures.increment();
+            store.delete(key);
+            log.warn("PET {} → AVATAR processing failed | reason={}", petId, ex.getMessage());
+        } finally {
+            duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException ex) {
+                log.warn("AVATAR → could not delete upload {} | reason={}", upload, ex.getMessage());
+            }
+        }
+    }
+
+    // A concurrent action on the same pet bumps @Version; retry the swap on a fresh read
+    private String swap(Long petId, String key) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return petService.replaceAvatar(petId, key);
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                if (attempt == SWAP_ATTEMPTS) throw ex;
+            }
+        }
+    }
+
+    private long copyBounded(InputStream body, Path target) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) throw tooLarge();
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Avatar body is empty");
+        return total;
+    }
+
+    private Probe probe(Path upload) {
+        try {
+            return thumbnailer.probe(upload);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Avatar is not a readable image");
+        }
+    }
+
+    private ResponseStatusException tooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Avatar must be at most " + maxBytes + " bytes");
+    }
+
+    private AvatarProcessingUnavailableException busy() {
+        log.warn("AVATAR → rejected: queue full (size={})", executor.getQueue().size());
+        return new AvatarProcessingUnavailableException(retryAfterSeconds);
+    }
+
+    private static final class ThumbnailThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "avatar-thumb-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package cat.itacademy.virtualpet.application.service.pet;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetHistoryResponse;
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+
+import java.time.Instant;
+
+
+public interface PetHistoryService {
+
+
+    // Null bounds default to the last 24 hours; null resolution is picked from the span
+    PetHistoryResponse getHistory(Long petId, Instant from, Instant to, StatResolution resolution, String userEmail);
+}
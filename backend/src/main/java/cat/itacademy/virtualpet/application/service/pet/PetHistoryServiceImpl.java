@@ -0,0 +1,150 @@
+package cat.itacademy.virtualpet.application.service.pet;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetHistoryResponse;
+import cat.itacademy.virtualpet.application.dto.pet.PetHistoryResponse.Point;
+import cat.itacademy.virtualpet.domain.pet.PetStatRollupRepository;
+import cat.itacademy.virtualpet.domain.pet.PetStatSampleRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import cat.itacademy.virtualpet.infrastructure.history.PetStatRollupJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Answers history queries from the stored level for buckets before its watermark and
+ * aggregates only the not-yet-rolled tail from the level below, so every read is a range
+ * scan over at most a few hundred rows plus a short tail.
+ */
+@Slf4j
+@Service
+public class PetHistoryServiceImpl implements PetHistoryService {
+
+    private final PetService petService;
+    private final PetStatSampleRepository samples;
+    private final PetStatRollupRepository rollups;
+    private final PetStatRollupJob rollupJob;
+
+    // Widest span each level may be asked for; also the limits AUTO uses to pick a level
+    @Value("${pets.history.raw-max-span:P2D}")
+    private Duration rawMaxSpan = Duration.ofDays(2);
+
+    @Value("${pets.history.hour-max-span:P62D}")
+    private Duration hourMaxSpan = Duration.ofDays(62);
+
+    public PetHistoryServiceImpl(PetService petService, PetStatSampleRepository samples,
+                                 PetStatRollupRepository rollups, PetStatRollupJob rollupJob) {
+        this.petService = petService;
+        this.samples = samples;
+        this.rollups = rollups;
+        this.rollupJob = rollupJob;
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public PetHistoryResponse getHistory(Long petId, Instant from, Instant to, StatResolution resolution,
+                                         String userEmail) {
+        petService.checkPetAccess(petId, userEmail);
+
+        Instant now = Instant.now();
+        Instant end = to != null ? to : now;
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+
+        StatResolution level = resolution != null ? resolution : pick(start, end, now);
+        Duration span = Duration.between(start, end);
+        if ((level == StatResolution.RAW && span.compareTo(rawMaxSpan) > 0)
+                || (level == StatResolution.HOUR && span.compareTo(hourMaxSpan) > 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    level + " history is limited to " + (level == StatResolution.RAW ? rawMaxSpan : hourMaxSpan)
+                            + "; use a coarser resolution");
+        }
+
+        List<Point> points = series(petId, level, start, end);
+        points.forEach(PetHistoryServiceImpl::round);
+        log.debug("USER {} → HISTORY PET {} {} [{}, {}) points={}", userEmail, petId, level, start, end, points.size());
+        return new PetHistoryResponse(petId, level, start, end, points);
+    }
+
+    // -------- helpers --------
+
+    // Finest level that both covers the span within its limit and still retains data at 'from'
+    private StatResolution pick(Instant from, Instant to, Instant now) {
+        Duration span = Duration.between(from, to);
+        if (span.compareTo(rawMaxSpan) <= 0 && retained(StatResolution.RAW, from, now)) return StatResolution.RAW;
+        if (span.compareTo(hourMaxSpan) <= 0 && retained(StatResolution.HOUR, from, now)) return StatResolution.HOUR;
+        return StatResolution.DAY;
+    }
+
+    private boolean retained(StatResolution level, Instant from, Instant now) {
+        Duration retention = rollupJob.retention(level);
+        return retention == null || !from.isBefore(now.minus(retention));
+    }
+
+    private List<Point> series(Long petId, StatResolution level, Instant from, Instant to) {
+        if (level == StatResolution.RAW) {
+            List<Point> points = new ArrayList<>();
+            samples.findByPetIdAndSampledAtGreaterThanEqualAndSampledAtLessThanOrderBySampledAtAsc(petId, from, to)
+                    .forEach(s -> points.add(new Point(s.getSampledAt(), s.getHunger(), s.getHygiene(), s.getFun(), 1)));
+            return points;
+        }
+
+        // Whole buckets: the one containing 'from' is included
+        Instant alignedFrom = level.bucketStart(from);
+        Instant watermark = rollupJob.watermark(level);
+        List<Point> points = new ArrayList<>();
+        if (alignedFrom.isBefore(watermark)) {
+            Instant storedTo = to.isBefore(watermark) ? to : watermark;
+            rollups.findByPetIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                            petId, level, alignedFrom, storedTo)
+                    .forEach(r -> points.add(new Point(r.getBucketStart(), r.getHunger(), r.getHygiene(), r.getFun(),
+                            r.getSamples())));
+        }
+        if (to.isAfter(watermark)) {
+            Instant tailFrom = alignedFrom.isAfter(watermark) ? alignedFrom : watermark;
+            points.addAll(bucket(level, series(petId, level.source(), tailFrom, to)));
+        }
+        return points;
+    }
+
+    // Sample-weighted averages of ordered finer points into buckets of 'level'
+    private static List<Point> bucket(StatResolution level, List<Point> finer) {
+        List<Point> buckets = new ArrayList<>();
+        Point current = null;
+        for (Point p : finer) {
+            Instant start = level.bucketStart(p.getT());
+            if (current == null || !current.getT().equals(start)) {
+                if (current != null) buckets.add(average(current));
+                current = new Point(start, 0, 0, 0, 0);
+            }
+            current.setHunger(current.getHunger() + p.getHunger() * p.getSamples());
+            current.setHygiene(current.getHygiene() + p.getHygiene() * p.getSamples());
+            current.setFun(current.getFun() + p.getFun() * p.getSamples());
+            current.setSamples(current.getSamples() + p.getSamples());
+        }
+        if (current != null) buckets.add(average(current));
+        return buckets;
+    }
+
+    private static Point average(Point sums) {
+        long n = sums.getSamples();
+        return new Point(sums.getT(), sums.getHunger() / n, sums.getHygiene() / n, sums.getFun() / n, n);
+    }
+
+    private static void round(Point p) {
+        p.setHunger(Math.round(p.getHunger() * 10) / 10.0);
+        p.setHygiene(Math.round(p.getHygiene() * 10) / 10.0);
+        p.setFun(Math.round(p.getFun() * 10) / 10.0);
+    }
+}
@@ -1,10 +1,12 @@
 package cat.itacademy.virtualpet.application.service.pet;
 
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Set;
 
 
 public interface PetService {
@@ -13,14 +15,39 @@ public interface PetService {
     PetResponse createPet(PetCreateRequest request, String userEmail);
     List<PetResponse> getAllPets(String userEmail);
     PetResponse getPetById(Long id, String userEmail);
+
+    // fields= variants: only the selected columns are read and written
+    SparseRows getAllPets(Set<PetField> fields, String userEmail);
+    SparseRows getPetById(Long id, Set<PetField> fields, String userEmail);
+
+    // One item per distinct id, in request order; missing or foreign ids don't fail the batch
+    List<PetBatchItem> getPetsByIds(List<Long> ids, String userEmail);
+    byte[] getPetJsonById(Long id, String userEmail);
+    String getPetETag(Long id, String userEmail);
+    String getPetsETag(String userEmail);
+
+    // since == null → only the current cursor, to start syncing after a full GET /pets
+    PetChangesResponse getChangesSince(Long since, String userEmail);
+
+    // Owner whose changes a live stream may receive; null = every pet (admins only)
+    Long resolveStreamOwner(String userEmail, Long requestedOwnerId);
     PetResponse updatePet(Long id, PetUpdateRequest request, String userEmail);
     void deletePet(Long id, String userEmail);
 
+    // Avatars: access is checked before an upload is read; the new key is swapped in once its
+    // thumbnails exist, returning the previous key (null if none) so its files can be removed
+    void checkPetAccess(Long id, String userEmail);
+    String replaceAvatar(Long id, String avatarKey);
+
 
-    Page<PetResponse> adminListPets(Long ownerId, Pageable pageable, String adminEmail);
+    // atRisk / maxWellness: living pets only, at or below PetWellness.AT_RISK / the given score
+    Page<PetResponse> adminListPets(Long ownerId, Boolean atRisk, Integer maxWellness, Pageable pageable,
+                                    String adminEmail);
+    List<PetBatchItem> adminGetPetsByIds(List<Long> ids, String adminEmail);
 
 
-    PetActionResponse feed(Long id, String userEmail);
-    PetActionResponse wash(Long id, String userEmail);
-    PetActionResponse play(Long id, String userEmail);
+    // expectedVersion == null → unconditional; otherwise the action only applies to that version
+    PetActionResponse feed(Long id, Long expectedVersion, String userEmail);
+    PetActionResponse wash(Long id, Long expectedVersion, String userEmail);
+    PetActionResponse play(Long id, Long expectedVersion, String userEmail);
 }
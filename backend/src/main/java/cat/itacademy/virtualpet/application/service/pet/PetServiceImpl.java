@@ -1,48 +1,89 @@
 package cat.itacademy.virtualpet.application.service.pet;
 
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.*;
 import cat.itacademy.virtualpet.application.mapper.PetMapper;
 import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetChangeLog;
+import cat.itacademy.virtualpet.domain.pet.PetChangeLogRepository;
 import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.PetVersion;
+import cat.itacademy.virtualpet.domain.pet.PetWellness;
 import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
 import cat.itacademy.virtualpet.domain.user.User;
-import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.cache.PetJsonCache;
+import cat.itacademy.virtualpet.infrastructure.cache.PetListVersions;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import cat.itacademy.virtualpet.infrastructure.projection.JpqlProjector;
 import cat.itacademy.virtualpet.web.error.PetAlreadyCleanException;
 import cat.itacademy.virtualpet.web.error.PetDeceasedException;
 import cat.itacademy.virtualpet.web.error.PetNotHungryException;
 import cat.itacademy.virtualpet.web.error.PetTooHappyException;
+import cat.itacademy.virtualpet.web.error.PreconditionFailedException;
+import cat.itacademy.virtualpet.web.etag.PetETags;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class PetServiceImpl implements PetService {
 
     private final PetRepository petRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PetMapper petMapper;
+    private final PetJsonCache petJsonCache;
+    private final PetListVersions petListVersions;
+    private final PetChangeLogRepository changeLogRepository;
+    private final JpqlProjector projector;
 
-    public PetServiceImpl(PetRepository petRepository, UserRepository userRepository, PetMapper petMapper) {
+    @Value("${pets.batch.max-ids:100}")
+    private int batchMaxIds = 100;
+
+    @Value("${pets.changes.page-size:500}")
+    private int changesPageSize = 500;
+
+    // Log rows younger than this may still have lower-seq rows in flight; they are resent next time
+    @Value("${pets.changes.settle-window:PT2S}")
+    private Duration changesSettleWindow = Duration.ofSeconds(2);
+
+    public PetServiceImpl(PetRepository petRepository, UserCache userCache, PetMapper petMapper,
+                          PetJsonCache petJsonCache, PetListVersions petListVersions,
+                          PetChangeLogRepository changeLogRepository, JpqlProjector projector) {
         this.petRepository = petRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.petMapper = petMapper;
+        this.petJsonCache = petJsonCache;
+        this.petListVersions = petListVersions;
+        this.changeLogRepository = changeLogRepository;
+        this.projector = projector;
     }
 
     // ================== ADMIN ==================
 
     @Override
-    public Page<PetResponse> adminListPets(Long ownerId, Pageable pageable, String adminEmail) {
-        log.info("ADMIN {} → LIST PETS ownerId={} page={} size={} sort={}",
-                adminEmail, ownerId,
+    public Page<PetResponse> adminListPets(Long ownerId, Boolean atRisk, Integer maxWellness, Pageable pageable,
+                                           String adminEmail) {
+        log.info("ADMIN {} → LIST PETS ownerId={} atRisk={} maxWellness={} page={} size={} sort={}",
+                adminEmail, ownerId, atRisk, maxWellness,
                 pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
 
         User admin = getCurrentUser(adminEmail);
@@ -51,14 +92,37 @@ public class PetServiceImpl implements PetService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin only");
         }
 
-        Page<Pet> page = (ownerId != null)
-                ? petRepository.findAllByOwnerId(ownerId, pageable)
-                : petRepository.findAll(pageable);
+        Integer threshold = wellnessThreshold(atRisk, maxWellness);
+        Page<Pet> page;
+        if (threshold == null) {
+            page = (ownerId != null)
+                    ? petRepository.findAllByOwnerId(ownerId, pageable)
+                    : petRepository.findAll(pageable);
+        } else {
+            // Most at risk first unless the caller sorts
+            Pageable ranked = pageable.getSort().isSorted() ? pageable
+                    : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by("wellness").ascending().and(Sort.by("id").ascending()));
+            page = (ownerId != null)
+                    ? petRepository.findAllByOwnerIdAndDeadFalseAndWellnessLessThanEqual(ownerId, threshold, ranked)
+                    : petRepository.findAllByDeadFalseAndWellnessLessThanEqual(threshold, ranked);
+        }
 
         log.debug("ADMIN {} → LIST PETS result count={}", adminEmail, page.getNumberOfElements());
         return page.map(petMapper::toResponse);
     }
 
+    @Override
+    public List<PetBatchItem> adminGetPetsByIds(List<Long> ids, String adminEmail) {
+        log.info("ADMIN {} → GET PETS ids={}", adminEmail, ids);
+        User admin = getCurrentUser(adminEmail);
+        if (!isAdmin(admin)) {
+            log.warn("Forbidden: user {} tried to multi-get pets without ADMIN role", adminEmail);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin only");
+        }
+        return findPetsByIds(ids, admin);
+    }
+
     // ================== CRUD ==================
 
     @Override
@@ -104,12 +168,147 @@ public class PetServiceImpl implements PetService {
         return petMapper.toResponse(pet);
     }
 
+    @Override
+    public SparseRows getAllPets(Set<PetField> fields, String userEmail) {
+        log.info("USER {} → GET ALL PETS fields={}", userEmail, fields);
+        User user = getCurrentUser(userEmail);
+        List<PetField> columns = List.copyOf(fields);
+
+        List<Object[]> rows = isAdmin(user)
+                ? projector.select(columns, List.of(), "Pet p order by p.id", Map.of())
+                : projector.select(columns, List.of(), "Pet p where p.owner.id = :ownerId order by p.id",
+                        Map.of("ownerId", user.getId()));
+
+        log.debug("USER {} → GET ALL PETS count={} columns={}", userEmail, rows.size(), columns.size());
+        return SparseRows.list(columns, rows);
+    }
+
+    @Override
+    public SparseRows getPetById(Long id, Set<PetField> fields, String userEmail) {
+        log.info("USER {} → GET PET {} fields={}", userEmail, id, fields);
+        User user = getCurrentUser(userEmail);
+        List<PetField> columns = List.copyOf(fields);
+
+        // Owner id rides along as a trailing column for the access check
+        List<Object[]> rows = projector.select(columns, List.of("p.owner.id"), "Pet p where p.id = :id", Map.of("id", id));
+        if (rows.isEmpty()) {
+            log.warn("PET {} not found", id);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found");
+        }
+        Object[] row = rows.get(0);
+        checkAccess(user, id, (Long) row[columns.size()]);
+        return SparseRows.single(columns, row);
+    }
+
+    @Override
+    public List<PetBatchItem> getPetsByIds(List<Long> ids, String userEmail) {
+        log.info("USER {} → GET PETS ids={}", userEmail, ids);
+        return findPetsByIds(ids, getCurrentUser(userEmail));
+    }
+
+    @Override
+    public byte[] getPetJsonById(Long id, String userEmail) {
+        log.info("USER {} → GET PET {} (json)", userEmail, id);
+        Pet pet = findPetByIdAndCheckAccess(id, userEmail);
+        // Same version → same bytes: mapper and Jackson only run after a change
+        return petJsonCache.get(pet.getId(), pet.getVersion(), () -> petMapper.toResponse(pet));
+    }
+
+    // ================== ETAGS ==================
+
+    @Override
+    public String getPetETag(Long id, String userEmail) {
+        User user = getCurrentUser(userEmail);
+        PetVersion version = petRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("PET {} not found", id);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found");
+                });
+        checkAccess(user, id, version.getOwnerId());
+        return PetETags.format(id, version.getVersion());
+    }
+
+    @Override
+    public String getPetsETag(String userEmail) {
+        User user = getCurrentUser(userEmail);
+        return isAdmin(user) ? petListVersions.allETag() : petListVersions.ownerETag(user.getId());
+    }
+
+    // ================== DELTA SYNC ==================
+
+    @Transactional(readOnly = true)
+    @Override
+    public PetChangesResponse getChangesSince(Long since, String userEmail) {
+        User user = getCurrentUser(userEmail);
+        if (since == null) {
+            return new PetChangesResponse(changeLogRepository.currentSeq(), false, List.of(), List.of());
+        }
+        log.info("USER {} → PET CHANGES since={}", userEmail, since);
+
+        PageRequest page = PageRequest.of(0, changesPageSize + 1);
+        List<PetChangeLog> rows = isAdmin(user)
+                ? changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(since, page)
+                : changeLogRepository.findByOwnerIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), since, page);
+
+        // Checked after the read: a purge racing with it can only make the answer more conservative
+        if (since < changeLogRepository.oldestSeq() - 1) {
+            log.info("USER {} → PET CHANGES since={} is behind the log retention", userEmail, since);
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Change cursor is older than the change log retention; reload the pets");
+        }
+
+        boolean hasMore = rows.size() > changesPageSize;
+        if (hasMore) rows = rows.subList(0, changesPageSize);
+
+        // Advance the cursor only over settled rows: a lower seq may still commit after a fresh one
+        Instant settled = Instant.now().minus(changesSettleWindow);
+        long cursor = since;
+        for (PetChangeLog row : rows) {
+            if (row.getChangedAt().isAfter(settled)) break;
+            cursor = row.getSeq();
+        }
+        // A full page still inside the window: asking again right away would return the same page
+        if (cursor == since) hasMore = false;
+
+        // Several rows for one pet collapse into its current state (or a tombstone)
+        Map<Long, PetChangeLog.Type> lastChange = new LinkedHashMap<>();
+        rows.forEach(row -> lastChange.put(row.getPetId(), row.getType()));
+        Map<Long, Pet> current = petRepository.findAllById(lastChange.keySet()).stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity()));
+
+        List<PetResponse> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        lastChange.keySet().forEach(petId -> {
+            Pet pet = current.get(petId);
+            if (pet == null) deleted.add(petId);
+            else changed.add(petMapper.toResponse(pet));
+        });
+
+        log.debug("USER {} → PET CHANGES rows={} changed={} deleted={} cursor={} hasMore={}",
+                userEmail, rows.size(), changed.size(), deleted.size(), cursor, hasMore);
+        return new PetChangesResponse(cursor, hasMore, changed, deleted);
+    }
+
+    // ================== LIVE STREAM ==================
+
+    @Override
+    public Long resolveStreamOwner(String userEmail, Long requestedOwnerId) {
+        User user = getCurrentUser(userEmail);
+        if (isAdmin(user)) return requestedOwnerId;
+        if (requestedOwnerId != null && !requestedOwnerId.equals(user.getId())) {
+            log.warn("Forbidden: user {} tried to stream pets of owner {}", userEmail, requestedOwnerId);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: not your pets");
+        }
+        return user.getId();
+    }
+
     @Override
     public PetResponse updatePet(Long id, PetUpdateRequest request, String userEmail) {
         log.info("USER {} → UPDATE PET {}", userEmail, id);
         Pet pet = findPetByIdAndCheckAccess(id, userEmail);
         petMapper.updateEntity(pet, request);
         Pet saved = petRepository.save(pet);
+        petJsonCache.evict(id);
         log.debug("USER {} → UPDATED PET {} -> stage={} hunger={} hygiene={} fun={}",
                 userEmail, id, saved.getLifeStage(), saved.getHunger(), saved.getHygiene(), saved.getFun());
         return petMapper.toResponse(saved);
@@ -120,16 +319,45 @@ public class PetServiceImpl implements PetService {
         log.info("USER {} → DELETE PET {}", userEmail, id);
         Pet pet = findPetByIdAndCheckAccess(id, userEmail);
         petRepository.delete(pet);
+        petJsonCache.evict(id);
         log.info("USER {} → DELETED PET {}", userEmail, id);
     }
 
+    // ================== AVATAR ==================
+
+    @Override
+    public void checkPetAccess(Long id, String userEmail) {
+        User user = getCurrentUser(userEmail);
+        PetVersion version = petRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("PET {} not found", id);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found");
+                });
+        checkAccess(user, id, version.getOwnerId());
+    }
+
+    @Transactional
+    @Override
+    public String replaceAvatar(Long id, String avatarKey) {
+        Pet pet = petRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found"));
+        String previous = pet.getAvatarKey();
+        pet.setAvatarKey(avatarKey);
+        pet.setAvatarVersion(pet.getAvatarVersion() + 1);
+        petRepository.save(pet);
+        petJsonCache.evict(id);
+        log.info("PET {} → AVATAR v{} key={}", id, pet.getAvatarVersion(), avatarKey);
+        return previous;
+    }
+
     // ================== ACTIONS ==================
 
     @Transactional
     @Override
-    public PetActionResponse feed(Long id, String userEmail) {
-        log.info("USER {} → FEED PET {}", userEmail, id);
+    public PetActionResponse feed(Long id, Long expectedVersion, String userEmail) {
+        log.info("USER {} → FEED PET {} (ifMatch={})", userEmail, id, expectedVersion);
         Pet pet = findPetByIdAndCheckAccess(id, userEmail);
+        checkExpectedVersion(pet, expectedVersion);
         checkIfDead(pet);
 
         if (pet.getHunger() == 0) {
@@ -141,16 +369,15 @@ public class PetServiceImpl implements PetService {
         pet.setHygiene(Math.max(0, pet.getHygiene() - 5));
         pet.setFun(Math.max(0, pet.getFun() - 10));
 
-        incrementAndEvaluateDeaths(pet);
-        Pet saved = petRepository.save(pet);
-        return buildResponseWithWarnings(saved);
+        return saveAction(pet);
     }
 
     @Transactional
     @Override
-    public PetActionResponse wash(Long id, String userEmail) {
-        log.info("USER {} → WASH PET {}", userEmail, id);
+    public PetActionResponse wash(Long id, Long expectedVersion, String userEmail) {
+        log.info("USER {} → WASH PET {} (ifMatch={})", userEmail, id, expectedVersion);
         Pet pet = findPetByIdAndCheckAccess(id, userEmail);
+        checkExpectedVersion(pet, expectedVersion);
         checkIfDead(pet);
 
         if (pet.getHygiene() == 100) {
@@ -162,16 +389,15 @@ public class PetServiceImpl implements PetService {
         pet.setHunger(Math.min(100, pet.getHunger() + 10));
         pet.setFun(Math.max(0, pet.getFun() - 20));
 
-        incrementAndEvaluateDeaths(pet);
-        Pet saved = petRepository.save(pet);
-        return buildResponseWithWarnings(saved);
+        return saveAction(pet);
     }
 
     @Transactional
     @Override
-    public PetActionResponse play(Long id, String userEmail) {
-        log.info("USER {} → PLAY PET {}", userEmail, id);
+    public PetActionResponse play(Long id, Long expectedVersion, String userEmail) {
+        log.info("USER {} → PLAY PET {} (ifMatch={})", userEmail, id, expectedVersion);
         Pet pet = findPetByIdAndCheckAccess(id, userEmail);
+        checkExpectedVersion(pet, expectedVersion);
         checkIfDead(pet);
 
         if (pet.getFun() == 100) {
@@ -182,21 +408,43 @@ public class PetServiceImpl implements PetService {
         pet.setFun(Math.min(100, pet.getFun() + 40));
         pet.setHunger(Math.min(100, pet.getHunger() + 15));
 
-        incrementAndEvaluateDeaths(pet);
-        Pet saved = petRepository.save(pet);
-        return buildResponseWithWarnings(saved);
+        return saveAction(pet);
     }
 
     // ================== HELPERS ==================
 
+    /*
+     * The pet was read through the L2 "pets" region, so on a warm cache the only statement an action
+     * sends is UPDATE ... WHERE id = ? AND version = ?: a concurrent writer makes it fail (412/409)
+     * instead of being overwritten. A bulk @Modifying update would skip the pet write listeners
+     * (change log, live feed, stat history) and evict the whole region, so the read stays by design.
+     */
+    private PetActionResponse saveAction(Pet pet) {
+        incrementAndEvaluateDeaths(pet);
+        Pet saved = petRepository.saveAndFlush(pet);
+        petJsonCache.evict(pet.getId());
+        return buildResponseWithWarnings(saved);
+    }
+
     private User getCurrentUser(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.findByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("User not found by email {}", email);
                     return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
                 });
     }
 
+    // Same threshold as the action warnings: at risk means wellness <= PetWellness.AT_RISK
+    private static Integer wellnessThreshold(Boolean atRisk, Integer maxWellness) {
+        if (maxWellness != null && (maxWellness < 0 || maxWellness > 100)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxWellness must be between 0 and 100");
+        }
+        if (Boolean.TRUE.equals(atRisk)) {
+            return maxWellness == null ? PetWellness.AT_RISK : Math.min(maxWellness, PetWellness.AT_RISK);
+        }
+        return maxWellness;
+    }
+
     private boolean isAdmin(User user) {
         return user.getRoles().contains("ROLE_ADMIN");
     }
@@ -209,11 +457,51 @@ public class PetServiceImpl implements PetService {
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Pet not found");
                 });
 
-        if (!isAdmin(user) && !pet.getOwner().getId().equals(user.getId())) {
-            log.warn("Access denied: user {} trying to access PET {} owned by {}", userEmail, id, pet.getOwner().getId());
+        checkAccess(user, id, pet.getOwner().getId());
+        return pet;
+    }
+
+    // One IN query for the whole batch; ownership is compared in memory against the caller
+    private List<PetBatchItem> findPetsByIds(List<Long> ids, User user) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+        if (distinct.size() > batchMaxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + batchMaxIds + " ids per request");
+        }
+
+        boolean admin = isAdmin(user);
+        Map<Long, Pet> found = petRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity()));
+
+        List<PetBatchItem> items = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            Pet pet = found.get(id);
+            if (pet == null) {
+                items.add(PetBatchItem.failed(id, HttpStatus.NOT_FOUND.value(), "Pet not found"));
+            } else if (!admin && !pet.getOwner().getId().equals(user.getId())) {
+                items.add(PetBatchItem.failed(id, HttpStatus.FORBIDDEN.value(), "Access denied: not your pet"));
+            } else {
+                items.add(PetBatchItem.found(petMapper.toResponse(pet)));
+            }
+        }
+        log.debug("USER {} → GET PETS requested={} found={}", user.getEmail(), distinct.size(), found.size());
+        return items;
+    }
+
+    private void checkAccess(User user, Long petId, Long ownerId) {
+        if (!isAdmin(user) && !ownerId.equals(user.getId())) {
+            log.warn("Access denied: user {} trying to access PET {} owned by {}", user.getEmail(), petId, ownerId);
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied: not your pet");
         }
-        return pet;
+    }
+
+    private void checkExpectedVersion(Pet pet, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != pet.getVersion()) {
+            log.warn("PET {} version mismatch: expected={} current={}", pet.getId(), expectedVersion, pet.getVersion());
+            throw new PreconditionFailedException(pet.getId());
+        }
     }
 
     private void checkIfDead(Pet pet) {
@@ -259,10 +547,7 @@ public class PetServiceImpl implements PetService {
             return resp;
         }
 
-        List<String> warnings = new ArrayList<>();
-        if (saved.getHunger() >= 75) warnings.add("hunger_high");
-        if (saved.getHygiene() <= 25) warnings.add("hygiene_low");
-        if (saved.getFun() <= 25) warnings.add("fun_low");
+        List<String> warnings = PetWarnings.of(saved);
         resp.setWarnings(warnings.isEmpty() ? null : warnings);
         return resp;
     }
@@ -0,0 +1,34 @@
+package cat.itacademy.virtualpet.application.service.pet;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetWellness;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Warning thresholds shared by action responses and the dashboard, so both flag the same pets.
+ * Derived from {@link PetWellness#AT_RISK}: a pet has a warning iff its wellness is at risk.
+ */
+public final class PetWarnings {
+
+    public static final int HUNGER_HIGH = 100 - PetWellness.AT_RISK;
+    public static final int HYGIENE_LOW = PetWellness.AT_RISK;
+    public static final int FUN_LOW = PetWellness.AT_RISK;
+
+    private PetWarnings() { }
+
+
+    /** Active warnings for a living pet; empty for a healthy or deceased one. */
+    public static List<String> of(Pet pet) {
+        if (pet.isDead() || pet.getLifeStage() == LifeStage.PASSED) return List.of();
+
+        List<String> warnings = new ArrayList<>(3);
+        if (pet.getHunger() >= HUNGER_HIGH) warnings.add("hunger_high");
+        if (pet.getHygiene() <= HYGIENE_LOW) warnings.add("hygiene_low");
+        if (pet.getFun() <= FUN_LOW) warnings.add("fun_low");
+        return warnings;
+    }
+}
@@ -0,0 +1,14 @@
+package cat.itacademy.virtualpet.application.service.stats;
+
+import cat.itacademy.virtualpet.application.dto.stats.FleetStatsResponse;
+import cat.itacademy.virtualpet.application.dto.stats.LifespanStatsResponse;
+
+
+public interface FleetStatsService {
+
+
+    FleetStatsResponse getStats(String adminEmail);
+
+
+    LifespanStatsResponse getLifespans(String adminEmail);
+}
@@ -0,0 +1,106 @@
+package cat.itacademy.virtualpet.application.service.stats;
+
+import cat.itacademy.virtualpet.application.dto.stats.FleetStatsResponse;
+import cat.itacademy.virtualpet.application.dto.stats.LifespanStatsResponse;
+import cat.itacademy.virtualpet.domain.pet.enums.ActionCountBracket;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import cat.itacademy.virtualpet.infrastructure.stats.FleetStats;
+import cat.itacademy.virtualpet.infrastructure.stats.LifespanHistograms;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Builds GET /admin/stats from the in-memory {@link FleetStats} counters and
+ * GET /admin/stats/lifespans from the {@link LifespanHistograms} snapshot: constant time,
+ * no query against the pets table.
+ */
+@Slf4j
+@Service
+public class FleetStatsServiceImpl implements FleetStatsService {
+
+    private final UserCache userCache;
+    private final FleetStats fleetStats;
+    private final LifespanHistograms lifespans;
+
+    public FleetStatsServiceImpl(UserCache userCache, FleetStats fleetStats, LifespanHistograms lifespans) {
+        this.userCache = userCache;
+        this.fleetStats = fleetStats;
+        this.lifespans = lifespans;
+    }
+
+
+    @Override
+    public FleetStatsResponse getStats(String adminEmail) {
+        requireAdmin(adminEmail, "fleet stats");
+
+        FleetStats.Snapshot snapshot = fleetStats.snapshot();
+
+        Map<Breed, Long> byBreed = new EnumMap<>(Breed.class);
+        for (Breed breed : Breed.values()) byBreed.put(breed, snapshot.breed(breed));
+        Map<LifeStage, Long> byStage = new EnumMap<>(LifeStage.class);
+        for (LifeStage stage : LifeStage.values()) byStage.put(stage, snapshot.stage(stage));
+
+        long alive = snapshot.alive();
+        FleetStatsResponse.Averages averages = alive <= 0 ? null : new FleetStatsResponse.Averages(
+                average(snapshot.hungerSum(), alive),
+                average(snapshot.hygieneSum(), alive),
+                average(snapshot.funSum(), alive));
+
+        log.debug("ADMIN {} → FLEET STATS total={} alive={} recountedAt={}",
+                adminEmail, snapshot.total(), alive, snapshot.recountedAt());
+        return new FleetStatsResponse(snapshot.total(), alive, snapshot.dead(), byBreed, byStage, averages,
+                snapshot.recountedAt());
+    }
+
+
+    @Override
+    public LifespanStatsResponse getLifespans(String adminEmail) {
+        requireAdmin(adminEmail, "lifespans");
+
+        Map<Breed, LifespanStatsResponse.Percentiles> byBreed = new EnumMap<>(Breed.class);
+        for (Breed breed : Breed.values()) byBreed.put(breed, percentiles(lifespans.distribution(breed, null)));
+        Map<String, LifespanStatsResponse.Percentiles> byActionCount = new LinkedHashMap<>();
+        for (ActionCountBracket actions : ActionCountBracket.values()) {
+            byActionCount.put(actions.label(), percentiles(lifespans.distribution(null, actions)));
+        }
+
+        LifespanStatsResponse.Percentiles overall = percentiles(lifespans.distribution(null, null));
+        log.debug("ADMIN {} → LIFESPANS deaths={} snapshotAt={}",
+                adminEmail, overall == null ? 0 : overall.getDeaths(), lifespans.snapshotAt());
+        return new LifespanStatsResponse(overall, byBreed, byActionCount, lifespans.snapshotAt());
+    }
+
+    // -------- helpers --------
+
+    private void requireAdmin(String adminEmail, String what) {
+        User admin = userCache.findByEmail(adminEmail)
+                .orElseThrow(() -> {
+                    log.warn("User not found by email {}", adminEmail);
+                    return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
+                });
+        if (!admin.getRoles().contains("ROLE_ADMIN")) {
+            log.warn("Forbidden: user {} tried to read {} without ADMIN role", adminEmail, what);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin only");
+        }
+    }
+
+    private static LifespanStatsResponse.Percentiles percentiles(LifespanHistograms.Distribution distribution) {
+        if (distribution == null) return null;
+        return new LifespanStatsResponse.Percentiles(distribution.deaths(), distribution.p50Millis(),
+                distribution.p90Millis(), distribution.p99Millis(), distribution.maxMillis());
+    }
+
+    private static double average(long sum, long count) {
+        return Math.round(sum * 10.0 / count) / 10.0;
+    }
+}
@@ -0,0 +1,10 @@
+package cat.itacademy.virtualpet.application.service.stats;
+
+import cat.itacademy.virtualpet.application.dto.stats.LeaderboardResponse;
+
+
+public interface LeaderboardService {
+
+
+    LeaderboardResponse getLeaderboard(String board, String limit, String userEmail);
+}
@@ -0,0 +1,85 @@
+package cat.itacademy.virtualpet.application.service.stats;
+
+import cat.itacademy.virtualpet.application.dto.stats.LeaderboardResponse;
+import cat.itacademy.virtualpet.domain.pet.enums.Leaderboard;
+import cat.itacademy.virtualpet.infrastructure.stats.PetLeaderboards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Serves GET /leaderboards/{board} from the in-memory {@link PetLeaderboards}: a copy of at
+ * most {@code limit} entries, no query against the pets table.
+ */
+@Slf4j
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final PetLeaderboards leaderboards;
+
+    public LeaderboardServiceImpl(PetLeaderboards leaderboards) {
+        this.leaderboards = leaderboards;
+    }
+
+
+    @Override
+    public LeaderboardResponse getLeaderboard(String board, String limit, String userEmail) {
+        Leaderboard leaderboard = parseBoard(board);
+        int n = parseLimit(limit);
+
+        Instant now = Instant.now();
+        List<PetLeaderboards.Entry> top = leaderboards.top(leaderboard, n);
+        List<LeaderboardResponse.Entry> entries = new ArrayList<>(top.size());
+        for (PetLeaderboards.Entry pet : top) {
+            entries.add(new LeaderboardResponse.Entry(entries.size() + 1, pet.id(), pet.name(), pet.breed(),
+                    pet.stage(), value(leaderboard, pet, now)));
+        }
+
+        log.debug("USER {} → LEADERBOARD {} limit={} entries={}", userEmail, leaderboard, n, entries.size());
+        return new LeaderboardResponse(leaderboard, entries);
+    }
+
+    // -------- helpers --------
+
+    private static Leaderboard parseBoard(String board) {
+        try {
+            return Leaderboard.valueOf(board.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown leaderboard: " + board);
+        }
+    }
+
+    private int parseLimit(String limit) {
+        if (limit == null || limit.isBlank()) return Math.min(DEFAULT_LIMIT, leaderboards.size());
+        int n;
+        try {
+            n = Integer.parseInt(limit.trim());
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be a number");
+        }
+        if (n < 1 || n > leaderboards.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + leaderboards.size());
+        }
+        return n;
+    }
+
+    // Age is derived at read time so entries need no update as pets get older
+    private static long value(Leaderboard leaderboard, PetLeaderboards.Entry pet, Instant now) {
+        return switch (leaderboard) {
+            case AGE -> pet.createdAt() == null ? 0 : Math.max(0, Duration.between(pet.createdAt(), now).toSeconds());
+            case ACTIONS -> pet.actionCount();
+            case WELLNESS -> pet.wellness();
+        };
+    }
+}
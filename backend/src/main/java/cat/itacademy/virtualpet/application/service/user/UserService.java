@@ -1,9 +1,12 @@
 package cat.itacademy.virtualpet.application.service.user;
 
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.application.dto.user.UserField;
 import cat.itacademy.virtualpet.application.dto.user.UserResponse;
 
 import java.util.List;
+import java.util.Set;
 
 
 public interface UserService {
@@ -12,6 +15,9 @@ public interface UserService {
     List<UserResponse> getAllUsers(String adminEmail);
 
 
+    SparseRows getAllUsers(Set<UserField> fields, String adminEmail);
+
+
     UserResponse getUserById(Long id, String adminEmail);
 
 
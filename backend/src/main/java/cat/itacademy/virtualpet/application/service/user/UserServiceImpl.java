@@ -1,13 +1,17 @@
 package cat.itacademy.virtualpet.application.service.user;
 
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.application.dto.user.UserField;
 import cat.itacademy.virtualpet.application.dto.user.UserResponse;
 import cat.itacademy.virtualpet.application.mapper.PetMapper;
 import cat.itacademy.virtualpet.application.mapper.UserMapper;
+import cat.itacademy.virtualpet.application.service.auth.UserAvailabilityIndex;
 import cat.itacademy.virtualpet.domain.pet.Pet;
 import cat.itacademy.virtualpet.domain.pet.PetRepository;
 import cat.itacademy.virtualpet.domain.user.User;
 import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.projection.JpqlProjector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -15,6 +19,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -25,6 +31,8 @@ public class UserServiceImpl implements UserService {
     private final PetRepository petRepository;
     private final UserMapper userMapper;
     private final PetMapper petMapper;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final JpqlProjector projector;
 
     // =================== LISTAR USUARIOS ===================
 
@@ -36,6 +44,15 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponseList(users);
     }
 
+    @Override
+    public SparseRows getAllUsers(Set<UserField> fields, String adminEmail) {
+        log.info("ADMIN {} → LIST USERS fields={}", adminEmail, fields);
+        List<UserField> columns = List.copyOf(fields);
+        List<Object[]> rows = projector.select(columns, List.of(), "User u order by u.id", Map.of());
+        log.debug("ADMIN {} → LIST USERS count={} columns={}", adminEmail, rows.size(), columns.size());
+        return SparseRows.list(columns, rows);
+    }
+
     // =================== VER USUARIO POR ID ===================
 
     @Override
@@ -83,6 +100,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.delete(user);
+        availabilityIndex.remove(user.getUsername(), user.getEmail());
         log.info("ADMIN {} → DELETED USER {} (and {} pets)", adminEmail, id, petCount);
     }
 
@@ -1,6 +1,9 @@
 package cat.itacademy.virtualpet.config;
 
+import cat.itacademy.virtualpet.infrastructure.security.BCryptStrengthCalibrator;
 import cat.itacademy.virtualpet.infrastructure.security.JwtAuthenticationFilter;
+import cat.itacademy.virtualpet.web.idempotency.IdempotencyFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -24,9 +27,11 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtFilter, IdempotencyFilter idempotencyFilter) {
         this.jwtFilter = jwtFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
@@ -41,9 +46,14 @@ public class SecurityConfig {
                                 "/auth/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
-                                "/actuator/health"
+                                "/actuator/health",
+                                "/ws/pets",         // authenticated by its first frame
+                                "/assets/pets/**",  // public artwork
+                                "/avatars/**"       // unguessable per-upload keys
                         ).permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        // Metrics expose pool sizes, queue depths and throttle counters
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
 
@@ -52,21 +62,22 @@ public class SecurityConfig {
                         .accessDeniedHandler(new AccessDeniedHandlerImpl())                          // 403
                 )
 
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // Needs the authenticated user to scope keys; replays skip the controllers entirely
+                .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public CorsConfigurationSource corsConfigurationSource() {
+    public CorsConfigurationSource corsConfigurationSource(
+            @Value("${security.allowed-origins}") List<String> allowedOrigins) {
         CorsConfiguration cfg = new CorsConfiguration();
-        cfg.setAllowedOrigins(List.of(
-                "http://localhost:3000",
-                "http://localhost:5173"
-        ));
+        cfg.setAllowedOrigins(allowedOrigins);
         cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","PATCH","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With","Accept","Origin"));
-        cfg.setExposedHeaders(List.of("Authorization","Location"));
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With","Accept","Origin",
+                "If-Match","If-None-Match","Idempotency-Key"));
+        cfg.setExposedHeaders(List.of("Authorization","Location","ETag","Idempotent-Replayed"));
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -75,7 +86,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BCryptStrengthCalibrator calibrator) {
+        return new BCryptPasswordEncoder(calibrator.getStrength());
     }
 }
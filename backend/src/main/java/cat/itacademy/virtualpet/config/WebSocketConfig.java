@@ -0,0 +1,29 @@
+package cat.itacademy.virtualpet.config;
+
+import cat.itacademy.virtualpet.web.socket.PetActionSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PetActionSocketHandler petActionSocketHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(PetActionSocketHandler petActionSocketHandler,
+                           @Value("${security.allowed-origins}") String[] allowedOrigins) {
+        this.petActionSocketHandler = petActionSocketHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same origins as the REST CORS configuration; authentication is the first frame
+        registry.addHandler(petActionSocketHandler, "/ws/pets")
+                .setAllowedOrigins(allowedOrigins);
+    }
+}
@@ -0,0 +1,23 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+
+
+// Projection: pet count and stat sums for one (breed, stage, dead) group of the whole table
+public interface FleetAggregate {
+
+    Breed getBreed();
+
+    LifeStage getLifeStage();
+
+    Boolean getDead();
+
+    Long getPets();
+
+    Long getHunger();
+
+    Long getHygiene();
+
+    Long getFun();
+}
@@ -0,0 +1,29 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+
+import java.time.Instant;
+
+
+// Projection: what a leaderboard entry shows and ranks by
+public interface LeaderboardRow {
+
+    Long getId();
+
+    String getName();
+
+    Breed getBreed();
+
+    LifeStage getLifeStage();
+
+    Instant getCreatedAt();
+
+    int getActionCount();
+
+    int getHunger();
+
+    int getHygiene();
+
+    int getFun();
+}
@@ -4,11 +4,27 @@ import cat.itacademy.virtualpet.domain.pet.enums.Breed;
 import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
 import cat.itacademy.virtualpet.domain.user.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.Instant;
 
 
 @Entity
-@Table(name = "pets")
+@Table(
+        name = "pets",
+        indexes = {
+                // Leaderboard rebuilds: living pets by age and by action count
+                @Index(name = "idx_pets_dead_created", columnList = "dead, created_at"),
+                @Index(name = "idx_pets_dead_actions", columnList = "dead, action_count"),
+                // At-risk filter and sort of /admin/pets, wellness leaderboard
+                @Index(name = "idx_pets_dead_wellness", columnList = "dead, wellness"),
+                // List ETags: count, sum(version) and max(id) per owner without touching the rows
+                @Index(name = "idx_pets_owner_version", columnList = "owner_id, version")
+        }
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pets")
 public class Pet {
 
     @Id
@@ -38,9 +54,20 @@ public class Pet {
     @Column(name = "action_count", nullable = false)
     private int actionCount = 0;
 
+    // PetWellness.of(hunger, hygiene, fun), kept in step by the stat setters so it can be indexed.
+    // -1 marks rows that predate the column until PetWellnessBackfill fills them in
+    @Column(nullable = false)
+    @ColumnDefault("-1")
+    private int wellness = PetWellness.of(hunger, hygiene, fun);
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
+    // Bumped by Hibernate on every UPDATE; identifies the pet's last modification
+    @Version
+    @Column(nullable = false)
+    private long version;
+
 
     @Column(nullable = false)
     private boolean dead = false;
@@ -48,6 +75,14 @@ public class Pet {
     @Column(name = "death_at")
     private Instant deathAt;
 
+    // Random key of the current avatar's thumbnail directory; null until the first upload
+    @Column(name = "avatar_key", length = 32)
+    private String avatarKey;
+
+    // Incremented each time a new avatar finishes processing
+    @Column(name = "avatar_version", nullable = false)
+    private long avatarVersion = 0;
+
     // Many pets belong to one user
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
@@ -68,26 +103,37 @@ public class Pet {
     public void setLifeStage(LifeStage lifeStage) { this.lifeStage = lifeStage; }
 
     public int getHunger() { return hunger; }
-    public void setHunger(int hunger) { this.hunger = hunger; }
+    public void setHunger(int hunger) { this.hunger = hunger; this.wellness = PetWellness.of(this); }
 
     public int getHygiene() { return hygiene; }
-    public void setHygiene(int hygiene) { this.hygiene = hygiene; }
+    public void setHygiene(int hygiene) { this.hygiene = hygiene; this.wellness = PetWellness.of(this); }
 
     public int getFun() { return fun; }
-    public void setFun(int fun) { this.fun = fun; }
+    public void setFun(int fun) { this.fun = fun; this.wellness = PetWellness.of(this); }
 
     public int getActionCount() { return actionCount; }
     public void setActionCount(int actionCount) { this.actionCount = actionCount; }
 
+    public int getWellness() { return wellness; }
+
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public boolean isDead() { return dead; }
     public void setDead(boolean dead) { this.dead = dead; }
 
     public Instant getDeathAt() { return deathAt; }
     public void setDeathAt(Instant deathAt) { this.deathAt = deathAt; }
 
+    public String getAvatarKey() { return avatarKey; }
+    public void setAvatarKey(String avatarKey) { this.avatarKey = avatarKey; }
+
+    public long getAvatarVersion() { return avatarVersion; }
+    public void setAvatarVersion(long avatarVersion) { this.avatarVersion = avatarVersion; }
+
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
 }
@@ -0,0 +1,53 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+
+/**
+ * Append-only log of pet writes. {@code seq} is the monotonic cursor used by GET /pets/changes;
+ * DELETED rows are the tombstones. Rows are written by {@code PetChangeLogWriter} and purged
+ * after the retention by {@code PetChangeLogPurgeJob}.
+ */
+@Entity
+@Table(
+        name = "pet_change_log",
+        indexes = {
+                @Index(name = "idx_pet_change_log_owner_seq", columnList = "owner_id, seq"),
+                @Index(name = "idx_pet_change_log_changed_at", columnList = "changed_at")
+        }
+)
+public class PetChangeLog {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 10)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+
+
+    public Long getSeq() { return seq; }
+
+    public Long getPetId() { return petId; }
+
+    public Long getOwnerId() { return ownerId; }
+
+    public Type getType() { return type; }
+
+    public Instant getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,37 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Repository
+public interface PetChangeLogRepository extends JpaRepository<PetChangeLog, Long> {
+
+
+    // Served by idx_pet_change_log_owner_seq
+    List<PetChangeLog> findByOwnerIdAndSeqGreaterThanOrderBySeqAsc(Long ownerId, Long since, Pageable pageable);
+
+
+    List<PetChangeLog> findBySeqGreaterThanOrderBySeqAsc(Long since, Pageable pageable);
+
+
+    @Query("select coalesce(max(c.seq), 0) from PetChangeLog c")
+    long currentSeq();
+
+
+    // Every seq below this one may have been purged; 0 while the log is empty
+    @Query("select coalesce(min(c.seq), 0) from PetChangeLog c")
+    long oldestSeq();
+
+
+    // Served by idx_pet_change_log_changed_at; rows at or after keepFrom survive whatever their age
+    @Modifying
+    @Query("delete from PetChangeLog c where c.changedAt < :before and c.seq < :keepFrom")
+    int deleteOlderThan(Instant before, long keepFrom);
+}
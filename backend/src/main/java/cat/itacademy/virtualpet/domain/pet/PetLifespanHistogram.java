@@ -0,0 +1,79 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.ActionCountBracket;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+
+/**
+ * Lifetimes (createdAt → deathAt, in milliseconds) of every pet that died with a given breed
+ * and action count, as a compressed HdrHistogram. Rows only grow by merging: each node adds
+ * the deaths it saw since its last snapshot.
+ */
+@Entity
+@IdClass(PetLifespanHistogram.Key.class)
+@Table(name = "pet_lifespan_histograms")
+public class PetLifespanHistogram {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Breed breed;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_bracket", length = 10)
+    private ActionCountBracket actionBracket;
+
+    @Column(nullable = false)
+    private long deaths;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] histogram;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected PetLifespanHistogram() { }
+
+    public PetLifespanHistogram(Breed breed, ActionCountBracket actionBracket) {
+        this.breed = breed;
+        this.actionBracket = actionBracket;
+    }
+
+
+
+    public Breed getBreed() { return breed; }
+
+    public ActionCountBracket getActionBracket() { return actionBracket; }
+
+    public long getDeaths() { return deaths; }
+    public void setDeaths(long deaths) { this.deaths = deaths; }
+
+    public byte[] getHistogram() { return histogram; }
+    public void setHistogram(byte[] histogram) { this.histogram = histogram; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+
+    public static class Key implements Serializable {
+        private Breed breed;
+        private ActionCountBracket actionBracket;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && breed == k.breed && actionBracket == k.actionBracket;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(breed, actionBracket);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.ActionCountBracket;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+
+@Repository
+public interface PetLifespanHistogramRepository
+        extends JpaRepository<PetLifespanHistogram, PetLifespanHistogram.Key> {
+
+
+    // Row lock: nodes merging into the same histogram take turns instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from PetLifespanHistogram h where h.breed = :breed and h.actionBracket = :actionBracket")
+    Optional<PetLifespanHistogram> findForUpdate(Breed breed, ActionCountBracket actionBracket);
+}
@@ -0,0 +1,18 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+
+import java.time.Instant;
+
+
+// Projection: what the lifespan histograms need from a dead pet
+public interface PetLifetime {
+
+    Breed getBreed();
+
+    int getActionCount();
+
+    Instant getCreatedAt();
+
+    Instant getDeathAt();
+}
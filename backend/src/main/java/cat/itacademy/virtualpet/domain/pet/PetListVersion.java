@@ -0,0 +1,16 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+
+/**
+ * Aggregate over a set of pets that changes whenever the set does: an update raises the version
+ * sum, an insert raises the max id, and a delete lowers the count. Ids are never reused and
+ * versions only grow, so two different sets never produce the same triple.
+ */
+public interface PetListVersion {
+
+    long getPets();
+
+    long getVersions();
+
+    long getMaxId();
+}
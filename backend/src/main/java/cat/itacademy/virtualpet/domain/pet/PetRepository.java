@@ -1,12 +1,21 @@
 package cat.itacademy.virtualpet.domain.pet;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 
 @Repository
@@ -22,4 +31,67 @@ public interface PetRepository extends JpaRepository<Pet, Long> {
     Optional<Pet> findByIdAndOwnerId(Long id, Long ownerId);
 
     Page<Pet> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    // Living pets at or below a wellness score, over idx_pets_dead_wellness
+    Page<Pet> findAllByDeadFalseAndWellnessLessThanEqual(int maxWellness, Pageable pageable);
+
+    Page<Pet> findAllByOwnerIdAndDeadFalseAndWellnessLessThanEqual(Long ownerId, int maxWellness, Pageable pageable);
+
+
+    // Primary-key lookup of two columns, for ETag checks
+    @Query("select p.owner.id as ownerId, p.version as version from Pet p where p.id = :id")
+    Optional<PetVersion> findVersionById(Long id);
+
+
+    // List validators, answered from idx_pets_owner_version alone
+    @Query("select count(p) as pets, coalesce(sum(p.version), 0) as versions, coalesce(max(p.id), 0) as maxId " +
+            "from Pet p where p.owner.id = :ownerId")
+    PetListVersion findListVersionByOwnerId(Long ownerId);
+
+    @Query("select count(p) as pets, coalesce(sum(p.version), 0) as versions, coalesce(max(p.id), 0) as maxId " +
+            "from Pet p")
+    PetListVersion findListVersion();
+
+
+    // One grouped pass over pets for the admin fleet counters; at most breeds × stages × 2 rows
+    @Query("select p.breed as breed, p.lifeStage as lifeStage, p.dead as dead, count(p) as pets, " +
+            "sum(p.hunger) as hunger, sum(p.hygiene) as hygiene, sum(p.fun) as fun " +
+            "from Pet p group by p.breed, p.lifeStage, p.dead")
+    List<FleetAggregate> countFleet();
+
+
+    // Streams lifetimes of dead pets without materialising entities; must run inside a transaction
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.breed as breed, p.actionCount as actionCount, p.createdAt as createdAt, p.deathAt as deathAt " +
+            "from Pet p where p.dead = true and p.deathAt is not null")
+    Stream<PetLifetime> streamLifetimes();
+
+
+    // Leaderboard rebuilds: the best living pets of each board, in the order the board ranks them.
+    // Ties follow the score's direction so each is one scan of a (dead, score) index
+    @Query("select p.id as id, p.name as name, p.breed as breed, p.lifeStage as lifeStage, p.createdAt as createdAt, " +
+            "p.actionCount as actionCount, p.hunger as hunger, p.hygiene as hygiene, p.fun as fun " +
+            "from Pet p where p.dead = false order by p.createdAt asc, p.id asc")
+    List<LeaderboardRow> findOldestAlive(Limit limit);
+
+
+    @Query("select p.id as id, p.name as name, p.breed as breed, p.lifeStage as lifeStage, p.createdAt as createdAt, " +
+            "p.actionCount as actionCount, p.hunger as hunger, p.hygiene as hygiene, p.fun as fun " +
+            "from Pet p where p.dead = false order by p.actionCount desc, p.id desc")
+    List<LeaderboardRow> findMostActiveAlive(Limit limit);
+
+
+    @Query("select p.id as id, p.name as name, p.breed as breed, p.lifeStage as lifeStage, p.createdAt as createdAt, " +
+            "p.actionCount as actionCount, p.hunger as hunger, p.hygiene as hygiene, p.fun as fun " +
+            "from Pet p where p.dead = false order by p.wellness desc, p.id desc")
+    List<LeaderboardRow> findWellestAlive(Limit limit);
+
+
+    // Rows written before the wellness column existed (or by plain SQL) carry the -1 default
+    @Modifying
+    @Query("update Pet p set p.wellness = least(100 - p.hunger, p.hygiene, p.fun) where p.wellness < 0")
+    int backfillWellness();
 }
@@ -0,0 +1,81 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+
+/**
+ * Average stats of one pet over one hour or day bucket, weighted by the number of raw
+ * samples behind it. The primary key makes a bucket impossible to roll up twice.
+ */
+@Entity
+@IdClass(PetStatRollup.Key.class)
+@Table(
+        name = "pet_stat_rollups",
+        indexes = @Index(name = "idx_pet_stat_rollups_resolution_bucket", columnList = "resolution, bucket_start")
+)
+public class PetStatRollup {
+
+    @Id
+    @Column(name = "pet_id")
+    private Long petId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 5)
+    private StatResolution resolution;
+
+    @Id
+    @Column(name = "bucket_start")
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private double hunger;
+
+    @Column(nullable = false)
+    private double hygiene;
+
+    @Column(nullable = false)
+    private double fun;
+
+    @Column(nullable = false)
+    private long samples;
+
+
+
+    public Long getPetId() { return petId; }
+
+    public StatResolution getResolution() { return resolution; }
+
+    public Instant getBucketStart() { return bucketStart; }
+
+    public double getHunger() { return hunger; }
+
+    public double getHygiene() { return hygiene; }
+
+    public double getFun() { return fun; }
+
+    public long getSamples() { return samples; }
+
+
+    public static class Key implements Serializable {
+        private Long petId;
+        private StatResolution resolution;
+        private Instant bucketStart;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(petId, k.petId)
+                    && resolution == k.resolution && Objects.equals(bucketStart, k.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(petId, resolution, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Repository
+public interface PetStatRollupRepository extends JpaRepository<PetStatRollup, PetStatRollup.Key> {
+
+
+    // Primary key range scan
+    List<PetStatRollup> findByPetIdAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long petId, StatResolution resolution, Instant from, Instant to);
+
+
+    // Sample-weighted averages, so a day of uneven hours matches the average of its raw samples
+    @Query("select r.petId as petId, sum(r.hunger * r.samples) / sum(r.samples) as hunger, " +
+            "sum(r.hygiene * r.samples) / sum(r.samples) as hygiene, sum(r.fun * r.samples) / sum(r.samples) as fun, " +
+            "sum(r.samples) as samples from PetStatRollup r " +
+            "where r.resolution = :resolution and r.bucketStart >= :from and r.bucketStart < :to group by r.petId")
+    List<StatAggregate> aggregate(StatResolution resolution, Instant from, Instant to);
+
+
+    @Query("select max(r.bucketStart) from PetStatRollup r where r.resolution = :resolution")
+    Instant lastBucket(StatResolution resolution);
+
+
+    @Query("select min(r.bucketStart) from PetStatRollup r where r.resolution = :resolution and r.bucketStart >= :from")
+    Instant firstBucketAtOrAfter(StatResolution resolution, Instant from);
+
+
+    @Modifying
+    @Query("delete from PetStatRollup r where r.resolution = :resolution and r.bucketStart < :before")
+    int deleteOlderThan(StatResolution resolution, Instant before);
+}
@@ -0,0 +1,55 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+
+/**
+ * One snapshot of a pet's stats, taken after every committed write. Rows are batch-inserted
+ * by {@code PetStatHistoryWriter}, rolled up into {@link PetStatRollup} and purged after the
+ * raw retention period.
+ */
+@Entity
+@Table(
+        name = "pet_stat_samples",
+        indexes = {
+                @Index(name = "idx_pet_stat_samples_pet_time", columnList = "pet_id, sampled_at"),
+                @Index(name = "idx_pet_stat_samples_time", columnList = "sampled_at")
+        }
+)
+public class PetStatSample {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "sampled_at", nullable = false)
+    private Instant sampledAt;
+
+    @Column(nullable = false)
+    private int hunger;
+
+    @Column(nullable = false)
+    private int hygiene;
+
+    @Column(nullable = false)
+    private int fun;
+
+
+
+    public Long getId() { return id; }
+
+    public Long getPetId() { return petId; }
+
+    public Instant getSampledAt() { return sampledAt; }
+
+    public int getHunger() { return hunger; }
+
+    public int getHygiene() { return hygiene; }
+
+    public int getFun() { return fun; }
+}
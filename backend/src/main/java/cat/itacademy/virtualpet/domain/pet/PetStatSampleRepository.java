@@ -0,0 +1,34 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+@Repository
+public interface PetStatSampleRepository extends JpaRepository<PetStatSample, Long> {
+
+
+    // Served by idx_pet_stat_samples_pet_time
+    List<PetStatSample> findByPetIdAndSampledAtGreaterThanEqualAndSampledAtLessThanOrderBySampledAtAsc(
+            Long petId, Instant from, Instant to);
+
+
+    @Query("select s.petId as petId, avg(s.hunger) as hunger, avg(s.hygiene) as hygiene, avg(s.fun) as fun, " +
+            "count(s) as samples from PetStatSample s " +
+            "where s.sampledAt >= :from and s.sampledAt < :to group by s.petId")
+    List<StatAggregate> aggregate(Instant from, Instant to);
+
+
+    @Query("select min(s.sampledAt) from PetStatSample s where s.sampledAt >= :from")
+    Instant firstAtOrAfter(Instant from);
+
+
+    @Modifying
+    @Query("delete from PetStatSample s where s.sampledAt < :before")
+    int deleteOlderThan(Instant before);
+}
@@ -0,0 +1,10 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+
+// Lightweight projection: what a conditional GET needs to answer 304 without loading the pet
+public interface PetVersion {
+
+    Long getOwnerId();
+
+    long getVersion();
+}
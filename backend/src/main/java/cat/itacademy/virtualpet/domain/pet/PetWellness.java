@@ -0,0 +1,23 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+
+/**
+ * A pet's wellness: its worst stat on a 0-100 "higher is better" scale, i.e.
+ * min(100 - hunger, hygiene, fun). A living pet has at least one warning exactly when its
+ * wellness is at or below {@link #AT_RISK}, so rankings and warnings never disagree.
+ */
+public final class PetWellness {
+
+    public static final int AT_RISK = 25;
+
+    private PetWellness() { }
+
+
+    public static int of(int hunger, int hygiene, int fun) {
+        return Math.min(100 - hunger, Math.min(hygiene, fun));
+    }
+
+    public static int of(Pet pet) {
+        return of(pet.getHunger(), pet.getHygiene(), pet.getFun());
+    }
+}
@@ -0,0 +1,16 @@
+package cat.itacademy.virtualpet.domain.pet;
+
+
+// Projection: one pet's averages over a bucket, as computed by the rollup queries
+public interface StatAggregate {
+
+    Long getPetId();
+
+    Double getHunger();
+
+    Double getHygiene();
+
+    Double getFun();
+
+    Long getSamples();
+}
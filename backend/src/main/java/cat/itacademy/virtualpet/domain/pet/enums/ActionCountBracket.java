@@ -0,0 +1,29 @@
+package cat.itacademy.virtualpet.domain.pet.enums;
+
+/**
+ * Action count at death, in the steps that move a pet through its life stages
+ * (BABY up to 4 actions, ADULT up to 9, SENIOR after; seniors die at 15).
+ */
+public enum ActionCountBracket {
+    UP_TO_4("0-4"),
+    UP_TO_9("5-9"),
+    UP_TO_14("10-14"),
+    FROM_15("15+");
+
+    private final String label;
+
+    ActionCountBracket(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static ActionCountBracket of(int actionCount) {
+        if (actionCount <= 4) return UP_TO_4;
+        if (actionCount <= 9) return UP_TO_9;
+        if (actionCount <= 14) return UP_TO_14;
+        return FROM_15;
+    }
+}
@@ -0,0 +1,8 @@
+package cat.itacademy.virtualpet.domain.pet.enums;
+
+/** Rankings of living pets: oldest first, most actions first, best wellness first. */
+public enum Leaderboard {
+    AGE,
+    ACTIONS,
+    WELLNESS
+}
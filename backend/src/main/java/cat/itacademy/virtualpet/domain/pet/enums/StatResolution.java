@@ -0,0 +1,36 @@
+package cat.itacademy.virtualpet.domain.pet.enums;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+
+/** Levels of the stat history: every sample, then hourly and daily averages (UTC buckets). */
+public enum StatResolution {
+    RAW(null),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    StatResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Duration bucket() {
+        return unit == null ? Duration.ZERO : unit.getDuration();
+    }
+
+    public Instant bucketStart(Instant at) {
+        return unit == null ? at : at.truncatedTo(unit);
+    }
+
+    /** The level a bucket of this resolution is rolled up from. */
+    public StatResolution source() {
+        return switch (this) {
+            case RAW -> null;
+            case HOUR -> RAW;
+            case DAY -> HOUR;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package cat.itacademy.virtualpet.domain.user;
+
+
+// Lightweight projection: only the unique identifiers of a user
+public interface UserIdentity {
+
+    String getUsername();
+
+    String getEmail();
+}
@@ -0,0 +1,187 @@
+package cat.itacademy.virtualpet.infrastructure.assets;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Content-addressed copy of the Breed × LifeStage artwork. At startup every
+ * {@code <breed>_<stage>.png} in the source directory is hashed and copied to
+ * {@code <sha256-prefix>.png} in the store directory, with a precompressed {@code .gz}
+ * beside it when gzip actually saves at least 10%. Only paths, lengths and ETags stay on the heap;
+ * the bytes are sent straight from the files.
+ */
+@Slf4j
+@Component
+public class PetAssetStore {
+
+    // Keep a .gz only when it saves at least this fraction of the original
+    private static final double MIN_GZIP_SAVING = 0.10;
+    private static final int HASH_HEX_CHARS = 20;
+
+    public record Asset(String name, Path file, long length, Path gzipFile, long gzipLength, String etag) {
+        public boolean hasGzip() {
+            return gzipFile != null;
+        }
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private final Path sourceDir;
+    private final Path storeDir;
+    private final Map<String, Asset> byName = new ConcurrentHashMap<>();
+    private final Map<String, String> nameByKey = new ConcurrentHashMap<>();
+
+    public PetAssetStore(
+            @Value("${assets.pets.source-dir:../frontend/public/pets}") Path sourceDir,
+            @Value("${assets.pets.store-dir:${java.io.tmpdir}/virtualpet-assets}") Path storeDir) {
+        this.sourceDir = sourceDir.toAbsolutePath().normalize();
+        this.storeDir = storeDir.toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.isDirectory(sourceDir)) {
+            log.warn("ASSETS → source dir {} not found, pet artwork will not be served", sourceDir);
+            return;
+        }
+        try {
+            Files.createDirectories(storeDir);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create asset store " + storeDir, ex);
+        }
+
+        for (Breed breed : Breed.values()) {
+            for (LifeStage stage : LifeStage.values()) {
+                Path source = sourceDir.resolve(sourceName(breed, stage));
+                if (!Files.isRegularFile(source)) {
+                    log.warn("ASSETS → missing artwork {}", source.getFileName());
+                    continue;
+                }
+                try {
+                    Asset asset = publish(source);
+                    byName.put(asset.name(), asset);
+                    nameByKey.put(key(breed, stage), asset.name());
+                } catch (IOException ex) {
+                    log.warn("ASSETS → could not publish {} | reason={}", source.getFileName(), ex.getMessage());
+                }
+            }
+        }
+        log.info("ASSETS → published {} pet images from {} into {}", byName.size(), sourceDir, storeDir);
+    }
+
+
+    public Optional<Asset> find(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+
+
+    public Optional<String> nameFor(Breed breed, LifeStage stage) {
+        return Optional.ofNullable(nameByKey.get(key(breed, stage)));
+    }
+
+    /** {@code "BREED/STAGE"} → content-addressed file name, in enum order. */
+    public Map<String, String> manifest() {
+        Map<String, String> manifest = new LinkedHashMap<>();
+        for (Breed breed : Breed.values()) {
+            for (LifeStage stage : LifeStage.values()) {
+                String name = nameByKey.get(key(breed, stage));
+                if (name != null) manifest.put(key(breed, stage), name);
+            }
+        }
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    // -------- helpers --------
+
+    private Asset publish(Path source) throws IOException {
+        String hash = sha256Hex(source).substring(0, HASH_HEX_CHARS);
+        String name = hash + ".png";
+        Path target = storeDir.resolve(name);
+        if (!Files.exists(target)) copyAtomically(source, target);
+
+        // Tomcat only accepts canonical paths for sendfile
+        target = target.toRealPath();
+        long length = Files.size(target);
+        Path gzip = storeDir.resolve(name + ".gz");
+        Path noGzip = storeDir.resolve(name + ".nogz");
+        if (!Files.exists(gzip) && !Files.exists(noGzip)) gzipIfWorthIt(target, gzip, noGzip, length);
+
+        if (Files.exists(gzip)) return new Asset(name, target, length, gzip.toRealPath(), Files.size(gzip), "\"" + hash + "\"");
+        return new Asset(name, target, length, null, 0, "\"" + hash + "\"");
+    }
+
+    private void copyAtomically(Path source, Path target) throws IOException {
+        Path tmp = Files.createTempFile(storeDir, "asset", ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Already-compressed images are left as a .nogz marker so restarts don't retry them
+    private void gzipIfWorthIt(Path file, Path gzip, Path noGzip, long length) throws IOException {
+        Path tmp = Files.createTempFile(storeDir, "asset", ".gz.tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+                Files.copy(file, out);
+            }
+            long compressed = Files.size(tmp);
+            if (compressed <= length * (1 - MIN_GZIP_SAVING)) {
+                Files.move(tmp, gzip, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.createFile(noGzip);
+                log.debug("ASSETS → {} does not compress ({} → {} bytes), no .gz", file.getFileName(), length, compressed);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Digest over a mapped view of the file, so hashing does not copy it onto the heap
+    private static String sha256Hex(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Same names the frontend uses in lib/pet-images.ts
+    private static String sourceName(Breed breed, LifeStage stage) {
+        String breedKey = breed == Breed.GOLDEN_RETRIEVER ? "golden" : breed.name().toLowerCase(Locale.ROOT);
+        return breedKey + "_" + stage.name().toLowerCase(Locale.ROOT) + ".png";
+    }
+
+    private static String key(Breed breed, LifeStage stage) {
+        return breed.name() + "/" + stage.name();
+    }
+}
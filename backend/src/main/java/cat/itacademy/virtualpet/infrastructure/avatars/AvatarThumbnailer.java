@@ -0,0 +1,117 @@
+package cat.itacademy.virtualpet.infrastructure.avatars;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+
+/**
+ * Turns an uploaded image into square JPEG thumbnails. The reader crops to the centred square
+ * and subsamples while decoding, so the decoded bitmap is at most about twice the largest
+ * thumbnail whatever the upload's dimensions; the full-size image is never held in memory.
+ */
+@Component
+public class AvatarThumbnailer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    public record Probe(String format, int width, int height) {
+        public long pixels() {
+            return (long) width * height;
+        }
+    }
+
+
+    /** Format and dimensions from the image header only; IOException if no reader accepts it. */
+    public Probe probe(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = readerFor(in);
+            try {
+                reader.setInput(in, true, true);
+                return new Probe(reader.getFormatName(), reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+
+    /** Writes {@code <size>.jpg} into {@code targetDir} for each size, smallest first. */
+    public void render(Path source, Path targetDir, int[] sizes) throws IOException {
+        BufferedImage square;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            ImageReader reader = readerFor(in);
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int edge = Math.min(width, height);
+                int step = Math.max(1, edge / (2 * sizes[sizes.length - 1]));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - edge) / 2, (height - edge) / 2, edge, edge));
+                param.setSourceSubsampling(step, step, 0, 0);
+                square = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        Files.createDirectories(targetDir);
+        for (int size : sizes) {
+            writeJpeg(scale(square, size), targetDir.resolve(size + ".jpg"));
+        }
+    }
+
+    // -------- helpers --------
+
+    private static ImageReader readerFor(ImageInputStream in) throws IOException {
+        if (in == null) throw new IOException("Unreadable image");
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) throw new IOException("Unsupported image format");
+        return readers.next();
+    }
+
+    // Transparent pixels become white, since JPEG has no alpha
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, size, size, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package cat.itacademy.virtualpet.infrastructure.avatars;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.infrastructure.events.AfterCommit;
+import cat.itacademy.virtualpet.infrastructure.events.PetChange;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteObserver;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Removes a deleted {@link Pet}'s thumbnails once the delete commits.
+ */
+@Component
+public class PetAvatarCleaner implements PetWriteObserver {
+
+    private final PetAvatarStore store;
+
+    public PetAvatarCleaner(PetAvatarStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPetWritten(PetChange.Type type, Pet pet) {
+        String key = pet.getAvatarKey();
+        if (type != PetChange.Type.DELETED || key == null) return;
+        AfterCommit.run(() -> store.delete(key));
+    }
+}
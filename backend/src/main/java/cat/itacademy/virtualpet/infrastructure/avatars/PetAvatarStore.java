@@ -0,0 +1,74 @@
+package cat.itacademy.virtualpet.infrastructure.avatars;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Optional;
+
+
+/**
+ * On-disk layout for pet avatars: uploads land in {@code incoming/}, and each processed
+ * avatar gets a directory {@code <key[0..2]>/<key>/} holding one {@code <size>.jpg} per
+ * thumbnail size. Keys are random, so a directory is written once and never changes.
+ */
+@Slf4j
+@Component
+public class PetAvatarStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Path root;
+    private final Path incoming;
+
+    public PetAvatarStore(@Value("${pets.avatar.dir:${java.io.tmpdir}/virtualpet-avatars}") Path root) {
+        try {
+            this.root = Files.createDirectories(root.toAbsolutePath().normalize()).toRealPath();
+            this.incoming = Files.createDirectories(this.root.resolve("incoming"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create avatar dir " + root, ex);
+        }
+    }
+
+
+    public Path newUpload() throws IOException {
+        return Files.createTempFile(incoming, "upload", ".tmp");
+    }
+
+
+    public String newKey() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+
+    public Path directory(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+
+    public Optional<Path> thumbnail(String key, int size) {
+        Path file = directory(key).resolve(size + ".jpg");
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+
+    public void delete(String key) {
+        if (key == null) return;
+        Path dir = directory(key);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        } catch (IOException ex) {
+            log.warn("AVATAR → could not delete {} | reason={}", dir, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package cat.itacademy.virtualpet.infrastructure.bloom;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Counting Bloom filter over strings: one saturating 8-bit counter per slot, so entries
+ * can be removed as well as added. Lock-free: counters are updated with CAS.
+ * A negative answer is definitive; a positive one only means "maybe present".
+ */
+public class CountingBloomFilter {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int SATURATED = 0xFF;
+
+    private final byte[] counters;
+    private final int hashFunctions;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long slots = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, slots))];
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters.length / n * Math.log(2)));
+    }
+
+
+    public void add(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int slot = slot(h1 + i * h2);
+            int current;
+            do {
+                current = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(counters, slot));
+                if (current == SATURATED) break;
+            } while (!COUNTERS.compareAndSet(counters, slot, (byte) current, (byte) (current + 1)));
+        }
+    }
+
+
+    public void remove(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int slot = slot(h1 + i * h2);
+            int current;
+            do {
+                current = Byte.toUnsignedInt((byte) COUNTERS.getVolatile(counters, slot));
+                // Saturated counters have lost their exact count and must stay set
+                if (current == 0 || current == SATURATED) break;
+            } while (!COUNTERS.compareAndSet(counters, slot, (byte) current, (byte) (current - 1)));
+        }
+    }
+
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            if ((byte) COUNTERS.getVolatile(counters, slot(h1 + i * h2)) == 0) return false;
+        }
+        return true;
+    }
+
+    public int slotCount() {
+        return counters.length;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    // -------- helpers --------
+
+    private int slot(int combined) {
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    // FNV-1a over the UTF-8 bytes followed by a murmur3 fmix64 finaliser
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
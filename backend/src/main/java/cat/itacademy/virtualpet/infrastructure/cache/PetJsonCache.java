@@ -0,0 +1,74 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+
+/**
+ * Serialized {@code PetResponse} JSON per pet, tagged with the pet's {@code @Version}. A read
+ * whose version matches gets the cached bytes without running the mapper or Jackson; any other
+ * version re-serializes and replaces the entry. Bounded by total payload bytes on the heap.
+ */
+@Slf4j
+@Component
+public class PetJsonCache {
+
+    private record Entry(long version, byte[] json) { }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> byPetId;
+
+    public PetJsonCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.pet-json.max-bytes:67108864}") long maxBytes) {
+
+        this.objectMapper = objectMapper;
+        this.byPetId = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Entry entry) -> entry.json().length)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byPetId, "pets.json");
+    }
+
+
+    /**
+     * Returns the JSON for {@code petId} at {@code version}, serializing {@code response}
+     * only on a miss. The array is shared with other readers and must not be modified.
+     */
+    public byte[] get(Long petId, long version, Supplier<?> response) {
+        Entry entry = byPetId.getIfPresent(petId);
+        if (entry == null || entry.version() != version) {
+            entry = new Entry(version, serialize(response.get()));
+            byPetId.asMap().merge(petId, entry, (current, fresh) -> current.version() > fresh.version() ? current : fresh);
+        }
+        return entry.json();
+    }
+
+
+    public void evict(Long petId) {
+        byPetId.invalidate(petId);
+        log.debug("PET JSON CACHE → evicted petId={}", petId);
+    }
+
+    // -------- helpers --------
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize pet response", ex);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import cat.itacademy.virtualpet.domain.pet.PetListVersion;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Validators for pet lists, read from the database on every call so that every node answers
+ * the same tag for the same committed state. See {@link PetListVersion} for why the aggregate
+ * identifies the list.
+ */
+@Component
+public class PetListVersions {
+
+    private final PetRepository petRepository;
+
+    public PetListVersions(PetRepository petRepository) {
+        this.petRepository = petRepository;
+    }
+
+
+    public String ownerETag(Long ownerId) {
+        return "owner-" + ownerId + "-" + tag(petRepository.findListVersionByOwnerId(ownerId));
+    }
+
+
+    public String allETag() {
+        return "all-" + tag(petRepository.findListVersion());
+    }
+
+
+    private static String tag(PetListVersion version) {
+        return version.getPets() + "-" + version.getVersions() + "-" + version.getMaxId();
+    }
+}
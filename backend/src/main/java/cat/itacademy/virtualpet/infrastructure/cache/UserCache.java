@@ -0,0 +1,103 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+
+/**
+ * Bounded, TTL'd local cache of {@link User} by email and by id, shared by the JWT filter
+ * and the services so the authenticated hot path does not query {@code users} per request.
+ * {@link UserCacheInvalidationListener} evicts on every write made through JPA; the TTL bounds
+ * staleness for changes made by other nodes. Entries are immutable snapshots and every lookup
+ * returns its own detached copy, so a caller mutating its {@link User} never changes the cache.
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Snapshot> byEmail;
+    private final Cache<Long, Snapshot> byId;
+
+    public UserCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${cache.users.max-size:10000}") long maxSize,
+            @Value("${cache.users.ttl:PT5M}") Duration ttl) {
+
+        this.userRepository = userRepository;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+    }
+
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        Snapshot user = byEmail.get(email, key -> userRepository.findByEmail(key).map(Snapshot::of).orElse(null));
+        if (user != null) byId.put(user.id(), user);
+        return Optional.ofNullable(user).map(Snapshot::toUser);
+    }
+
+
+    public Optional<User> findById(Long id) {
+        if (id == null) return Optional.empty();
+        Snapshot user = byId.get(id, key -> userRepository.findById(key).map(Snapshot::of).orElse(null));
+        if (user != null) byEmail.put(user.email(), user);
+        return Optional.ofNullable(user).map(Snapshot::toUser);
+    }
+
+
+    public void put(User user) {
+        Snapshot snapshot = Snapshot.of(user);
+        byId.put(snapshot.id(), snapshot);
+        byEmail.put(snapshot.email(), snapshot);
+    }
+
+
+    public void evict(User user) {
+        byId.invalidate(user.getId());
+        byEmail.invalidate(user.getEmail());
+        log.debug("USER CACHE → evicted userId={} email={}", user.getId(), user.getEmail());
+    }
+
+
+    // -------- helpers --------
+
+    private record Snapshot(Long id, String username, String email, String passwordHash, Set<String> roles,
+                            Instant createdAt) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getUsername(), user.getEmail(), user.getPasswordHash(),
+                    user.getRoles() == null ? Set.of() : Set.copyOf(user.getRoles()), user.getCreatedAt());
+        }
+
+        User toUser() {
+            return User.builder().id(id).username(username).email(email).passwordHash(passwordHash)
+                    .roles(new HashSet<>(roles)).createdAt(createdAt).build();
+        }
+    }
+}
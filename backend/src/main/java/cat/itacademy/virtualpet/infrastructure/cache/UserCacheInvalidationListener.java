@@ -0,0 +1,74 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.infrastructure.events.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Evicts {@link UserCache} entries on every write to a {@link User} (delete, role or password
+ * changes, re-use of an email), whatever code path made it. Registered with Hibernate's event
+ * registry so the entity stays free of infrastructure. Evicts again after commit so a
+ * concurrent reader cannot re-cache the pre-commit row.
+ */
+@Component
+public class UserCacheInvalidationListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserCache userCache;
+
+    public UserCacheInvalidationListener(EntityManagerFactory entityManagerFactory, UserCache userCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.userCache = userCache;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) evict(user);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) evict(user);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) evict(user);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // -------- helpers --------
+
+    private void evict(User user) {
+        userCache.evict(user);
+        AfterCommit.run(() -> userCache.evict(user));
+    }
+}
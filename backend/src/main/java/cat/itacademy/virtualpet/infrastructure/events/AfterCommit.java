@@ -0,0 +1,26 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/** Runs side effects of a write only once it is committed. */
+public final class AfterCommit {
+
+    private AfterCommit() { }
+
+
+    /** Runs {@code action} after the current transaction commits, or now if there is none. */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
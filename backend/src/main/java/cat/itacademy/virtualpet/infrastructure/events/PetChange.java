@@ -0,0 +1,37 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+
+/**
+ * Compact, committed change to one pet as pushed to live subscribers: the new stats for
+ * CREATED/UPDATED, only the identity for DELETED.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PetChange(
+        Type type,
+        Long id,
+        Long ownerId,
+        long version,
+        String name,
+        LifeStage lifeStage,
+        Integer hunger,
+        Integer hygiene,
+        Integer fun,
+        Integer actionCount,
+        Boolean dead) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static PetChange of(Type type, Pet pet) {
+        Long ownerId = pet.getOwner() == null ? null : pet.getOwner().getId();
+        if (type == Type.DELETED) {
+            return new PetChange(type, pet.getId(), ownerId, pet.getVersion(),
+                    null, null, null, null, null, null, null);
+        }
+        return new PetChange(type, pet.getId(), ownerId, pet.getVersion(), pet.getName(), pet.getLifeStage(),
+                pet.getHunger(), pet.getHygiene(), pet.getFun(), pet.getActionCount(), pet.isDead());
+    }
+}
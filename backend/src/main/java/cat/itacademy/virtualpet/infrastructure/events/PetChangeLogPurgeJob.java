@@ -0,0 +1,79 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.PetChangeLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Deletes pet_change_log rows past the retention so the log stays bounded. The newest row is
+ * always kept: the oldest remaining seq is what GET /pets/changes compares cursors against to
+ * answer 410, and an empty log would make every old cursor look current. Deleting the same rows
+ * from two nodes is harmless.
+ */
+@Slf4j
+@Component
+public class PetChangeLogPurgeJob {
+
+    private final PetChangeLogRepository changeLog;
+    private final TransactionTemplate tx;
+    private final Duration retention;
+    private final Duration interval;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-change-log-purge").daemon().factory());
+
+    public PetChangeLogPurgeJob(
+            PetChangeLogRepository changeLog,
+            TransactionTemplate tx,
+            @Value("${pets.changes.retention:P30D}") Duration retention,
+            @Value("${pets.changes.purge-interval:PT1H}") Duration interval) {
+
+        this.changeLog = changeLog;
+        this.tx = tx;
+        this.retention = retention;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runQuietly, period, period, TimeUnit.MILLISECONDS);
+        log.info("CHANGE LOG → purge every {} retention={}", interval, retention);
+    }
+
+
+    public int purge(Instant now) {
+        long newest = changeLog.currentSeq();
+        Integer deleted = tx.execute(status -> changeLog.deleteOlderThan(now.minus(retention), newest));
+        int count = deleted == null ? 0 : deleted;
+        if (count > 0) log.debug("CHANGE LOG → purged {} rows", count);
+        return count;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // -------- helpers --------
+
+    private void runQuietly() {
+        try {
+            purge(Instant.now());
+        } catch (RuntimeException ex) {
+            log.warn("CHANGE LOG → purge failed | reason={}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetChangeLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+
+/**
+ * Appends a {@link PetChangeLog} row for every {@link Pet} write. The row is inserted with plain
+ * JDBC from inside the flush; the JdbcTemplate joins the surrounding JPA transaction, so the log
+ * commits or rolls back with the pet.
+ */
+@Component
+public class PetChangeLogWriter implements PetWriteObserver {
+
+    private static final String INSERT =
+            "insert into pet_change_log (pet_id, owner_id, change_type, changed_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    public PetChangeLogWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void onPetWritten(PetChange.Type type, Pet pet) {
+        if (pet.getOwner() == null) return;
+        // PetChange.Type and PetChangeLog.Type share their constants
+        jdbc.update(INSERT, pet.getId(), pet.getOwner().getId(), type.name(), Timestamp.from(Instant.now()));
+    }
+}
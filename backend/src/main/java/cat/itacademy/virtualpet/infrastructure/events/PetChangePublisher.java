@@ -0,0 +1,26 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Turns every {@link Pet} write into a {@link PetChange} on the {@link PetEventBus}. The change
+ * is captured at flush but only published after commit, so subscribers never see state that
+ * is rolled back.
+ */
+@Component
+public class PetChangePublisher implements PetWriteObserver {
+
+    private final PetEventBus bus;
+
+    public PetChangePublisher(PetEventBus bus) {
+        this.bus = bus;
+    }
+
+    @Override
+    public void onPetWritten(PetChange.Type type, Pet pet) {
+        PetChange change = PetChange.of(type, pet);
+        AfterCommit.run(() -> bus.publish(change));
+    }
+}
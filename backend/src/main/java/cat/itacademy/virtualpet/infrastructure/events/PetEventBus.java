@@ -0,0 +1,195 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * In-process fan-out of committed {@link PetChange}s to live subscribers (SSE streams, sockets).
+ * Each subscriber has a small bounded buffer: publishing never blocks, and a slow client only
+ * loses its own oldest events. Buffers are drained on virtual threads that exist only while
+ * there is something to send, so idle subscribers cost no thread at all.
+ */
+@Slf4j
+@Component
+public class PetEventBus {
+
+    /** Where a subscription delivers; a failure closes the subscription. */
+    public interface Sink {
+        void send(PetChange change) throws Exception;
+
+        default void heartbeat() throws Exception { }
+    }
+
+    private final int bufferSize;
+    private final ConcurrentMap<Long, Set<Subscription>> byOwner = new ConcurrentHashMap<>();
+    private final Set<Subscription> global = ConcurrentHashMap.newKeySet();
+    private final Set<Subscription> all = ConcurrentHashMap.newKeySet();
+    private final ExecutorService drainers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-events-heartbeat").daemon().factory());
+    private final Counter dropped;
+
+    public PetEventBus(
+            MeterRegistry meterRegistry,
+            @Value("${pets.events.buffer-size:64}") int bufferSize,
+            @Value("${pets.events.heartbeat:PT25S}") Duration heartbeat) {
+
+        this.bufferSize = bufferSize;
+        this.dropped = Counter.builder("pets.events.dropped").register(meterRegistry);
+        Gauge.builder("pets.events.subscribers", all, Set::size).register(meterRegistry);
+
+        long period = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(() -> all.forEach(Subscription::requestHeartbeat),
+                period, period, TimeUnit.MILLISECONDS);
+    }
+
+
+    /** Subscribes to one owner's pets, or to every pet when {@code ownerId} is null. */
+    public Subscription subscribe(Long ownerId, Sink sink) {
+        Subscription subscription = new Subscription(ownerId, sink);
+        all.add(subscription);
+        if (ownerId == null) {
+            global.add(subscription);
+        } else {
+            // Add inside compute: a concurrent close() cannot drop the set between lookup and add
+            byOwner.compute(ownerId, (id, owners) -> {
+                Set<Subscription> set = owners == null ? ConcurrentHashMap.newKeySet() : owners;
+                set.add(subscription);
+                return set;
+            });
+        }
+        log.debug("PET EVENTS → subscribed ownerId={} subscribers={}", ownerId, all.size());
+        return subscription;
+    }
+
+
+    public void publish(PetChange change) {
+        Set<Subscription> owners = change.ownerId() == null ? null : byOwner.get(change.ownerId());
+        if (owners != null) owners.forEach(s -> s.offer(change));
+        global.forEach(s -> s.offer(change));
+    }
+
+
+    public int subscriberCount() {
+        return all.size();
+    }
+
+    // Owners with at least one open subscription
+    int ownerCount() {
+        return byOwner.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        drainers.shutdownNow();
+    }
+
+
+    public final class Subscription implements AutoCloseable {
+
+        private final Long ownerId;
+        private final Sink sink;
+        private final ArrayDeque<PetChange> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatPending;
+        private volatile boolean closed;
+
+        private Subscription(Long ownerId, Sink sink) {
+            this.ownerId = ownerId;
+            this.sink = sink;
+        }
+
+        void offer(PetChange change) {
+            if (closed) return;
+            synchronized (buffer) {
+                // Drop-oldest: the newest state of a pet is what the client needs
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(change);
+            }
+            scheduleDrain();
+        }
+
+        void requestHeartbeat() {
+            heartbeatPending = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                drainers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                PetChange next;
+                while (!closed && (next = poll()) != null) {
+                    sink.send(next);
+                }
+                if (!closed && heartbeatPending) {
+                    heartbeatPending = false;
+                    sink.heartbeat();
+                }
+            } catch (Exception ex) {
+                log.debug("PET EVENTS → subscriber ownerId={} dropped: {}", ownerId, ex.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Something may have arrived after the last poll but before the flag was cleared
+            if (!closed && !isEmpty()) scheduleDrain();
+        }
+
+        private PetChange poll() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (buffer) {
+                return buffer.isEmpty();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            all.remove(this);
+            if (ownerId == null) {
+                global.remove(this);
+            } else {
+                // Drop the owner's set with its last subscriber, or byOwner grows with every owner ever seen
+                byOwner.computeIfPresent(ownerId, (id, owners) -> {
+                    owners.remove(this);
+                    return owners.isEmpty() ? null : owners;
+                });
+            }
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+    }
+}
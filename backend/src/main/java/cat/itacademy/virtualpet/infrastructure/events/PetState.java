@@ -0,0 +1,22 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+
+import java.time.Instant;
+
+
+/** A {@link cat.itacademy.virtualpet.domain.pet.Pet}'s columns as written by one committed transaction. */
+public record PetState(
+        Long id,
+        String name,
+        Breed breed,
+        LifeStage stage,
+        boolean dead,
+        int hunger,
+        int hygiene,
+        int fun,
+        int actionCount,
+        Instant createdAt,
+        Instant deathAt) {
+}
@@ -0,0 +1,187 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Hands every {@link Pet} write, whatever code path made it, to the {@link PetWriteObserver}s:
+ * once at flush inside the transaction, and once after commit as a (before, after) pair.
+ * Registered with Hibernate's event registry so the entity stays free of infrastructure. The
+ * post-commit events carry the state the pet was loaded with, and rolled-back writes never fire.
+ */
+@Slf4j
+@Component
+public class PetWriteListener {
+
+    private static final List<String> PROPERTIES = List.of(
+            "name", "breed", "lifeStage", "dead", "hunger", "hygiene", "fun", "actionCount", "createdAt", "deathAt");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<PetWriteObserver> observers;
+
+    // Positions of PROPERTIES in Pet's state arrays
+    private volatile int[] columns;
+
+    public PetWriteListener(EntityManagerFactory entityManagerFactory, List<PetWriteObserver> observers) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.observers = observers;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        // Both phases call onPostInsert/Update/Delete, so each gets its own listener object
+        AtFlush atFlush = new AtFlush();
+        registry.appendListeners(EventType.POST_INSERT, atFlush);
+        registry.appendListeners(EventType.POST_UPDATE, atFlush);
+        registry.appendListeners(EventType.POST_DELETE, atFlush);
+        Committed committed = new Committed();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, committed);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, committed);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, committed);
+    }
+
+    // -------- flush --------
+
+    private final class AtFlush implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Pet pet) written(PetChange.Type.CREATED, pet);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Pet pet) written(PetChange.Type.UPDATED, pet);
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Pet pet) written(PetChange.Type.DELETED, pet);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+
+    // -------- commit --------
+
+    private final class Committed
+            implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return isPet(persister);
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (!isPet(event.getPersister())) return;
+            committed(null, state(event.getPersister(), event.getId(), event.getState()));
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!isPet(event.getPersister())) return;
+            // No loaded state (e.g. a detached update without a select): observers reconcile on their own
+            if (event.getOldState() == null) {
+                log.debug("PET COMMIT → PET {} updated without loaded state, skipped", event.getId());
+                return;
+            }
+            committed(state(event.getPersister(), event.getId(), event.getOldState()),
+                    state(event.getPersister(), event.getId(), event.getState()));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (!isPet(event.getPersister())) return;
+            committed(state(event.getPersister(), event.getId(), event.getDeletedState()), null);
+        }
+
+        // Failed commits never reached the table: nothing to undo
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) { }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) { }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) { }
+    }
+
+    // -------- helpers --------
+
+    // Inside the transaction: a failing observer fails the write
+    private void written(PetChange.Type type, Pet pet) {
+        for (PetWriteObserver observer : observers) {
+            observer.onPetWritten(type, pet);
+        }
+    }
+
+    private void committed(PetState before, PetState after) {
+        for (PetWriteObserver observer : observers) {
+            try {
+                observer.onPetCommitted(before, after);
+            } catch (RuntimeException ex) {
+                // The write is committed; one broken aggregate must not fail the request or the others
+                log.warn("PET COMMIT → {} failed | reason={}", observer.getClass().getSimpleName(), ex.getMessage());
+            }
+        }
+    }
+
+    private static boolean isPet(EntityPersister persister) {
+        return persister.getMappedClass() == Pet.class;
+    }
+
+    private PetState state(EntityPersister persister, Object id, Object[] values) {
+        int[] at = columns(persister);
+        return new PetState(
+                (Long) id,
+                (String) values[at[0]],
+                (Breed) values[at[1]],
+                (LifeStage) values[at[2]],
+                (Boolean) values[at[3]],
+                (Integer) values[at[4]],
+                (Integer) values[at[5]],
+                (Integer) values[at[6]],
+                (Integer) values[at[7]],
+                (Instant) values[at[8]],
+                (Instant) values[at[9]]);
+    }
+
+    private int[] columns(EntityPersister persister) {
+        int[] at = columns;
+        if (at == null) {
+            List<String> names = Arrays.asList(persister.getPropertyNames());
+            at = PROPERTIES.stream().mapToInt(names::indexOf).toArray();
+            columns = at;
+        }
+        return at;
+    }
+}
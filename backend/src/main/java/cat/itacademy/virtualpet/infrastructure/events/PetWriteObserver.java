@@ -0,0 +1,24 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+
+
+/**
+ * Side effect of {@link Pet} writes, driven by {@link PetWriteListener}. Implement the hook(s)
+ * the observer needs:
+ * <ul>
+ *   <li>{@link #onPetWritten} runs at flush, inside the writing transaction: work that must commit
+ *       or roll back with the pet goes here, and a throw rolls the write back. Work that must wait
+ *       for the commit goes through {@link AfterCommit}.</li>
+ *   <li>{@link #onPetCommitted} runs once the write is committed, on the committing thread, with
+ *       the loaded and written state. In-memory aggregates go here; they must be cheap and
+ *       thread-safe, and a throw is logged without affecting the other observers.</li>
+ * </ul>
+ */
+public interface PetWriteObserver {
+
+    default void onPetWritten(PetChange.Type type, Pet pet) { }
+
+    /** {@code before} is null for an insert, {@code after} for a delete. */
+    default void onPetCommitted(PetState before, PetState after) { }
+}
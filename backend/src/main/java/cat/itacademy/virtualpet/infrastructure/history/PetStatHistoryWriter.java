@@ -0,0 +1,137 @@
+package cat.itacademy.virtualpet.infrastructure.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Buffers stat samples from committed pet writes and inserts them with JDBC batches on a
+ * single background thread, so an action costs a queue offer rather than an extra INSERT.
+ * The buffer is bounded: when the database falls behind, new samples are dropped and counted
+ * instead of blocking the action path. History is for charts; a lost sample is acceptable.
+ * Samples of pets deleted while buffered are filtered out of the batch: {@link PetStatSampler}
+ * reports each committed delete through {@link #forget}, and the id is kept for one flush past
+ * the one that first saw it, to catch samples from writes that committed just before the delete.
+ */
+@Slf4j
+@Component
+public class PetStatHistoryWriter {
+
+    private static final String INSERT =
+            "insert into pet_stat_samples (pet_id, sampled_at, hunger, hygiene, fun) values (?, ?, ?, ?, ?)";
+
+    public record Sample(long petId, Instant at, int hunger, int hygiene, int fun) { }
+
+    private final JdbcTemplate jdbc;
+    private final BlockingQueue<Sample> buffer;
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private Set<Long> retiring = Set.of();
+    private final int batchSize;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-history-flush").daemon().factory());
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public PetStatHistoryWriter(
+            JdbcTemplate jdbc,
+            MeterRegistry meterRegistry,
+            @Value("${pets.history.buffer-size:10000}") int bufferSize,
+            @Value("${pets.history.batch-size:500}") int batchSize,
+            @Value("${pets.history.flush-interval:PT1S}") Duration flushInterval) {
+
+        this.jdbc = jdbc;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.written = Counter.builder("pets.history.samples").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("pets.history.samples").tag("outcome", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("pets.history.samples").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("pets.history.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+
+        long period = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+
+    public void enqueue(Sample sample) {
+        if (!buffer.offer(sample)) dropped.increment();
+    }
+
+    /** Discards any buffered or late samples of a pet whose delete has committed. */
+    public void forget(long petId) {
+        deleted.add(petId);
+    }
+
+
+    /**
+     * Writes everything buffered so far; returns the number of rows inserted. A batch the database
+     * rejects is lost as a whole and counted as {@code failed}; the rest stays buffered for the
+     * next flush.
+     */
+    public synchronized int flush() {
+        Set<Long> seen = Set.copyOf(deleted);
+        int total = 0;
+        List<Sample> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            batch.removeIf(s -> deleted.contains(s.petId()));
+            if (batch.isEmpty()) continue;
+            try {
+                jdbc.batchUpdate(INSERT, batch, batch.size(), (ps, s) -> {
+                    ps.setLong(1, s.petId());
+                    ps.setTimestamp(2, Timestamp.from(s.at()));
+                    ps.setInt(3, s.hunger());
+                    ps.setInt(4, s.hygiene());
+                    ps.setInt(5, s.fun());
+                });
+            } catch (DataAccessException ex) {
+                failed.increment(batch.size());
+                log.warn("HISTORY → batch of {} samples lost | reason={}", batch.size(), ex.getMessage());
+                break;
+            }
+            total += batch.size();
+            written.increment(batch.size());
+            batch.clear();
+        }
+        // Ids seen by the previous flush have now had a full interval for stragglers to arrive
+        deleted.removeAll(retiring);
+        retiring = seen;
+        if (total > 0) log.debug("HISTORY → flushed {} samples", total);
+        return total;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    // -------- helpers --------
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("HISTORY → flush failed | reason={}", ex.getMessage());
+        }
+    }
+}
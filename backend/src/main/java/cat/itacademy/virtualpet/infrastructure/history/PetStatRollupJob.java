@@ -0,0 +1,206 @@
+package cat.itacademy.virtualpet.infrastructure.history;
+
+import cat.itacademy.virtualpet.domain.pet.PetStatRollupRepository;
+import cat.itacademy.virtualpet.domain.pet.PetStatSampleRepository;
+import cat.itacademy.virtualpet.domain.pet.StatAggregate;
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Rolls completed buckets up one level (raw samples → hours → days) and purges each level once
+ * it is both past its retention and covered by the level above, so storage per pet is bounded
+ * by the retentions plus one row per day. Each level has a watermark: buckets before it are
+ * stored; history queries read later buckets from the level below.
+ * A bucket's rows are inserted in one transaction and keyed by (pet, resolution, bucket), so a
+ * second node racing on the same bucket fails and re-reads the watermark instead of duplicating.
+ */
+@Slf4j
+@Component
+public class PetStatRollupJob {
+
+    private static final String INSERT = "insert into pet_stat_rollups " +
+            "(pet_id, resolution, bucket_start, hunger, hygiene, fun, samples) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final List<StatResolution> ROLLED = List.of(StatResolution.HOUR, StatResolution.DAY);
+
+    private final PetStatSampleRepository samples;
+    private final PetStatRollupRepository rollups;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Duration interval;
+    private final Duration settle;
+    private final Duration rawRetention;
+    private final Duration hourRetention;
+    private final int maxBucketsPerRun;
+
+    private final Map<StatResolution, Instant> watermarks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-history-rollup").daemon().factory());
+
+    public PetStatRollupJob(
+            PetStatSampleRepository samples,
+            PetStatRollupRepository rollups,
+            JdbcTemplate jdbc,
+            TransactionTemplate tx,
+            @Value("${pets.history.rollup-interval:PT5M}") Duration interval,
+            @Value("${pets.history.settle:PT1M}") Duration settle,
+            @Value("${pets.history.raw-retention:P7D}") Duration rawRetention,
+            @Value("${pets.history.hour-retention:P90D}") Duration hourRetention,
+            @Value("${pets.history.max-buckets-per-run:1000}") int maxBucketsPerRun) {
+
+        this.samples = samples;
+        this.rollups = rollups;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.interval = interval;
+        this.settle = settle;
+        this.rawRetention = rawRetention;
+        this.hourRetention = hourRetention;
+        this.maxBucketsPerRun = maxBucketsPerRun;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadWatermarks();
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runQuietly, period, period, TimeUnit.MILLISECONDS);
+        log.info("HISTORY → rollup every {} watermarks={}", interval, watermarks);
+    }
+
+
+    /** Start of the first bucket of {@code level} that is not stored yet. */
+    public Instant watermark(StatResolution level) {
+        return watermarks.getOrDefault(level, Instant.EPOCH);
+    }
+
+
+    /** How long {@code level} is kept; days are kept for the life of the pet. */
+    public Duration retention(StatResolution level) {
+        return switch (level) {
+            case RAW -> rawRetention;
+            case HOUR -> hourRetention;
+            case DAY -> null;
+        };
+    }
+
+
+    public synchronized void runOnce(Instant now) {
+        // The table is the source of truth; another node may have rolled up since the last run
+        loadWatermarks();
+        for (StatResolution level : ROLLED) {
+            try {
+                rollUp(level, now);
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("HISTORY → {} bucket already rolled up elsewhere, reloading watermarks", level);
+                loadWatermarks();
+                return;
+            }
+        }
+        purge(now);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // -------- helpers --------
+
+    private void runQuietly() {
+        try {
+            runOnce(Instant.now());
+        } catch (RuntimeException ex) {
+            log.warn("HISTORY → rollup failed | reason={}", ex.getMessage());
+        }
+    }
+
+    private void rollUp(StatResolution level, Instant now) {
+        // A bucket is complete once it ends before now - settle (samples still in the write buffer)
+        // and, for days, once every hour in it has been rolled up
+        Instant closedBefore = level.bucketStart(now.minus(settle));
+        if (level == StatResolution.DAY) {
+            Instant hours = level.bucketStart(watermark(StatResolution.HOUR));
+            if (hours.isBefore(closedBefore)) closedBefore = hours;
+        }
+
+        Instant next = watermark(level);
+        int written = 0;
+        for (int buckets = 0; buckets < maxBucketsPerRun; buckets++) {
+            // Jump over stretches with no data instead of visiting every empty bucket
+            Instant first = level == StatResolution.HOUR
+                    ? samples.firstAtOrAfter(next)
+                    : rollups.firstBucketAtOrAfter(StatResolution.HOUR, next);
+            if (first == null) {
+                if (closedBefore.isAfter(next)) next = closedBefore;
+                break;
+            }
+            Instant start = level.bucketStart(first);
+            Instant end = start.plus(level.bucket());
+            if (end.isAfter(closedBefore)) {
+                if (start.isAfter(next)) next = start;
+                break;
+            }
+
+            List<StatAggregate> rows = level == StatResolution.HOUR
+                    ? samples.aggregate(start, end)
+                    : rollups.aggregate(StatResolution.HOUR, start, end);
+            tx.executeWithoutResult(status -> insert(level, start, rows));
+            written += rows.size();
+            next = end;
+        }
+        watermarks.put(level, next);
+        if (written > 0) log.debug("HISTORY → {} rollup wrote {} rows, watermark={}", level, written, next);
+    }
+
+    private void insert(StatResolution level, Instant bucketStart, List<StatAggregate> rows) {
+        jdbc.batchUpdate(INSERT, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getPetId());
+            ps.setString(2, level.name());
+            ps.setTimestamp(3, Timestamp.from(bucketStart));
+            ps.setDouble(4, row.getHunger());
+            ps.setDouble(5, row.getHygiene());
+            ps.setDouble(6, row.getFun());
+            ps.setLong(7, row.getSamples());
+        });
+    }
+
+    // A level is only purged below the watermark of the level built from it
+    private void purge(Instant now) {
+        Instant rawBefore = earliest(now.minus(rawRetention), watermark(StatResolution.HOUR));
+        Instant hoursBefore = earliest(now.minus(hourRetention), watermark(StatResolution.DAY));
+        Integer raw = tx.execute(status -> samples.deleteOlderThan(rawBefore));
+        Integer hours = tx.execute(status -> rollups.deleteOlderThan(StatResolution.HOUR, hoursBefore));
+        if ((raw != null && raw > 0) || (hours != null && hours > 0)) {
+            log.debug("HISTORY → purged raw={} hour={}", raw, hours);
+        }
+    }
+
+    private void loadWatermarks() {
+        for (StatResolution level : ROLLED) {
+            Instant last = rollups.lastBucket(level);
+            watermarks.put(level, last == null ? Instant.EPOCH : last.plus(level.bucket()));
+        }
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
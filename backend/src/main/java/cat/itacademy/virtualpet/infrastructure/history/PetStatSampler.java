@@ -0,0 +1,44 @@
+package cat.itacademy.virtualpet.infrastructure.history;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.infrastructure.events.AfterCommit;
+import cat.itacademy.virtualpet.infrastructure.events.PetChange;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteObserver;
+import cat.itacademy.virtualpet.infrastructure.history.PetStatHistoryWriter.Sample;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+
+/**
+ * Samples a {@link Pet}'s stats on every write and hands the sample to
+ * {@link PetStatHistoryWriter} once the write commits, so rolled-back actions leave no trace.
+ * Deleting a pet deletes its history in the same transaction and, once that commits, tells the
+ * writer to discard samples still buffered for it.
+ */
+@Component
+public class PetStatSampler implements PetWriteObserver {
+
+    private final PetStatHistoryWriter writer;
+    private final JdbcTemplate jdbc;
+
+    public PetStatSampler(PetStatHistoryWriter writer, JdbcTemplate jdbc) {
+        this.writer = writer;
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void onPetWritten(PetChange.Type type, Pet pet) {
+        if (type == PetChange.Type.DELETED) {
+            // Plain JDBC joins the JPA transaction, so the history goes with the pet or not at all
+            jdbc.update("delete from pet_stat_samples where pet_id = ?", pet.getId());
+            jdbc.update("delete from pet_stat_rollups where pet_id = ?", pet.getId());
+            long petId = pet.getId();
+            AfterCommit.run(() -> writer.forget(petId));
+            return;
+        }
+        Sample sample = new Sample(pet.getId(), Instant.now(), pet.getHunger(), pet.getHygiene(), pet.getFun());
+        AfterCommit.run(() -> writer.enqueue(sample));
+    }
+}
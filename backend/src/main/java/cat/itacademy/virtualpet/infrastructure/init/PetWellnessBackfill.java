@@ -0,0 +1,33 @@
+package cat.itacademy.virtualpet.infrastructure.init;
+
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Fills in {@code pets.wellness} for rows that still carry the column's -1 default, i.e. pets
+ * written before the column existed. Runs before the ApplicationReadyEvent jobs (leaderboard
+ * rebuild) read the column; once filled, it is a single index probe on every start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PetWellnessBackfill implements CommandLineRunner {
+
+    private final PetRepository petRepository;
+    private final TransactionTemplate tx;
+
+    @Override
+    public void run(String... args) {
+        try {
+            Integer filled = tx.execute(status -> petRepository.backfillWellness());
+            if (filled != null && filled > 0) log.info("PET WELLNESS → backfilled {} pets", filled);
+        } catch (Exception e) {
+            log.error("PET WELLNESS → backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
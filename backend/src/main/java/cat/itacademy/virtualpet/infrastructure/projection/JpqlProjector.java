@@ -0,0 +1,44 @@
+package cat.itacademy.virtualpet.infrastructure.projection;
+
+import cat.itacademy.virtualpet.application.dto.fields.ProjectedField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Runs a JPQL select over only the requested columns, so a sparse response never loads the
+ * rest of the entity. The query text depends only on the selection, so Hibernate's plan cache
+ * serves repeated shapes.
+ */
+@Component
+public class JpqlProjector {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    /**
+     * @param from   entity and alias plus optional where/order clauses, e.g. {@code "Pet p where p.owner.id = :ownerId"}
+     * @param extra  JPQL paths appended after the fields (read by the caller, never serialized)
+     * @return one array per row: the fields in order, then the extra paths
+     */
+    public List<Object[]> select(Collection<? extends ProjectedField> fields, List<String> extra,
+                                 String from, Map<String, ?> params) {
+        StringBuilder jpql = new StringBuilder("select ");
+        for (ProjectedField field : fields) jpql.append(field.path()).append(", ");
+        for (String path : extra) jpql.append(path).append(", ");
+        jpql.setLength(jpql.length() - 2);
+        jpql.append(" from ").append(from);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        return query.getResultList().stream().map(Tuple::toArray).toList();
+    }
+}
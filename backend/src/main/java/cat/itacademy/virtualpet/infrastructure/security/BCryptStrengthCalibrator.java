@@ -0,0 +1,92 @@
+package cat.itacademy.virtualpet.infrastructure.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Picks the BCrypt cost at startup: the strongest cost whose hash time stays under the
+ * configured target on the current hardware. A fixed strength can be forced (tests, pinned prod).
+ */
+@Slf4j
+@Component
+public class BCryptStrengthCalibrator {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+    private static final int SAMPLES = 3;
+    private static final String PROBE = "calibration-probe-Pa55w0rd!";
+
+    private final int strength;
+
+    public BCryptStrengthCalibrator(
+            MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.bcrypt.strength:0}") int fixedStrength,
+            @Value("${security.password-hashing.bcrypt.target-ms:250}") long targetMillis,
+            @Value("${security.password-hashing.bcrypt.min-strength:10}") int minStrength,
+            @Value("${security.password-hashing.bcrypt.max-strength:16}") int maxStrength) {
+
+        if (fixedStrength > 0) {
+            this.strength = fixedStrength;
+            log.info("BCRYPT → using fixed strength={}", strength);
+        } else {
+            this.strength = calibrate(targetMillis, minStrength, maxStrength);
+        }
+        meterRegistry.gauge("auth.password.bcrypt.strength", this, BCryptStrengthCalibrator::getStrength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+
+    public boolean needsRehash(String encodedPassword) {
+        Integer cost = costOf(encodedPassword);
+        return cost == null || cost != strength;
+    }
+
+
+    static Integer costOf(String encodedPassword) {
+        if (encodedPassword == null) return null;
+        Matcher m = BCRYPT_PATTERN.matcher(encodedPassword);
+        return m.find() ? Integer.parseInt(m.group(1)) : null;
+    }
+
+    // -------- helpers --------
+
+    private int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm-up so the JIT does not penalise the first measurement
+        new BCryptPasswordEncoder(4).encode(PROBE);
+
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            long millis = medianHashMillis(cost);
+            log.debug("BCRYPT → calibration cost={} median={}ms target={}ms", cost, millis, targetMillis);
+            if (millis > targetMillis) break;
+            chosen = cost;
+            // Each step doubles the work; stop early if the next one cannot fit
+            if (millis * 2 > targetMillis) break;
+        }
+        log.info("BCRYPT → calibrated strength={} (target={}ms, range {}..{})",
+                chosen, targetMillis, minStrength, maxStrength);
+        return chosen;
+    }
+
+    private long medianHashMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(PROBE);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -1,7 +1,7 @@
 package cat.itacademy.virtualpet.infrastructure.security;
 
 import cat.itacademy.virtualpet.domain.user.User;
-import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,7 +28,7 @@ import java.util.stream.Collectors;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private static final AntPathMatcher PM = new AntPathMatcher();
 
@@ -87,7 +87,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.trace("JWT FILTER extracted email='{}'", email);
 
 
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userCache.findByEmail(email).orElse(null);
             if (user == null) {
                 log.warn("JWT FILTER user not found for email='{}'", email);
                 filterChain.doFilter(request, response);
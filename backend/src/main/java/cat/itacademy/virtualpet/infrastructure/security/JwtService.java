@@ -73,6 +73,11 @@ public class JwtService {
         }
     }
 
+    public Instant extractExpiration(String token) {
+        Date expiration = extractAllClaims(token).getExpiration();
+        return expiration == null ? Instant.EPOCH : expiration.toInstant();
+    }
+
     public boolean isTokenValid(String token, User user) {
         try {
             Claims claims = extractAllClaims(token);
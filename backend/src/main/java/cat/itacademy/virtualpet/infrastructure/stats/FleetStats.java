@@ -0,0 +1,228 @@
+package cat.itacademy.virtualpet.infrastructure.stats;
+
+import cat.itacademy.virtualpet.domain.pet.FleetAggregate;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.infrastructure.events.PetState;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteListener;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Fleet-wide pet counters for GET /admin/stats: alive/dead, per breed, per stage and the stat
+ * sums of living pets, held in {@link LongAdder}s so concurrent writers never contend on a cell.
+ * {@link PetWriteListener} applies every committed pet write as a delta; a background recount
+ * replaces the counters periodically, which bounds drift from other nodes or bulk updates.
+ */
+@Slf4j
+@Component
+public class FleetStats implements PetWriteObserver {
+
+    private static final Breed[] BREEDS = Breed.values();
+    private static final LifeStage[] STAGES = LifeStage.values();
+
+    // Cell layout shared by the adders and the recounted base
+    private static final int ALIVE = 0;
+    private static final int DEAD = 1;
+    private static final int HUNGER = 2;
+    private static final int HYGIENE = 3;
+    private static final int FUN = 4;
+    private static final int BREED = 5;
+    private static final int STAGE = BREED + BREEDS.length;
+    private static final int CELLS = STAGE + STAGES.length;
+
+    private final PetRepository petRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration interval;
+    private final Counter exactRecounts;
+    private final Counter driftRecounts;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("fleet-stats-recount").daemon().factory());
+
+    // While a recount runs, writers also add to the generation that will replace the current one
+    private volatile Generation current = new Generation();
+    private volatile Generation pending;
+    private volatile Instant recountedAt;
+
+    public FleetStats(
+            PetRepository petRepository,
+            TransactionTemplate tx,
+            MeterRegistry meterRegistry,
+            @Value("${pets.fleet.recount-interval:PT5M}") Duration interval) {
+
+        this.petRepository = petRepository;
+        this.readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.interval = interval;
+        this.exactRecounts = Counter.builder("pets.fleet.recounts").tag("outcome", "exact").register(meterRegistry);
+        this.driftRecounts = Counter.builder("pets.fleet.recounts").tag("outcome", "drift").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recount();
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::recountQuietly, period, period, TimeUnit.MILLISECONDS);
+        log.info("FLEET STATS → recount every {}", interval);
+    }
+
+
+    @Override
+    public void onPetCommitted(PetState before, PetState after) {
+        if (before != null && after != null && sameContribution(before, after)) return;
+        // Pending first: once it is cleared, current is already its replacement
+        Generation next = pending;
+        Generation live = current;
+        live.apply(before, after);
+        if (next != null && next != live) next.apply(before, after);
+    }
+
+
+    public Snapshot snapshot() {
+        return new Snapshot(current.values(), recountedAt);
+    }
+
+
+    /**
+     * Recounts the table in one grouped query and installs the result. A write that commits
+     * while the query runs may be counted twice; the next recount corrects it.
+     */
+    public synchronized void recount() {
+        Generation next = new Generation();
+        pending = next;
+        try {
+            List<FleetAggregate> rows = readOnlyTx.execute(status -> petRepository.countFleet());
+            long[] counted = new long[CELLS];
+            for (FleetAggregate row : rows) {
+                long pets = row.getPets();
+                counted[BREED + row.getBreed().ordinal()] += pets;
+                counted[STAGE + row.getLifeStage().ordinal()] += pets;
+                if (Boolean.TRUE.equals(row.getDead())) {
+                    counted[DEAD] += pets;
+                } else {
+                    counted[ALIVE] += pets;
+                    counted[HUNGER] += row.getHunger();
+                    counted[HYGIENE] += row.getHygiene();
+                    counted[FUN] += row.getFun();
+                }
+            }
+            next.base = counted;
+
+            long[] before = current.values();
+            current = next;
+            long[] after = next.values();
+            recountedAt = Instant.now();
+            if (Arrays.equals(before, after)) {
+                exactRecounts.increment();
+            } else {
+                driftRecounts.increment();
+                log.info("FLEET STATS → recount corrected drift before={} after={}",
+                        Arrays.toString(before), Arrays.toString(after));
+            }
+        } finally {
+            pending = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // -------- helpers --------
+
+    private static boolean sameContribution(PetState a, PetState b) {
+        return a.breed() == b.breed() && a.stage() == b.stage() && a.dead() == b.dead()
+                && a.hunger() == b.hunger() && a.hygiene() == b.hygiene() && a.fun() == b.fun();
+    }
+
+    private void recountQuietly() {
+        try {
+            recount();
+        } catch (RuntimeException ex) {
+            log.warn("FLEET STATS → recount failed | reason={}", ex.getMessage());
+        }
+    }
+
+
+    /** Point-in-time read of the counters. */
+    public static final class Snapshot {
+
+        private final long[] cells;
+        private final Instant recountedAt;
+
+        private Snapshot(long[] cells, Instant recountedAt) {
+            this.cells = cells;
+            this.recountedAt = recountedAt;
+        }
+
+        public long alive() { return cells[ALIVE]; }
+        public long dead() { return cells[DEAD]; }
+        public long total() { return cells[ALIVE] + cells[DEAD]; }
+        public long breed(Breed breed) { return cells[BREED + breed.ordinal()]; }
+        public long stage(LifeStage stage) { return cells[STAGE + stage.ordinal()]; }
+
+        // Stat sums cover living pets only
+        public long hungerSum() { return cells[HUNGER]; }
+        public long hygieneSum() { return cells[HYGIENE]; }
+        public long funSum() { return cells[FUN]; }
+
+        /** Null until the first recount has finished. */
+        public Instant recountedAt() { return recountedAt; }
+    }
+
+
+    // Recounted base (zeros until set) plus the deltas applied since
+    private static final class Generation {
+
+        private final LongAdder[] deltas = new LongAdder[CELLS];
+        private volatile long[] base = new long[CELLS];
+
+        private Generation() {
+            for (int i = 0; i < CELLS; i++) deltas[i] = new LongAdder();
+        }
+
+        void apply(PetState before, PetState after) {
+            if (before != null) add(before, -1);
+            if (after != null) add(after, 1);
+        }
+
+        long[] values() {
+            long[] values = base.clone();
+            for (int i = 0; i < CELLS; i++) values[i] += deltas[i].sum();
+            return values;
+        }
+
+        private void add(PetState pet, int sign) {
+            deltas[BREED + pet.breed().ordinal()].add(sign);
+            deltas[STAGE + pet.stage().ordinal()].add(sign);
+            if (pet.dead()) {
+                deltas[DEAD].add(sign);
+                return;
+            }
+            deltas[ALIVE].add(sign);
+            deltas[HUNGER].add((long) sign * pet.hunger());
+            deltas[HYGIENE].add((long) sign * pet.hygiene());
+            deltas[FUN].add((long) sign * pet.fun());
+        }
+    }
+}
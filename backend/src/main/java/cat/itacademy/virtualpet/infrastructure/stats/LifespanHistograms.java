@@ -0,0 +1,253 @@
+package cat.itacademy.virtualpet.infrastructure.stats;
+
+import cat.itacademy.virtualpet.domain.pet.PetLifespanHistogram;
+import cat.itacademy.virtualpet.domain.pet.PetLifespanHistogramRepository;
+import cat.itacademy.virtualpet.domain.pet.PetLifetime;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.ActionCountBracket;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.infrastructure.events.PetState;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteListener;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+
+
+/**
+ * Lifetime distribution of dead pets, one HdrHistogram per (breed, action count at death).
+ * {@link PetWriteListener} records each death into a lock-free {@link Recorder}; a background
+ * snapshot merges what was recorded since the last one into {@code pet_lifespan_histograms}
+ * and re-reads the table, so reads see every node's deaths without scanning {@code pets}.
+ * Histograms are mergeable: per-breed and per-bracket views are sums of the stored ones.
+ */
+@Slf4j
+@Component
+public class LifespanHistograms implements PetWriteObserver {
+
+    // 1% value precision is plenty for lifetimes, and keeps a compressed histogram under 1 KiB
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final PetLifespanHistogramRepository histograms;
+    private final PetRepository petRepository;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-lifespan-snapshot").daemon().factory());
+
+    private final Map<Key, Recorder> recorders = new ConcurrentHashMap<>();
+    // Taken from the recorders but not merged yet; retried by the next snapshot. Guarded by this
+    private final Map<Key, Histogram> unsaved = new HashMap<>();
+    private volatile Map<Key, Histogram> stored = Map.of();
+    private volatile Instant snapshotAt;
+
+    public LifespanHistograms(
+            PetLifespanHistogramRepository histograms,
+            PetRepository petRepository,
+            TransactionTemplate tx,
+            @Value("${pets.lifespan.snapshot-interval:PT1M}") Duration interval) {
+
+        this.histograms = histograms;
+        this.petRepository = petRepository;
+        this.tx = tx;
+        this.readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        seedIfEmpty();
+        refresh();
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+        log.info("LIFESPANS → snapshot every {} histograms={}", interval, stored.size());
+    }
+
+
+    public record Key(Breed breed, ActionCountBracket actions) { }
+
+    public record Distribution(long deaths, long p50Millis, long p90Millis, long p99Millis, long maxMillis) { }
+
+
+    @Override
+    public void onPetCommitted(PetState before, PetState after) {
+        // Only the write that kills the pet counts; later edits of a dead pet do not
+        if (after == null || !after.dead() || (before != null && before.dead())) return;
+        Long millis = lifetimeMillis(after.createdAt(), after.deathAt());
+        if (millis == null) return;
+        recorders.computeIfAbsent(new Key(after.breed(), ActionCountBracket.of(after.actionCount())),
+                key -> new Recorder(SIGNIFICANT_DIGITS)).recordValue(millis);
+    }
+
+
+    /**
+     * Merges the deaths matching {@code breed} and {@code actions} (null = any) as of the last
+     * snapshot, or null if there are none.
+     */
+    public Distribution distribution(Breed breed, ActionCountBracket actions) {
+        Histogram merged = null;
+        for (Map.Entry<Key, Histogram> entry : stored.entrySet()) {
+            Key key = entry.getKey();
+            if ((breed != null && key.breed() != breed) || (actions != null && key.actions() != actions)) continue;
+            if (merged == null) merged = emptyHistogram();
+            merged.add(entry.getValue());
+        }
+        if (merged == null || merged.getTotalCount() == 0) return null;
+        return new Distribution(merged.getTotalCount(),
+                merged.getValueAtPercentile(50), merged.getValueAtPercentile(90),
+                merged.getValueAtPercentile(99), merged.getMaxValue());
+    }
+
+    /** Null until the first snapshot has been read. */
+    public Instant snapshotAt() {
+        return snapshotAt;
+    }
+
+
+    /** Merges the deaths recorded since the last snapshot into the table and re-reads it. */
+    public synchronized void snapshot() {
+        recorders.forEach((key, recorder) -> {
+            Histogram recorded = recorder.getIntervalHistogram();
+            if (recorded.getTotalCount() > 0) unsaved.merge(key, recorded, LifespanHistograms::add);
+        });
+
+        for (Iterator<Map.Entry<Key, Histogram>> it = unsaved.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Histogram> entry = it.next();
+            // A failure leaves this and the remaining intervals for the next snapshot
+            tx.executeWithoutResult(status -> mergeInto(entry.getKey(), entry.getValue()));
+            it.remove();
+        }
+        refresh();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            log.warn("LIFESPANS → final snapshot failed | reason={}", ex.getMessage());
+        }
+    }
+
+    // -------- helpers --------
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            log.warn("LIFESPANS → snapshot failed | reason={}", ex.getMessage());
+        }
+    }
+
+    private void mergeInto(Key key, Histogram recorded) {
+        PetLifespanHistogram row = histograms.findForUpdate(key.breed(), key.actions())
+                .orElseGet(() -> new PetLifespanHistogram(key.breed(), key.actions()));
+        Histogram merged = row.getHistogram() == null ? emptyHistogram() : decode(row.getHistogram());
+        merged.add(recorded);
+        write(row, merged);
+        histograms.save(row);
+    }
+
+    private void refresh() {
+        List<PetLifespanHistogram> rows = readOnlyTx.execute(status -> histograms.findAll());
+        Map<Key, Histogram> loaded = new HashMap<>();
+        for (PetLifespanHistogram row : rows) {
+            loaded.put(new Key(row.getBreed(), row.getActionBracket()), decode(row.getHistogram()));
+        }
+        stored = Map.copyOf(loaded);
+        snapshotAt = Instant.now();
+    }
+
+    // First start against an existing database: build the histograms once from the dead pets.
+    // Every key gets a row, so a second node seeding at the same time fails on the primary key.
+    private void seedIfEmpty() {
+        if (histograms.count() > 0) return;
+        try {
+            Long seeded = tx.execute(status -> {
+                Map<Key, Histogram> counted = new HashMap<>();
+                try (Stream<PetLifetime> lifetimes = petRepository.streamLifetimes()) {
+                    lifetimes.forEach(pet -> {
+                        Long millis = lifetimeMillis(pet.getCreatedAt(), pet.getDeathAt());
+                        if (millis == null) return;
+                        counted.computeIfAbsent(new Key(pet.getBreed(), ActionCountBracket.of(pet.getActionCount())),
+                                key -> emptyHistogram()).recordValue(millis);
+                    });
+                }
+                List<PetLifespanHistogram> rows = new ArrayList<>();
+                long deaths = 0;
+                for (Breed breed : Breed.values()) {
+                    for (ActionCountBracket actions : ActionCountBracket.values()) {
+                        Histogram histogram = counted.getOrDefault(new Key(breed, actions), emptyHistogram());
+                        PetLifespanHistogram row = new PetLifespanHistogram(breed, actions);
+                        write(row, histogram);
+                        rows.add(row);
+                        deaths += histogram.getTotalCount();
+                    }
+                }
+                histograms.saveAllAndFlush(rows);
+                return deaths;
+            });
+            log.info("LIFESPANS → seeded from pets deaths={}", seeded);
+        } catch (DataIntegrityViolationException ex) {
+            log.info("LIFESPANS → already seeded by another node");
+        }
+    }
+
+    private static Long lifetimeMillis(Instant createdAt, Instant deathAt) {
+        if (createdAt == null || deathAt == null || deathAt.isBefore(createdAt)) return null;
+        return Duration.between(createdAt, deathAt).toMillis();
+    }
+
+    private static void write(PetLifespanHistogram row, Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        row.setHistogram(Arrays.copyOf(buffer.array(), length));
+        row.setDeaths(histogram.getTotalCount());
+        row.setUpdatedAt(Instant.now());
+    }
+
+    private static Histogram decode(byte[] bytes) {
+        try {
+            Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            histogram.setAutoResize(true);
+            return histogram;
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt lifespan histogram", ex);
+        }
+    }
+
+    private static Histogram emptyHistogram() {
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    private static Histogram add(Histogram into, Histogram other) {
+        into.add(other);
+        return into;
+    }
+}
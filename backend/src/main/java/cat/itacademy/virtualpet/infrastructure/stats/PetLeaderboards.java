@@ -0,0 +1,255 @@
+package cat.itacademy.virtualpet.infrastructure.stats;
+
+import cat.itacademy.virtualpet.domain.pet.LeaderboardRow;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.PetWellness;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.Leaderboard;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.infrastructure.events.PetState;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteListener;
+import cat.itacademy.virtualpet.infrastructure.events.PetWriteObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * In-memory top-K of living pets per {@link Leaderboard}, so reads are a copy of at most K
+ * entries instead of an ORDER BY over {@code pets}. Each board buffers the best 2K pets and is
+ * updated from {@link PetWriteListener}; when removals leave fewer than K it refills from the
+ * database. Boards are rebuilt at startup and periodically, which keeps every node (and every
+ * restart) on the table's ranking.
+ */
+@Slf4j
+@Component
+public class PetLeaderboards implements PetWriteObserver {
+
+    private final PetRepository petRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final int size;
+    private final Duration interval;
+    private final Map<Leaderboard, Board> boards = new EnumMap<>(Leaderboard.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("pet-leaderboards").daemon().factory());
+
+    public PetLeaderboards(
+            PetRepository petRepository,
+            TransactionTemplate tx,
+            @Value("${pets.leaderboard.size:100}") int size,
+            @Value("${pets.leaderboard.rebuild-interval:PT10M}") Duration interval) {
+
+        this.petRepository = petRepository;
+        this.readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.size = size;
+        this.interval = interval;
+        for (Leaderboard leaderboard : Leaderboard.values()) boards.put(leaderboard, new Board(leaderboard, size));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildAll();
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, period, period, TimeUnit.MILLISECONDS);
+        log.info("LEADERBOARDS → top {} rebuilt every {}", size, interval);
+    }
+
+
+    /** One ranked pet, as of its last committed write. */
+    public record Entry(Long id, String name, Breed breed, LifeStage stage, Instant createdAt,
+                        int actionCount, int wellness) { }
+
+
+    /** The best {@code limit} (at most the configured size) pets of {@code leaderboard}, best first. */
+    public List<Entry> top(Leaderboard leaderboard, int limit) {
+        List<Entry> top = boards.get(leaderboard).top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    public int size() {
+        return size;
+    }
+
+
+    @Override
+    public void onPetCommitted(PetState before, PetState after) {
+        Long id = after != null ? after.id() : before.id();
+        Entry entry = after == null || after.dead() ? null : new Entry(after.id(), after.name(), after.breed(),
+                after.stage(), after.createdAt(), after.actionCount(),
+                PetWellness.of(after.hunger(), after.hygiene(), after.fun()));
+        for (Board board : boards.values()) {
+            if (board.apply(id, entry)) refillLater(board);
+        }
+    }
+
+
+    /** Reloads every board from the database. */
+    public void rebuildAll() {
+        for (Board board : boards.values()) rebuild(board);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // -------- helpers --------
+
+    private void rebuild(Board board) {
+        board.beginRebuild();
+        try {
+            List<LeaderboardRow> rows = readOnlyTx.execute(status -> load(board.leaderboard, Limit.of(board.capacity)));
+            List<Entry> entries = new ArrayList<>(rows.size());
+            for (LeaderboardRow row : rows) {
+                entries.add(new Entry(row.getId(), row.getName(), row.getBreed(), row.getLifeStage(),
+                        row.getCreatedAt(), row.getActionCount(),
+                        PetWellness.of(row.getHunger(), row.getHygiene(), row.getFun())));
+            }
+            board.install(entries, rows.size() < board.capacity);
+            log.debug("LEADERBOARDS → {} rebuilt with {} pets", board.leaderboard, entries.size());
+        } finally {
+            board.endRebuild();
+        }
+    }
+
+    private List<LeaderboardRow> load(Leaderboard leaderboard, Limit limit) {
+        return switch (leaderboard) {
+            case AGE -> petRepository.findOldestAlive(limit);
+            case ACTIONS -> petRepository.findMostActiveAlive(limit);
+            case WELLNESS -> petRepository.findWellestAlive(limit);
+        };
+    }
+
+    private void refillLater(Board board) {
+        if (!board.refillScheduled.compareAndSet(false, true)) return;
+        scheduler.execute(() -> {
+            board.refillScheduled.set(false);
+            try {
+                rebuild(board);
+            } catch (RuntimeException ex) {
+                log.warn("LEADERBOARDS → {} refill failed | reason={}", board.leaderboard, ex.getMessage());
+            }
+        });
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuildAll();
+        } catch (RuntimeException ex) {
+            log.warn("LEADERBOARDS → rebuild failed | reason={}", ex.getMessage());
+        }
+    }
+
+    // Same order as the rebuild queries: ties broken by id in the score's direction
+    private static Comparator<Entry> order(Leaderboard leaderboard) {
+        return switch (leaderboard) {
+            case AGE -> Comparator.comparing(Entry::createdAt).thenComparing(Entry::id);
+            case ACTIONS -> Comparator.comparingInt(Entry::actionCount).thenComparing(Entry::id).reversed();
+            case WELLNESS -> Comparator.comparingInt(Entry::wellness).thenComparing(Entry::id).reversed();
+        };
+    }
+
+
+    // The best 'capacity' pets of one board. Unless 'complete', pets outside the buffer exist and
+    // rank at or below its last entry, so only pets that beat that entry may join.
+    private static final class Board {
+
+        private final Leaderboard leaderboard;
+        private final int served;
+        private final int capacity;
+        private final Comparator<Entry> order;
+        private final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+        private TreeSet<Entry> ranked;
+        private Map<Long, Entry> byId = new HashMap<>();
+        private boolean complete;
+        // Writes seen while a rebuild query runs, re-applied on top of its result; null otherwise
+        private List<Write> replay;
+
+        private volatile List<Entry> top = List.of();
+
+        private Board(Leaderboard leaderboard, int served) {
+            this.leaderboard = leaderboard;
+            this.served = served;
+            this.capacity = served * 2;
+            this.order = order(leaderboard);
+            this.ranked = new TreeSet<>(order);
+        }
+
+        /** Applies a committed write ({@code entry} null: no longer ranked); true if a refill is due. */
+        synchronized boolean apply(Long id, Entry entry) {
+            if (replay != null) replay.add(new Write(id, entry));
+            boolean changed = put(id, entry);
+            if (changed) publish();
+            return !complete && ranked.size() < served;
+        }
+
+        synchronized void beginRebuild() {
+            replay = new ArrayList<>();
+        }
+
+        // Replayed writes are plain "set this pet's entry", so applying one the query already saw is harmless
+        synchronized void install(List<Entry> entries, boolean complete) {
+            this.ranked = new TreeSet<>(order);
+            this.byId = new HashMap<>();
+            this.complete = complete;
+            for (Entry entry : entries) {
+                ranked.add(entry);
+                byId.put(entry.id(), entry);
+            }
+            for (Write write : replay) put(write.id(), write.entry());
+            publish();
+        }
+
+        synchronized void endRebuild() {
+            replay = null;
+        }
+
+        private boolean put(Long id, Entry entry) {
+            Entry previous = byId.remove(id);
+            boolean changed = previous != null && ranked.remove(previous);
+            if (entry == null) return changed;
+
+            // Worse than the last buffered pet: an unbuffered pet may rank above it
+            if (!complete && (ranked.isEmpty() || order.compare(entry, ranked.last()) > 0)) return changed;
+            ranked.add(entry);
+            byId.put(id, entry);
+            if (ranked.size() > capacity) {
+                byId.remove(ranked.pollLast().id());
+                complete = false;
+            }
+            return true;
+        }
+
+        private record Write(Long id, Entry entry) { }
+
+        private void publish() {
+            List<Entry> best = new ArrayList<>(Math.min(served, ranked.size()));
+            for (Entry entry : ranked) {
+                if (best.size() == served) break;
+                best.add(entry);
+            }
+            top = List.copyOf(best);
+        }
+    }
+}
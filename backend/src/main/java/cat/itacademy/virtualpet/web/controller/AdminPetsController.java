@@ -1,8 +1,10 @@
 package cat.itacademy.virtualpet.web.controller;
 
 import cat.itacademy.virtualpet.application.dto.pet.PetActionResponse;
+import cat.itacademy.virtualpet.application.dto.pet.PetBatchItem;
 import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
 import cat.itacademy.virtualpet.application.service.pet.PetService;
+import cat.itacademy.virtualpet.web.etag.PetETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,10 +13,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 @Slf4j
 @RestController
@@ -30,21 +35,26 @@ public class AdminPetsController {
     }
 
 
-    @Operation(summary = "List all pets (ADMIN only, paginated)")
+    @Operation(summary = "List all pets (ADMIN only, paginated; sort=wellness,asc puts the most at risk first)")
     @GetMapping
     public ResponseEntity<Page<PetResponse>> listAllPets(
             Authentication authentication,
             @Parameter(description = "Filter pets by owner ID", example = "2")
             @RequestParam(required = false) Long ownerId,
+            @Parameter(description = "Only living pets with warnings (wellness <= 25), most at risk first")
+            @RequestParam(required = false) Boolean atRisk,
+            @Parameter(description = "Only living pets with wellness at or below this score (0-100)", example = "40")
+            @RequestParam(required = false) Integer maxWellness,
             @ParameterObject Pageable pageable
     ) {
         String adminEmail = authentication.getName();
-        log.info("ADMIN {} requested PET LIST (ownerId={})", adminEmail, ownerId);
+        log.info("ADMIN {} requested PET LIST (ownerId={}, atRisk={}, maxWellness={})",
+                adminEmail, ownerId, atRisk, maxWellness);
         log.debug("Pagination params | page={} size={} sort={}",
                 pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
 
         try {
-            Page<PetResponse> pets = petService.adminListPets(ownerId, pageable, adminEmail);
+            Page<PetResponse> pets = petService.adminListPets(ownerId, atRisk, maxWellness, pageable, adminEmail);
             log.info("ADMIN {} successfully retrieved {} pets", adminEmail, pets.getTotalElements());
             return ResponseEntity.ok(pets);
         } catch (Exception ex) {
@@ -54,6 +64,27 @@ public class AdminPetsController {
     }
 
 
+    @Operation(summary = "Get several pets by ID in one call (ADMIN only, missing ids are reported per element)")
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PetBatchItem>> getPetsByIds(
+            @Parameter(description = "Comma-separated pet IDs", example = "1,2,3")
+            @RequestParam List<Long> ids,
+            Authentication authentication
+    ) {
+        String adminEmail = authentication.getName();
+        log.info("ADMIN {} requested PETS {}", adminEmail, ids);
+
+        try {
+            List<PetBatchItem> items = petService.adminGetPetsByIds(ids, adminEmail);
+            log.info("ADMIN {} retrieved {} pet results", adminEmail, items.size());
+            return ResponseEntity.ok(items);
+        } catch (Exception ex) {
+            log.warn("ADMIN {} failed to GET PETS {} | reason={}", adminEmail, ids, ex.getMessage());
+            throw ex;
+        }
+    }
+
+
     @Operation(summary = "Get a pet by ID (ADMIN override)")
     @GetMapping("/{id}")
     public ResponseEntity<PetResponse> getPetById(
@@ -98,15 +129,16 @@ public class AdminPetsController {
     @PostMapping("/{id}/actions/feed")
     public ResponseEntity<PetActionResponse> feedPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
         String adminEmail = authentication.getName();
         log.info("ADMIN {} FEED PET {}", adminEmail, id);
 
         try {
-            PetActionResponse response = petService.feed(id, adminEmail);
+            PetActionResponse response = petService.feed(id, PetETags.expectedVersion(ifMatch, id), adminEmail);
             log.info("ADMIN {} successfully FED PET {}", adminEmail, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("ADMIN {} failed to FEED PET {} | reason={}", adminEmail, id, ex.getMessage());
             throw ex;
@@ -117,15 +149,16 @@ public class AdminPetsController {
     @PostMapping("/{id}/actions/wash")
     public ResponseEntity<PetActionResponse> washPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
         String adminEmail = authentication.getName();
         log.info("ADMIN {} WASH PET {}", adminEmail, id);
 
         try {
-            PetActionResponse response = petService.wash(id, adminEmail);
+            PetActionResponse response = petService.wash(id, PetETags.expectedVersion(ifMatch, id), adminEmail);
             log.info("ADMIN {} successfully WASHED PET {}", adminEmail, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("ADMIN {} failed to WASH PET {} | reason={}", adminEmail, id, ex.getMessage());
             throw ex;
@@ -136,15 +169,16 @@ public class AdminPetsController {
     @PostMapping("/{id}/actions/play")
     public ResponseEntity<PetActionResponse> playPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication
     ) {
         String adminEmail = authentication.getName();
         log.info("ADMIN {} PLAY PET {}", adminEmail, id);
 
         try {
-            PetActionResponse response = petService.play(id, adminEmail);
+            PetActionResponse response = petService.play(id, PetETags.expectedVersion(ifMatch, id), adminEmail);
             log.info("ADMIN {} successfully PLAYED with PET {}", adminEmail, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("ADMIN {} failed to PLAY PET {} | reason={}", adminEmail, id, ex.getMessage());
             throw ex;
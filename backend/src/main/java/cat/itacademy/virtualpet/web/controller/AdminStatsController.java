@@ -0,0 +1,63 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.dto.stats.FleetStatsResponse;
+import cat.itacademy.virtualpet.application.dto.stats.LifespanStatsResponse;
+import cat.itacademy.virtualpet.application.service.stats.FleetStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/stats")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admin Stats", description = "Fleet-wide pet counts, averages and lifespans for ADMIN users.")
+public class AdminStatsController {
+
+    private final FleetStatsService fleetStatsService;
+
+    public AdminStatsController(FleetStatsService fleetStatsService) {
+        this.fleetStatsService = fleetStatsService;
+    }
+
+
+    @Operation(summary = "Counts alive/dead, per breed and stage, and average stats of all pets (ADMIN only)")
+    @GetMapping
+    public ResponseEntity<FleetStatsResponse> getStats(Authentication authentication) {
+        String adminEmail = authentication.getName();
+        log.info("ADMIN {} requested FLEET STATS", adminEmail);
+
+        try {
+            FleetStatsResponse stats = fleetStatsService.getStats(adminEmail);
+            log.info("ADMIN {} retrieved FLEET STATS total={}", adminEmail, stats.getTotal());
+            return ResponseEntity.ok(stats);
+        } catch (Exception ex) {
+            log.warn("ADMIN {} failed to GET FLEET STATS | reason={}", adminEmail, ex.getMessage());
+            throw ex;
+        }
+    }
+
+
+    @Operation(summary = "Lifetime percentiles of dead pets, overall, per breed and per action count (ADMIN only)")
+    @GetMapping("/lifespans")
+    public ResponseEntity<LifespanStatsResponse> getLifespans(Authentication authentication) {
+        String adminEmail = authentication.getName();
+        log.info("ADMIN {} requested LIFESPANS", adminEmail);
+
+        try {
+            LifespanStatsResponse lifespans = fleetStatsService.getLifespans(adminEmail);
+            log.info("ADMIN {} retrieved LIFESPANS snapshotAt={}", adminEmail, lifespans.getSnapshotAt());
+            return ResponseEntity.ok(lifespans);
+        } catch (Exception ex) {
+            log.warn("ADMIN {} failed to GET LIFESPANS | reason={}", adminEmail, ex.getMessage());
+            throw ex;
+        }
+    }
+}
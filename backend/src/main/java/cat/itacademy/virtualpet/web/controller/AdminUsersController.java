@@ -1,9 +1,12 @@
 package cat.itacademy.virtualpet.web.controller;
 
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.application.dto.user.UserField;
 import cat.itacademy.virtualpet.application.dto.user.UserResponse;
 import cat.itacademy.virtualpet.application.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -46,6 +49,26 @@ public class AdminUsersController {
         }
     }
 
+    @Operation(summary = "List all users with only the listed fields (ADMIN only, id is always included)")
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseRows> getAllUsers(
+            @Parameter(description = "Comma-separated UserResponse fields (roles not selectable)", example = "username")
+            @RequestParam String fields,
+            Authentication authentication) {
+
+        String adminEmail = authentication.getName();
+        log.info("ADMIN {} requested USER LIST fields={}", adminEmail, fields);
+
+        try {
+            SparseRows users = userService.getAllUsers(UserField.parse(fields), adminEmail);
+            log.info("ADMIN {} retrieved {} users", adminEmail, users.size());
+            return ResponseEntity.ok(users);
+        } catch (Exception ex) {
+            log.warn("ADMIN {} failed to list users | reason={}", adminEmail, ex.getMessage());
+            throw ex;
+        }
+    }
+
     // ===================== VER DETALLE DE UN USUARIO =====================
 
     @Operation(summary = "Get user details by ID (ADMIN only)")
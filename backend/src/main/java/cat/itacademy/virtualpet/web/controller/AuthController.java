@@ -1,9 +1,12 @@
 package cat.itacademy.virtualpet.web.controller;
 
 import cat.itacademy.virtualpet.application.dto.auth.AuthResponse;
+import cat.itacademy.virtualpet.application.dto.auth.AvailabilityResponse;
 import cat.itacademy.virtualpet.application.dto.auth.LoginRequest;
 import cat.itacademy.virtualpet.application.dto.auth.RegisterRequest;
 import cat.itacademy.virtualpet.application.service.auth.AuthService;
+import cat.itacademy.virtualpet.web.ratelimit.AuthRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter rateLimiter;
 
     // =================== REGISTER ===================
     @PostMapping(
@@ -26,9 +30,11 @@ public class AuthController {
             consumes = "application/json",
             produces = "application/json"
     )
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest body) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest body,
+                                                 HttpServletRequest request) {
 
         log.info("Register requested | email={} username={}", body.getEmail(), body.getUsername());
+        rateLimiter.check(request.getRemoteAddr(), body.getEmail());
 
         try {
 
@@ -54,9 +60,11 @@ public class AuthController {
             consumes = "application/json",
             produces = "application/json"
     )
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest body) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest body,
+                                              HttpServletRequest request) {
 
         log.info("Login requested | email={}", body.getEmail());
+        rateLimiter.check(request.getRemoteAddr(), body.getEmail());
 
         try {
 
@@ -75,4 +83,17 @@ public class AuthController {
             throw ex;
         }
     }
+
+    // =================== AVAILABILITY ===================
+    @GetMapping(value = "/availability", produces = "application/json")
+    public ResponseEntity<AvailabilityResponse> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            HttpServletRequest request) {
+
+        log.debug("Availability requested | username={} email={}", username, email);
+        // Public lookup: throttled per IP so it cannot be used to enumerate accounts cheaply
+        rateLimiter.checkAvailability(request.getRemoteAddr());
+        return ResponseEntity.ok(authService.checkAvailability(username, email));
+    }
 }
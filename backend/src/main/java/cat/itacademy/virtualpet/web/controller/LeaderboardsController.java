@@ -0,0 +1,49 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.dto.stats.LeaderboardResponse;
+import cat.itacademy.virtualpet.application.service.stats.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/leaderboards")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Leaderboards", description = "Oldest, most active and best cared-for living pets of every owner.")
+public class LeaderboardsController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardsController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+
+    @Operation(summary = "Top living pets of a leaderboard: age, actions or wellness (limit defaults to 10)")
+    @GetMapping("/{board}")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(@PathVariable String board,
+                                                              @RequestParam(required = false) String limit,
+                                                              Authentication authentication) {
+        String userEmail = authentication.getName();
+        log.info("USER {} requested LEADERBOARD {}", userEmail, board);
+
+        try {
+            LeaderboardResponse leaderboard = leaderboardService.getLeaderboard(board, limit, userEmail);
+            log.info("USER {} retrieved LEADERBOARD {} entries={}", userEmail, board, leaderboard.getEntries().size());
+            return ResponseEntity.ok(leaderboard);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET LEADERBOARD {} | reason={}", userEmail, board, ex.getMessage());
+            throw ex;
+        }
+    }
+}
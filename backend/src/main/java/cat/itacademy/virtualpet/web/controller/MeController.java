@@ -0,0 +1,45 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.dto.dashboard.DashboardResponse;
+import cat.itacademy.virtualpet.application.service.dashboard.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/me")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Me", description = "Endpoints about the authenticated user.")
+public class MeController {
+
+    private final DashboardService dashboardService;
+
+    public MeController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+
+    @Operation(summary = "Profile, own pets, per-stage counts and active warnings in one call")
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard(Authentication authentication) {
+        String email = authentication.getName();
+        log.info("USER {} requested DASHBOARD", email);
+
+        try {
+            DashboardResponse dashboard = dashboardService.getDashboard(email);
+            log.info("USER {} retrieved DASHBOARD with {} pets", email, dashboard.getPets().size());
+            return ResponseEntity.ok(dashboard);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET DASHBOARD | reason={}", email, ex.getMessage());
+            throw ex;
+        }
+    }
+}
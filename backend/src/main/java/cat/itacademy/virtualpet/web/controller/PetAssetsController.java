@@ -0,0 +1,121 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.infrastructure.assets.PetAssetStore;
+import cat.itacademy.virtualpet.infrastructure.assets.PetAssetStore.Asset;
+import cat.itacademy.virtualpet.web.files.FileResponses;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/assets/pets")
+@Tag(name = "Assets", description = "Breed × life-stage pet artwork, content-addressed and cacheable forever.")
+public class PetAssetsController {
+
+    // The file name is the content hash, so a cached copy can never go stale
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    // Stable names resolve to a different file after a redeploy, so only briefly
+    private static final CacheControl SHORT = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final PetAssetStore assetStore;
+
+    public PetAssetsController(PetAssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
+
+
+    @Operation(summary = "Map of BREED/STAGE to the content-addressed image URL")
+    @GetMapping
+    public ResponseEntity<Map<String, String>> getManifest(WebRequest webRequest) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        assetStore.manifest().forEach((key, name) -> urls.put(key, "/assets/pets/" + name));
+
+        String etag = "\"" + Integer.toHexString(urls.hashCode()) + "\"";
+        if (webRequest.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().cacheControl(SHORT).eTag(etag).body(urls);
+    }
+
+
+    @Operation(summary = "Redirect from a stable BREED/STAGE URL to the content-addressed image")
+    @GetMapping("/{breed}/{stage}")
+    public ResponseEntity<Void> redirect(@PathVariable Breed breed, @PathVariable LifeStage stage) {
+        return assetStore.nameFor(breed, stage)
+                .map(name -> ResponseEntity.status(HttpStatus.FOUND)
+                        .cacheControl(SHORT)
+                        .location(URI.create("/assets/pets/" + name))
+                        .<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+
+    @Operation(summary = "Content-addressed image; gzip when accepted and smaller; sent with sendfile when available")
+    @GetMapping("/{name:[0-9a-f]{20}\\.png}")
+    public ResponseEntity<Void> getAsset(
+            @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Asset asset = assetStore.find(name).orElse(null);
+        if (asset == null) return ResponseEntity.notFound().build();
+
+        boolean gzip = asset.hasGzip() && acceptsGzip(acceptEncoding);
+        // Each encoding is its own representation, so it gets its own validator
+        String etag = gzip ? asset.gzipEtag() : asset.etag();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        if (asset.hasGzip()) response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (webRequest.checkNotModified(etag)) return null;
+
+        Path file = gzip ? asset.gzipFile() : asset.file();
+        long length = gzip ? asset.gzipLength() : asset.length();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.IMAGE_PNG_VALUE);
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        FileResponses.send(request, response, file, length);
+        return null;
+    }
+
+    // -------- helpers --------
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("*")) continue;
+            for (int i = 1; i < tokens.length; i++) {
+                if (tokens[i].trim().matches("q=0(\\.0{0,3})?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+}
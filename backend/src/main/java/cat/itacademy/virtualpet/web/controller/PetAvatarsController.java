@@ -0,0 +1,89 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.service.pet.PetAvatarService;
+import cat.itacademy.virtualpet.infrastructure.avatars.PetAvatarStore;
+import cat.itacademy.virtualpet.web.files.FileResponses;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+
+@Slf4j
+@RestController
+@Tag(name = "Avatars", description = "Custom pet avatars: streamed upload, thumbnails served as immutable files.")
+public class PetAvatarsController {
+
+    // Every upload gets a new random key, so a thumbnail URL always names the same bytes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final PetAvatarService avatarService;
+    private final PetAvatarStore avatarStore;
+
+    public PetAvatarsController(PetAvatarService avatarService, PetAvatarStore avatarStore) {
+        this.avatarService = avatarService;
+        this.avatarStore = avatarStore;
+    }
+
+
+    @Operation(summary = "Upload a pet avatar as the raw request body (owner or admin only); 202 while thumbnails are made")
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping(value = "/pets/{id}/avatar",
+            consumes = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE})
+    public ResponseEntity<Void> upload(
+            @PathVariable Long id,
+            Authentication authentication,
+            HttpServletRequest request) throws IOException {
+
+        String email = authentication.getName();
+        log.info("USER {} uploading AVATAR for PET {} ({} bytes)", email, id, request.getContentLengthLong());
+
+        try {
+            avatarService.upload(id, request.getInputStream(), request.getContentLengthLong(), email);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        } catch (Exception ex) {
+            log.warn("USER {} failed to upload AVATAR for PET {} | reason={}", email, id, ex.getMessage());
+            throw ex;
+        }
+    }
+
+
+    @Operation(summary = "Avatar thumbnail; URLs come from avatarUrls in the pet")
+    @GetMapping("/avatars/{key:[0-9a-f]{32}}/{size:[0-9]{1,4}}.jpg")
+    public ResponseEntity<Void> getThumbnail(
+            @PathVariable String key,
+            @PathVariable int size,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Path file = avatarStore.thumbnail(key, size).orElse(null);
+        if (file == null) return ResponseEntity.notFound().build();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        if (webRequest.checkNotModified("\"" + key + "-" + size + "\"")) return null;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        FileResponses.send(request, response, file, Files.size(file));
+        return null;
+    }
+}
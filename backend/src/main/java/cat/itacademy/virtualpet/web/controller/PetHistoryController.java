@@ -0,0 +1,86 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetHistoryResponse;
+import cat.itacademy.virtualpet.application.service.pet.PetHistoryService;
+import cat.itacademy.virtualpet.domain.pet.enums.StatResolution;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/pets")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Pet history", description = "Hunger, hygiene and fun over time, for charts.")
+public class PetHistoryController {
+
+    private final PetHistoryService historyService;
+
+    public PetHistoryController(PetHistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+
+    @Operation(summary = "Stat history of a pet (owner or admin only), raw or as hourly/daily averages")
+    @GetMapping("/{id}/history")
+    public ResponseEntity<PetHistoryResponse> getHistory(
+            @PathVariable Long id,
+            @Parameter(description = "ISO-8601 instant, inclusive; default to - 24h", example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "ISO-8601 instant, exclusive; default now")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "raw, hour or day; default: finest level that fits the span")
+            @RequestParam(required = false) String resolution,
+            Authentication authentication) {
+
+        String email = authentication.getName();
+        log.info("USER {} requested HISTORY of PET {} from={} to={} resolution={}", email, id, from, to, resolution);
+
+        try {
+            PetHistoryResponse history = historyService.getHistory(
+                    id, parseInstant("from", from), parseInstant("to", to), parseResolution(resolution), email);
+            log.info("USER {} retrieved HISTORY of PET {} ({} {} points)",
+                    email, id, history.getPoints().size(), history.getResolution());
+            return ResponseEntity.ok(history);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET HISTORY of PET {} | reason={}", email, id, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // -------- helpers --------
+
+    private static Instant parseInstant(String name, String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return Instant.parse(raw.trim());
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 instant");
+        }
+    }
+
+    private static StatResolution parseResolution(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return StatResolution.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "resolution must be raw, hour or day");
+        }
+    }
+}
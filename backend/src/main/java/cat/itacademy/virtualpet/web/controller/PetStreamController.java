@@ -0,0 +1,79 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.application.service.pet.PetService;
+import cat.itacademy.virtualpet.infrastructure.events.PetChange;
+import cat.itacademy.virtualpet.infrastructure.events.PetEventBus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/pets")
+@SecurityRequirement(name = "bearerAuth")
+public class PetStreamController {
+
+    private final PetService petService;
+    private final PetEventBus eventBus;
+    private final long timeoutMillis;
+
+    public PetStreamController(
+            PetService petService,
+            PetEventBus eventBus,
+            @Value("${pets.events.stream-timeout:PT30M}") Duration timeout) {
+        this.petService = petService;
+        this.eventBus = eventBus;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    // =============== LIVE CHANGES (SSE) ===============
+    // The request thread is released right away; events are written from the bus drainers
+    @Operation(summary = "Stream changes to your pets as Server-Sent Events (admins: all pets, optionally one owner)")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "ADMIN only: restrict the stream to one owner", example = "2")
+            @RequestParam(required = false) Long ownerId,
+            Authentication authentication) throws IOException {
+
+        String email = authentication.getName();
+        Long scope = petService.resolveStreamOwner(email, ownerId);
+        log.info("USER {} opened PET STREAM (ownerId={})", email, scope);
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        PetEventBus.Subscription subscription = eventBus.subscribe(scope, new PetEventBus.Sink() {
+            @Override
+            public void send(PetChange change) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name("pet")
+                        .id(change.id() + "-" + change.version())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+        });
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+
+        // Commits the response headers so the client knows the stream is open
+        emitter.send(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+}
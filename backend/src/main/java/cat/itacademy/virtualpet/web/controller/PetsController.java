@@ -1,17 +1,31 @@
 package cat.itacademy.virtualpet.web.controller;
 
+import cat.itacademy.virtualpet.application.dto.fields.FieldSelection;
+import cat.itacademy.virtualpet.application.dto.fields.SparseRows;
 import cat.itacademy.virtualpet.application.dto.pet.*;
 import cat.itacademy.virtualpet.application.service.pet.PetService;
+import cat.itacademy.virtualpet.web.etag.PetETags;
+import cat.itacademy.virtualpet.web.negotiation.BinaryFormats;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Set;
 
 
 @Slf4j
@@ -20,6 +34,9 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth") // Swagger: activa el candado
 public class PetsController {
 
+    // Browsers keep the body but revalidate it with If-None-Match on every request
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final PetService petService;
 
     public PetsController(PetService petService) {
@@ -49,36 +66,170 @@ public class PetsController {
     // =============== READ ALL ===============
     @Operation(summary = "Get all pets (own pets if user, all if admin)")
     @GetMapping
-    public ResponseEntity<List<PetResponse>> getAllPets(Authentication authentication) {
+    public ResponseEntity<List<PetResponse>> getAllPets(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+
         String email = authentication.getName();
         log.info("USER {} requested PET LIST", email);
 
         try {
+            // 304 from the list version, before any pet is loaded
+            varyByAccept(response);
+            if (webRequest.checkNotModified(BinaryFormats.etag(petService.getPetsETag(email), accept))) {
+                log.debug("USER {} PET LIST not modified", email);
+                return null;
+            }
             List<PetResponse> pets = petService.getAllPets(email);
             log.info("USER {} retrieved {} pets", email, pets.size());
             log.debug("First 3 pets preview: {}", pets.stream().limit(3).toList());
-            return ResponseEntity.ok(pets);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(pets);
         } catch (Exception ex) {
             log.warn("USER {} failed to LIST PETS | reason={}", email, ex.getMessage());
             throw ex;
         }
     }
 
+    @Operation(summary = "Get all pets with only the listed fields (id is always included)")
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<SparseRows> getAllPets(
+            @Parameter(description = "Comma-separated PetResponse fields", example = "name,lifeStage")
+            @RequestParam String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+
+        String email = authentication.getName();
+        log.info("USER {} requested PET LIST fields={}", email, fields);
+
+        try {
+            Set<PetField> selected = PetField.parse(fields);
+            // Same list version, one ETag per field selection and format
+            String etag = petService.getPetsETag(email) + "-f" + FieldSelection.mask(selected);
+            varyByAccept(response);
+            if (webRequest.checkNotModified(BinaryFormats.etag(etag, accept))) {
+                log.debug("USER {} PET LIST not modified", email);
+                return null;
+            }
+            SparseRows pets = petService.getAllPets(selected, email);
+            log.info("USER {} retrieved {} pets ({} fields)", email, pets.size(), selected.size());
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(pets);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to LIST PETS | reason={}", email, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // =============== MULTI-GET ===============
+    @Operation(summary = "Get several pets by ID in one call (missing or foreign ids are reported per element)")
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PetBatchItem>> getPetsByIds(
+            @Parameter(description = "Comma-separated pet IDs", example = "1,2,3")
+            @RequestParam List<Long> ids,
+            Authentication authentication) {
+
+        String email = authentication.getName();
+        log.info("USER {} requested PETS {}", email, ids);
+
+        try {
+            List<PetBatchItem> items = petService.getPetsByIds(ids, email);
+            log.info("USER {} retrieved {} pet results", email, items.size());
+            return ResponseEntity.ok(items);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET PETS {} | reason={}", email, ids, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // =============== DELTA SYNC ===============
+    @Operation(summary = "Pets created, updated or deleted after a change cursor (omit since to get the current cursor; 410 once the cursor is past the log retention)")
+    @GetMapping("/changes")
+    public ResponseEntity<PetChangesResponse> getChanges(
+            @RequestParam(required = false) Long since,
+            Authentication authentication) {
+
+        String email = authentication.getName();
+        log.info("USER {} requested PET CHANGES since={}", email, since);
+
+        try {
+            PetChangesResponse changes = petService.getChangesSince(since, email);
+            log.info("USER {} retrieved {} changed / {} deleted pets (cursor={})",
+                    email, changes.getChanged().size(), changes.getDeleted().size(), changes.getCursor());
+            return ResponseEntity.ok(changes);
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET PET CHANGES | reason={}", email, ex.getMessage());
+            throw ex;
+        }
+    }
+
     // =============== READ BY ID ===============
+    // JSON: the cached bytes as the body, no mapper or Jackson pass while the pet is unchanged.
+    // CBOR/Smile: the same DTO through the message converters.
     @Operation(summary = "Get a pet by ID (owner or admin only)")
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PetResponse.class)))
     @GetMapping("/{id}")
-    public ResponseEntity<PetResponse> getPetById(
+    public ResponseEntity<?> getPetById(
             @PathVariable Long id,
-            Authentication authentication) {
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication,
+            WebRequest webRequest,
+            HttpServletResponse response) {
 
         String email = authentication.getName();
         log.info("USER {} requested PET {}", email, id);
 
         try {
-            PetResponse pet = petService.getPetById(id, email);
+            // 304 from a two-column primary-key lookup, before the pet is loaded or serialized
+            varyByAccept(response);
+            if (webRequest.checkNotModified(BinaryFormats.etag(petService.getPetETag(id, email), accept))) {
+                log.debug("USER {} PET {} not modified", email, id);
+                return null;
+            }
+            ResponseEntity<?> pet = BinaryFormats.isPreferred(accept) ? petDto(id, email) : petJson(id, email);
+            log.info("USER {} retrieved PET {} successfully", email, id);
+            return pet;
+        } catch (Exception ex) {
+            log.warn("USER {} failed to GET PET {} | reason={}", email, id, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    // Set before checkNotModified so a 304 varies like the 200 it stands for, as PetAssetsController does
+    private static void varyByAccept(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    private ResponseEntity<PetResponse> petDto(Long id, String email) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                .body(petService.getPetById(id, email));
+    }
+
+    // byte[] bodies go through ByteArrayHttpMessageConverter: written as-is, no copy
+    private ResponseEntity<byte[]> petJson(Long id, String email) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(petService.getPetJsonById(id, email));
+    }
+
+    @Operation(summary = "Get a pet by ID with only the listed fields (id is always included)")
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<SparseRows> getPetById(
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated PetResponse fields", example = "name,lifeStage")
+            @RequestParam String fields,
+            Authentication authentication) {
+
+        String email = authentication.getName();
+        log.info("USER {} requested PET {} fields={}", email, id, fields);
+
+        try {
+            SparseRows pet = petService.getPetById(id, PetField.parse(fields), email);
             log.info("USER {} retrieved PET {} successfully", email, id);
-            log.debug("PET {} details: {}", id, pet);
-            return ResponseEntity.ok(pet);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(pet);
         } catch (Exception ex) {
             log.warn("USER {} failed to GET PET {} | reason={}", email, id, ex.getMessage());
             throw ex;
@@ -132,15 +283,16 @@ public class PetsController {
     @PostMapping("/{id}/actions/feed")
     public ResponseEntity<PetActionResponse> feedPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
 
         String email = authentication.getName();
         log.info("USER {} FEED PET {}", email, id);
 
         try {
-            PetActionResponse response = petService.feed(id, email);
+            PetActionResponse response = petService.feed(id, PetETags.expectedVersion(ifMatch, id), email);
             log.info("USER {} successfully FED PET {}", email, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("USER {} failed to FEED PET {} | reason={}", email, id, ex.getMessage());
             throw ex;
@@ -151,15 +303,16 @@ public class PetsController {
     @PostMapping("/{id}/actions/wash")
     public ResponseEntity<PetActionResponse> washPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
 
         String email = authentication.getName();
         log.info("USER {} WASH PET {}", email, id);
 
         try {
-            PetActionResponse response = petService.wash(id, email);
+            PetActionResponse response = petService.wash(id, PetETags.expectedVersion(ifMatch, id), email);
             log.info("USER {} successfully WASHED PET {}", email, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("USER {} failed to WASH PET {} | reason={}", email, id, ex.getMessage());
             throw ex;
@@ -170,15 +323,16 @@ public class PetsController {
     @PostMapping("/{id}/actions/play")
     public ResponseEntity<PetActionResponse> playWithPet(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
 
         String email = authentication.getName();
         log.info("USER {} PLAY PET {}", email, id);
 
         try {
-            PetActionResponse response = petService.play(id, email);
+            PetActionResponse response = petService.play(id, PetETags.expectedVersion(ifMatch, id), email);
             log.info("USER {} successfully PLAYED with PET {}", email, id);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(PetETags.format(id, response.getVersion())).body(response);
         } catch (Exception ex) {
             log.warn("USER {} failed to PLAY PET {} | reason={}", email, id, ex.getMessage());
             throw ex;
@@ -0,0 +1,16 @@
+package cat.itacademy.virtualpet.web.error;
+
+
+public class AvatarProcessingUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AvatarProcessingUnavailableException(long retryAfterSeconds) {
+        super("Avatar processing is busy, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package cat.itacademy.virtualpet.web.error;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+
+/**
+ * Resolves which named constraint a {@link DataIntegrityViolationException} violated.
+ * Prefers the name Hibernate extracted from the driver error and falls back to the raw
+ * message (e.g. MySQL: "Duplicate entry 'x' for key 'users.uk_users_email'").
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+
+    public static boolean isViolationOf(DataIntegrityViolationException ex, String constraintName) {
+        String needle = constraintName.toLowerCase(Locale.ROOT);
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT).contains(needle);
+            }
+            if (t.getCause() == t) break;
+        }
+        Throwable root = ex.getMostSpecificCause();
+        String message = root != null ? root.getMessage() : ex.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
@@ -1,10 +1,13 @@
 package cat.itacademy.virtualpet.web.error;
 
+import cat.itacademy.virtualpet.domain.user.User;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -63,9 +66,14 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> dataIntegrity(DataIntegrityViolationException ex,
                                                              HttpServletRequest req) {
         String mostSpecific = ex.getMostSpecificCause() != null ? ex.getMostSpecificCause().getMessage() : "";
-        String msg = (mostSpecific != null && mostSpecific.toLowerCase().contains("email"))
-                ? "Email already registered"
-                : "Data integrity violation";
+        String msg;
+        if (ConstraintViolations.isViolationOf(ex, User.UK_EMAIL)) {
+            msg = "Email already registered";
+        } else if (ConstraintViolations.isViolationOf(ex, User.UK_USERNAME)) {
+            msg = "Username already taken";
+        } else {
+            msg = "Data integrity violation";
+        }
         log.warn("409 DataIntegrity on {} -> {} (cause='{}')", req.getRequestURI(), msg, mostSpecific);
         if (log.isDebugEnabled()) log.debug("DataIntegrity stack:", ex);
         return build(HttpStatus.CONFLICT, msg, req.getRequestURI());
@@ -102,6 +110,51 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, ex.getMessage(), req.getRequestURI());
     }
 
+    // Lost a race on the pet's @Version: 412 if the client asked for a version, 409 otherwise
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> optimisticLock(ObjectOptimisticLockingFailureException ex,
+                                                              HttpServletRequest req) {
+        boolean conditional = req.getHeader(HttpHeaders.IF_MATCH) != null;
+        HttpStatus status = conditional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        log.warn("{} Concurrent modification on {} -> {}", status.value(), req.getRequestURI(), ex.getMessage());
+        return build(status, "The pet was modified concurrently, reload and try again", req.getRequestURI());
+    }
+
+    // --- 412 ---
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> preconditionFailed(PreconditionFailedException ex, HttpServletRequest req) {
+        log.warn("412 Precondition failed on {} -> {}", req.getRequestURI(), ex.getMessage());
+        return build(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), req.getRequestURI());
+    }
+
+    // --- 429 ---
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> tooManyRequests(TooManyRequestsException ex, HttpServletRequest req) {
+        log.warn("429 Throttled on {} -> retryAfter={}s", req.getRequestURI(), ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(base(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), req.getRequestURI()));
+    }
+
+    // --- 503 ---
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> hashingUnavailable(PasswordHashingUnavailableException ex,
+                                                                  HttpServletRequest req) {
+        log.warn("503 Password hashing saturated on {} -> retryAfter={}s", req.getRequestURI(), ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(base(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), req.getRequestURI()));
+    }
+
+    @ExceptionHandler(AvatarProcessingUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> avatarProcessingUnavailable(AvatarProcessingUnavailableException ex,
+                                                                           HttpServletRequest req) {
+        log.warn("503 Avatar pipeline saturated on {} -> retryAfter={}s", req.getRequestURI(), ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(base(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), req.getRequestURI()));
+    }
+
 
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex,
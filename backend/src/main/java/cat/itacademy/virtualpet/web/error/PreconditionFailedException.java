@@ -0,0 +1,9 @@
+package cat.itacademy.virtualpet.web.error;
+
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(Long petId) {
+        super("Pet " + petId + " has changed since you last loaded it");
+    }
+}
@@ -0,0 +1,47 @@
+package cat.itacademy.virtualpet.web.etag;
+
+import cat.itacademy.virtualpet.web.error.PreconditionFailedException;
+
+import java.util.List;
+
+
+/**
+ * Strong per-pet entity tags, {@code "<petId>-<version>"}, shared by conditional GETs
+ * (If-None-Match) and conditional actions (If-Match). GETs of the binary formats add a
+ * {@code -cbor} / {@code -smile} suffix, which If-Match accepts for the same version.
+ */
+public final class PetETags {
+
+    private static final List<String> FORMAT_SUFFIXES = List.of("-cbor", "-smile");
+
+    private PetETags() { }
+
+    public static String format(Long petId, long version) {
+        return "\"" + petId + "-" + version + "\"";
+    }
+
+    /**
+     * Version the client expects for {@code petId}, or {@code null} when the request is
+     * unconditional (no If-Match, or {@code *}). Validators that can never match this pet
+     * (weak, malformed, another pet's) fail the precondition straight away.
+     */
+    public static Long expectedVersion(String ifMatch, Long petId) {
+        if (ifMatch == null || ifMatch.isBlank()) return null;
+        String value = ifMatch.trim();
+        if (value.equals("*")) return null;
+
+        String prefix = "\"" + petId + "-";
+        if (!value.startsWith(prefix) || !value.endsWith("\"") || value.length() <= prefix.length() + 1) {
+            throw new PreconditionFailedException(petId);
+        }
+        String version = value.substring(prefix.length(), value.length() - 1);
+        for (String suffix : FORMAT_SUFFIXES) {
+            if (version.endsWith(suffix)) version = version.substring(0, version.length() - suffix.length());
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException(petId);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cat.itacademy.virtualpet.web.files;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+
+/**
+ * Sends a file body without copying it through the heap. Status and headers must be set by
+ * the caller, and nothing may have been written to the response yet.
+ */
+public final class FileResponses {
+
+    // Tomcat request attributes: with them set and nothing written, the connector sends the file with sendfile
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponses() { }
+
+    /** {@code file} must be a canonical path (Tomcat rejects others for sendfile). */
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long length)
+            throws IOException {
+
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod())) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        // No sendfile (other container, tests): transferTo still streams without loading the file
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) position += channel.transferTo(position, length - position, out);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Multi-node {@link IdempotencyStore} on the {@code idempotency_keys} table: the primary key
+ * makes {@link #reserve} atomic across nodes. Each call commits on its own, independent of the
+ * request's transaction. Expired rows are purged at most once per purge interval.
+ * A reservation still in progress after {@code idempotency.in-progress-timeout} is taken over by
+ * the next request with its key, so a node dying mid-request does not block the key for the
+ * whole TTL. The timeout must exceed the slowest request, or that request may run twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final long purgeIntervalMillis;
+    private final AtomicLong nextPurgeAt = new AtomicLong();
+
+    public DatabaseIdempotencyStore(
+            IdempotencyRecordRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout,
+            @Value("${idempotency.purge-interval:PT10M}") Duration purgeInterval) {
+
+        this.repository = repository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+    }
+
+    @Override
+    public IdempotentResponse reserve(String key, String fingerprint) {
+        Instant now = Instant.now();
+        purgeIfDue(now);
+        try {
+            tx.executeWithoutResult(s -> repository.insertReservation(key, fingerprint, now));
+            return null;
+        } catch (DataIntegrityViolationException duplicate) {
+            // Conditional on status and age: of several retries racing for a stale row, one wins
+            Integer taken = tx.execute(s -> repository.takeOverStale(key, fingerprint, now, now.minus(inProgressTimeout)));
+            if (taken != null && taken > 0) {
+                log.warn("IDEMPOTENCY → key={} took over a reservation older than {}", key, inProgressTimeout);
+                return null;
+            }
+            IdempotencyRecord existing = tx.execute(s -> repository.findById(key).orElse(null));
+            // Released between our INSERT and SELECT: report in progress, the client retries
+            return existing == null ? IdempotentResponse.inProgress(fingerprint) : existing.toResponse();
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        tx.executeWithoutResult(s -> repository.complete(
+                key, response.status(), response.contentType(), response.etag(), response.body()));
+    }
+
+    @Override
+    public void release(String key) {
+        tx.executeWithoutResult(s -> repository.deleteById(key));
+    }
+
+    // -------- helpers --------
+
+    private void purgeIfDue(Instant now) {
+        long due = nextPurgeAt.get();
+        if (now.toEpochMilli() < due || !nextPurgeAt.compareAndSet(due, now.toEpochMilli() + purgeIntervalMillis)) return;
+        Integer purged = tx.execute(s -> repository.deleteCreatedBefore(now.minus(ttl)));
+        log.debug("IDEMPOTENCY → purged {} expired keys", purged);
+    }
+}
@@ -0,0 +1,248 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Honours {@code Idempotency-Key} on POST /pets and POST .../actions/*: the first request with
+ * a key runs normally and its response is stored; retries with the same key get that response
+ * replayed without reaching the controller. Keys are scoped to the authenticated user and bound
+ * to the method, URI and a SHA-256 of the body, so a key reused for another request gets 422.
+ * Runs right after {@code JwtAuthenticationFilter} in the security chain.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+    // The body is buffered to be hashed; these endpoints take a pet name and breed at most
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private static final AntPathMatcher PM = new AntPathMatcher();
+
+    private static final String[] IDEMPOTENT_POSTS = new String[] {
+            "/pets",
+            "/pets/*/actions/*",
+            "/admin/pets/*/actions/*"
+    };
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod()) || request.getHeader(HEADER) == null) return true;
+        String uri = request.getRequestURI();
+        for (String pattern : IDEMPOTENT_POSTS) {
+            if (PM.match(pattern, uri)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            // Let the security chain answer 401; nothing is stored for anonymous calls
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String rawKey = request.getHeader(HEADER).trim();
+        if (rawKey.isEmpty() || rawKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters", request);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with " + HEADER + " are limited to " + MAX_BODY_BYTES + " bytes", request);
+            return;
+        }
+        request = new CachedBodyRequest(request, body);
+
+        String key = auth.getName() + "|" + rawKey;
+        String fingerprint = request.getMethod() + " " + request.getRequestURI() + " " + sha256Hex(body);
+
+        IdempotentResponse existing = store.reserve(key, fingerprint);
+        if (existing != null) {
+            handleExisting(existing, fingerprint, rawKey, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            store.release(key);
+            throw ex;
+        }
+
+        int status = wrapper.getStatus();
+        if (isTransient(status)) {
+            store.release(key);
+            log.debug("IDEMPOTENCY → key={} released after transient status {}", rawKey, status);
+        } else {
+            store.complete(key, new IdempotentResponse(fingerprint, status, wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.ETAG), wrapper.getContentAsByteArray()));
+            log.debug("IDEMPOTENCY → key={} stored status={} bytes={}", rawKey, status, wrapper.getContentSize());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // -------- helpers --------
+
+    private void handleExisting(IdempotentResponse existing, String fingerprint, String rawKey,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            log.warn("IDEMPOTENCY → key={} reused for {} (first used for {})", rawKey, fingerprint, existing.fingerprint());
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request", request);
+            return;
+        }
+        if (existing.isInProgress()) {
+            log.info("IDEMPOTENCY → key={} still in progress", rawKey);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress", request);
+            return;
+        }
+
+        log.info("IDEMPOTENCY → key={} replayed status={}", rawKey, existing.status());
+        response.setStatus(existing.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (existing.contentType() != null) response.setContentType(existing.contentType());
+        if (existing.etag() != null) response.setHeader(HttpHeaders.ETAG, existing.etag());
+        if (existing.body() != null) {
+            response.setContentLength(existing.body().length);
+            response.getOutputStream().write(existing.body());
+        }
+    }
+
+    // Server errors and throttling say nothing about the outcome: let the retry run for real
+    private static boolean isTransient(int status) {
+        return status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static String sha256Hex(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Same body shape as GlobalExceptionHandler, which does not see filter-level errors
+    private void writeError(HttpServletResponse response, HttpStatus status, String message,
+                            HttpServletRequest request) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+
+    // Replays the body read for the fingerprint to the rest of the chain
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Everything is already in memory: available now, and read once the listener returns
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+
+// Row of the shared idempotency_keys table used by DatabaseIdempotencyStore
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+)
+@Getter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idem_key", length = 230)
+    private String key;
+
+    @Column(nullable = false, length = 300)
+    private String fingerprint;
+
+    // 0 while the first request is still running
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(length = 100)
+    private String etag;
+
+    @Lob
+    @Column(length = 1_048_576)
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+
+    public IdempotentResponse toResponse() {
+        return new IdempotentResponse(fingerprint, status, contentType, etag, body);
+    }
+}
@@ -0,0 +1,38 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+
+    // Plain INSERT (never a merge): a duplicate key surfaces as DataIntegrityViolationException
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idem_key, fingerprint, status, created_at) " +
+            "values (:key, :fingerprint, 0, :createdAt)", nativeQuery = true)
+    void insertReservation(String key, String fingerprint, Instant createdAt);
+
+
+    // Claims a reservation still in progress after its lease: the node running it died mid-request
+    @Modifying
+    @Query("update IdempotencyRecord r set r.fingerprint = :fingerprint, r.createdAt = :now " +
+            "where r.key = :key and r.status = 0 and r.createdAt < :staleBefore")
+    int takeOverStale(String key, String fingerprint, Instant now, Instant staleBefore);
+
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.contentType = :contentType, " +
+            "r.etag = :etag, r.body = :body where r.key = :key")
+    int complete(String key, int status, String contentType, String etag, byte[] body);
+
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(Instant cutoff);
+}
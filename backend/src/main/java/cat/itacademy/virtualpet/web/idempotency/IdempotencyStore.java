@@ -0,0 +1,20 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+
+/**
+ * Storage for Idempotency-Key results. {@link #reserve} must be atomic across every node
+ * sharing the store: exactly one caller wins a given key and runs the request.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims {@code key} for a request with {@code fingerprint}.
+     * @return {@code null} if the caller now owns the key, otherwise what is already stored
+     */
+    IdempotentResponse reserve(String key, String fingerprint);
+
+    void complete(String key, IdempotentResponse response);
+
+    // Forgets a reservation whose request failed transiently, so a retry runs it again
+    void release(String key);
+}
@@ -0,0 +1,17 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+
+/**
+ * What is remembered for one Idempotency-Key: the request it was first used with and,
+ * once that request finished, the response to replay. {@code status == 0} means in progress.
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, String etag, byte[] body) {
+
+    static IdempotentResponse inProgress(String fingerprint) {
+        return new IdempotentResponse(fingerprint, 0, null, null, null);
+    }
+
+    public boolean isInProgress() {
+        return status == 0;
+    }
+}
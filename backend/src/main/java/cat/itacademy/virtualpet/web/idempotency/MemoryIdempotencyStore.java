@@ -0,0 +1,52 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Single-node {@link IdempotencyStore}: a size-bounded Caffeine map with a TTL.
+ * Under memory pressure the oldest keys go first, which only narrows the replay window.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentResponse> entries;
+
+    public MemoryIdempotencyStore(
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.max-keys:100000}") long maxKeys,
+            @Value("${idempotency.ttl:PT24H}") Duration ttl) {
+
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency.keys");
+    }
+
+    @Override
+    public IdempotentResponse reserve(String key, String fingerprint) {
+        return entries.asMap().putIfAbsent(key, IdempotentResponse.inProgress(fingerprint));
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        entries.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        entries.invalidate(key);
+    }
+}
@@ -0,0 +1,60 @@
+package cat.itacademy.virtualpet.web.negotiation;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+
+/**
+ * Binary representations served next to JSON (same DTOs, same Jackson configuration),
+ * chosen by the client's {@code Accept} header.
+ */
+public final class BinaryFormats {
+
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private BinaryFormats() { }
+
+
+    /**
+     * Whether the client's most preferred type is CBOR or Smile. Handlers that write
+     * pre-serialized JSON use this to fall back to the message converters.
+     */
+    public static boolean isPreferred(String accept) {
+        return preferred(accept) != null;
+    }
+
+
+    /**
+     * {@code etag} for the representation the client prefers: unchanged for JSON, suffixed
+     * {@code -cbor} or {@code -smile} otherwise, so a strong validator never matches bytes of
+     * another format. Works on quoted and unquoted tags.
+     */
+    public static String etag(String etag, String accept) {
+        MediaType binary = preferred(accept);
+        if (binary == null) return etag;
+        String suffix = binary.equalsTypeAndSubtype(CBOR) ? "-cbor" : "-smile";
+        return etag.endsWith("\"") ? etag.substring(0, etag.length() - 1) + suffix + "\"" : etag + suffix;
+    }
+
+    // -------- helpers --------
+
+    // CBOR or Smile when it is the client's first choice, null for JSON and anything else
+    private static MediaType preferred(String accept) {
+        if (accept == null || accept.isBlank()) return null;
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            MediaType first = accepted.get(0);
+            if (first.getQualityValue() <= 0) return null;
+            if (first.equalsTypeAndSubtype(CBOR)) return CBOR;
+            if (first.equalsTypeAndSubtype(SMILE)) return SMILE;
+            return null;
+        } catch (InvalidMediaTypeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package cat.itacademy.virtualpet.web.ratelimit;
+
+import cat.itacademy.virtualpet.web.error.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Throttles /auth/login and /auth/register per client IP and per normalized email, and
+ * /auth/availability per client IP on a budget of its own, so the register form's debounced
+ * checks never spend the tokens its submit needs.
+ * Checked in {@code AuthController} before {@code AuthService}, so a rejected attempt
+ * costs neither a database lookup nor a BCrypt hash.
+ */
+@Slf4j
+@Component
+public class AuthRateLimiter {
+
+    private final StripedTokenBuckets byIp;
+    private final StripedTokenBuckets byAccount;
+    private final StripedTokenBuckets availabilityByIp;
+    private final Counter ipRejections;
+    private final Counter accountRejections;
+    private final Counter availabilityRejections;
+
+    public AuthRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.auth-throttle.stripes:64}") int stripes,
+            @Value("${security.auth-throttle.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+            @Value("${security.auth-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${security.auth-throttle.ip.refill-per-second:1.0}") double ipRefill,
+            @Value("${security.auth-throttle.account.capacity:5}") int accountCapacity,
+            @Value("${security.auth-throttle.account.refill-per-second:0.1}") double accountRefill,
+            @Value("${security.availability-throttle.capacity:60}") int availabilityCapacity,
+            @Value("${security.availability-throttle.refill-per-second:2.0}") double availabilityRefill) {
+
+        this.byIp = new StripedTokenBuckets(stripes, maxKeysPerStripe, ipCapacity, ipRefill);
+        this.byAccount = new StripedTokenBuckets(stripes, maxKeysPerStripe, accountCapacity, accountRefill);
+        this.availabilityByIp = new StripedTokenBuckets(stripes, maxKeysPerStripe, availabilityCapacity, availabilityRefill);
+        this.ipRejections = Counter.builder("auth.throttle.rejected").tag("scope", "ip").register(meterRegistry);
+        this.accountRejections = Counter.builder("auth.throttle.rejected").tag("scope", "account").register(meterRegistry);
+        this.availabilityRejections =
+                Counter.builder("auth.throttle.rejected").tag("scope", "availability").register(meterRegistry);
+    }
+
+
+    /** {@code email} null: only the per-IP budget is checked. */
+    public void check(String clientIp, String email) {
+        long now = System.nanoTime();
+
+        long ipWait = byIp.tryAcquire(clientIp == null ? "unknown" : clientIp, now);
+        if (ipWait > 0) {
+            ipRejections.increment();
+            log.warn("THROTTLE → ip={} rejected, retry in {}ms", clientIp, TimeUnit.NANOSECONDS.toMillis(ipWait));
+            throw new TooManyRequestsException(toRetryAfterSeconds(ipWait));
+        }
+
+        String account = normalizeEmail(email);
+        if (account == null) return;
+
+        long accountWait = byAccount.tryAcquire(account, now);
+        if (accountWait > 0) {
+            accountRejections.increment();
+            log.warn("THROTTLE → account={} rejected, retry in {}ms", account, TimeUnit.NANOSECONDS.toMillis(accountWait));
+            throw new TooManyRequestsException(toRetryAfterSeconds(accountWait));
+        }
+    }
+
+
+
+    /** Per-IP budget of /auth/availability, separate from login and register. */
+    public void checkAvailability(String clientIp) {
+        long wait = availabilityByIp.tryAcquire(clientIp == null ? "unknown" : clientIp, System.nanoTime());
+        if (wait > 0) {
+            availabilityRejections.increment();
+            log.warn("THROTTLE → availability ip={} rejected, retry in {}ms", clientIp, TimeUnit.NANOSECONDS.toMillis(wait));
+            throw new TooManyRequestsException(toRetryAfterSeconds(wait));
+        }
+    }
+
+    // -------- helpers --------
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1L, (long) Math.ceil(waitNanos / 1_000_000_000d));
+    }
+
+    private static String normalizeEmail(String raw) {
+        if (raw == null) return null;
+        String email = raw.trim().toLowerCase();
+        return email.isEmpty() ? null : email;
+    }
+}
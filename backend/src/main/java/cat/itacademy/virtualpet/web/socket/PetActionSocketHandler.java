@@ -0,0 +1,254 @@
+package cat.itacademy.virtualpet.web.socket;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetActionResponse;
+import cat.itacademy.virtualpet.application.service.pet.PetService;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import cat.itacademy.virtualpet.web.error.*;
+import cat.itacademy.virtualpet.web.ratelimit.StripedTokenBuckets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * WebSocket channel for pet actions on /ws/pets. The client authenticates once with
+ * {@code AUTH <jwt>} and then sends compact frames {@code <rid> <feed|wash|play> <petId> [version]};
+ * each gets a JSON result frame tagged with the same rid. Frames of one connection are handled
+ * in arrival order, through the same {@link PetService} rules as the REST endpoints, and are
+ * throttled per connection.
+ */
+@Slf4j
+@Component
+public class PetActionSocketHandler extends TextWebSocketHandler {
+
+    private static final int MAX_FRAME_BYTES = 8 * 1024;
+    private static final CloseStatus AUTH_REQUIRED = CloseStatus.POLICY_VIOLATION.withReason("Authenticate first");
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Token expired");
+
+    private final JwtService jwtService;
+    private final UserCache userCache;
+    private final PetService petService;
+    private final ObjectMapper objectMapper;
+    private final StripedTokenBuckets rateLimits;
+    private final long authTimeoutMillis;
+    private final int sendBufferBytes;
+    private final Counter actions;
+    private final Counter throttled;
+
+    private final ConcurrentMap<String, Connection> connections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService authTimeouts = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ws-auth-timeout").daemon().factory());
+
+    public PetActionSocketHandler(
+            JwtService jwtService,
+            UserCache userCache,
+            PetService petService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${ws.pets.rate.capacity:20}") int rateCapacity,
+            @Value("${ws.pets.rate.refill-per-second:10.0}") double rateRefill,
+            @Value("${ws.pets.auth-timeout:PT10S}") Duration authTimeout,
+            @Value("${ws.pets.send-buffer-bytes:65536}") int sendBufferBytes) {
+
+        this.jwtService = jwtService;
+        this.userCache = userCache;
+        this.petService = petService;
+        this.objectMapper = objectMapper;
+        this.rateLimits = new StripedTokenBuckets(64, 1024, rateCapacity, rateRefill);
+        this.authTimeoutMillis = authTimeout.toMillis();
+        this.sendBufferBytes = sendBufferBytes;
+        this.actions = Counter.builder("ws.pets.actions").register(meterRegistry);
+        this.throttled = Counter.builder("ws.pets.throttled").register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Action frames are tiny; anything bigger is not a client of ours
+        session.setTextMessageSizeLimit(MAX_FRAME_BYTES);
+        // Only this handler's thread replies, but the decorator also bounds a slow reader
+        Connection connection = new Connection(
+                new ConcurrentWebSocketSessionDecorator(session, 5_000, sendBufferBytes));
+        connections.put(session.getId(), connection);
+        authTimeouts.schedule(() -> {
+            if (connection.email == null) close(connection, AUTH_REQUIRED);
+        }, authTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) return;
+
+        String[] frame = message.getPayload().trim().split("\\s+");
+        if (connection.email == null) {
+            authenticate(connection, frame);
+            return;
+        }
+        if (Instant.now().isAfter(connection.expiresAt)) {
+            close(connection, TOKEN_EXPIRED);
+            return;
+        }
+        handleAction(connection, session.getId(), frame);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null && connection.email != null) {
+            log.info("WS {} → disconnected ({})", connection.email, status.getCode());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        authTimeouts.shutdownNow();
+    }
+
+    // -------- frames --------
+
+    private void authenticate(Connection connection, String[] frame) throws IOException {
+        if (frame.length != 2 || !"AUTH".equals(frame[0])) {
+            close(connection, AUTH_REQUIRED);
+            return;
+        }
+        try {
+            String token = frame[1];
+            String email = jwtService.extractEmail(token);
+            User user = email == null ? null : userCache.findByEmail(email.trim().toLowerCase()).orElse(null);
+            if (user == null || !jwtService.isTokenValid(token, user)) {
+                close(connection, AUTH_REQUIRED);
+                return;
+            }
+            connection.expiresAt = jwtService.extractExpiration(token);
+            connection.email = user.getEmail();
+            log.info("WS {} → authenticated", connection.email);
+            send(connection, Map.of("type", "auth", "ok", true));
+        } catch (RuntimeException ex) {
+            log.warn("WS → authentication failed: {}", ex.getMessage());
+            close(connection, AUTH_REQUIRED);
+        }
+    }
+
+    private void handleAction(Connection connection, String sessionId, String[] frame) throws IOException {
+        if (frame.length < 3 || frame.length > 4) {
+            send(connection, error(frame.length > 0 ? frame[0] : null, 400, "Expected: <rid> <feed|wash|play> <petId> [version]"));
+            return;
+        }
+        String rid = frame[0];
+
+        long wait = rateLimits.tryAcquire(sessionId, System.nanoTime());
+        if (wait > 0) {
+            throttled.increment();
+            Map<String, Object> body = error(rid, 429, "Too many actions on this connection");
+            body.put("retryAfterMs", TimeUnit.NANOSECONDS.toMillis(wait) + 1);
+            send(connection, body);
+            return;
+        }
+
+        Long petId;
+        Long version;
+        try {
+            petId = Long.valueOf(frame[2]);
+            version = frame.length == 4 ? Long.valueOf(frame[3]) : null;
+        } catch (NumberFormatException ex) {
+            send(connection, error(rid, 400, "petId and version must be numbers"));
+            return;
+        }
+
+        try {
+            PetActionResponse pet = switch (frame[1]) {
+                case "feed", "f" -> petService.feed(petId, version, connection.email);
+                case "wash", "w" -> petService.wash(petId, version, connection.email);
+                case "play", "p" -> petService.play(petId, version, connection.email);
+                default -> null;
+            };
+            if (pet == null) {
+                send(connection, error(rid, 400, "Unknown action " + frame[1]));
+                return;
+            }
+            actions.increment();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("rid", rid);
+            body.put("ok", true);
+            body.put("status", 200);
+            body.put("pet", pet);
+            send(connection, body);
+        } catch (RuntimeException ex) {
+            int status = statusOf(ex, version != null);
+            if (status >= 500) log.error("WS {} → action {} on PET {} failed", connection.email, frame[1], petId, ex);
+            send(connection, error(rid, status, status >= 500 ? "Internal Server Error" : messageOf(ex)));
+        }
+    }
+
+    // -------- helpers --------
+
+    // Same statuses GlobalExceptionHandler gives these exceptions over HTTP
+    private static int statusOf(RuntimeException ex, boolean conditional) {
+        if (ex instanceof ResponseStatusException rse) return rse.getStatusCode().value();
+        if (ex instanceof PetDeceasedException) return 410;
+        if (ex instanceof PetNotHungryException || ex instanceof PetAlreadyCleanException
+                || ex instanceof PetTooHappyException) return 409;
+        if (ex instanceof PreconditionFailedException) return 412;
+        if (ex instanceof ObjectOptimisticLockingFailureException) return conditional ? 412 : 409;
+        return 500;
+    }
+
+    private static String messageOf(RuntimeException ex) {
+        return ex instanceof ResponseStatusException rse && rse.getReason() != null ? rse.getReason() : ex.getMessage();
+    }
+
+    private static Map<String, Object> error(String rid, int status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rid", rid);
+        body.put("ok", false);
+        body.put("status", status);
+        body.put("message", message);
+        return body;
+    }
+
+    private void send(Connection connection, Map<String, Object> body) throws IOException {
+        connection.session.sendMessage(new TextMessage(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private void close(Connection connection, CloseStatus status) {
+        try {
+            connection.session.close(status);
+        } catch (IOException ex) {
+            log.debug("WS → close failed: {}", ex.getMessage());
+        }
+    }
+
+    private static final class Connection {
+        private final WebSocketSession session;
+        private volatile String email;
+        private volatile Instant expiresAt = Instant.EPOCH;
+
+        Connection(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -10,8 +10,14 @@ import cat.itacademy.virtualpet.web.error.PetAlreadyCleanException;
 import cat.itacademy.virtualpet.web.error.PetDeceasedException;
 import cat.itacademy.virtualpet.web.error.PetNotHungryException;
 import cat.itacademy.virtualpet.web.error.PetTooHappyException;
+import cat.itacademy.virtualpet.web.error.PreconditionFailedException;
 import cat.itacademy.virtualpet.domain.pet.PetRepository;
-import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.domain.pet.PetChangeLog;
+import cat.itacademy.virtualpet.domain.pet.PetChangeLogRepository;
+import cat.itacademy.virtualpet.infrastructure.cache.PetJsonCache;
+import cat.itacademy.virtualpet.infrastructure.cache.PetListVersions;
+import cat.itacademy.virtualpet.infrastructure.cache.UserCache;
+import cat.itacademy.virtualpet.infrastructure.projection.JpqlProjector;
 import cat.itacademy.virtualpet.application.mapper.PetMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,12 +30,14 @@ import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,8 +51,12 @@ import static org.mockito.Mockito.*;
 class PetServiceImplTest {
 
     @Mock private PetRepository petRepository;
-    @Mock private UserRepository userRepository;
+    @Mock private UserCache userCache;
     @Mock private PetMapper petMapper;
+    @Mock private PetJsonCache petJsonCache;
+    @Mock private PetListVersions petListVersions;
+    @Mock private PetChangeLogRepository changeLogRepository;
+    @Mock private JpqlProjector projector;
 
     @InjectMocks private PetServiceImpl petService;
 
@@ -86,10 +98,11 @@ class PetServiceImplTest {
         pet.setDeathAt(null);
 
         // Stubs comunes
-        when(userRepository.findByEmail(OWNER_EMAIL)).thenReturn(Optional.of(owner));
-        when(userRepository.findByEmail(ADMIN_EMAIL)).thenReturn(Optional.of(admin));
+        when(userCache.findByEmail(OWNER_EMAIL)).thenReturn(Optional.of(owner));
+        when(userCache.findByEmail(ADMIN_EMAIL)).thenReturn(Optional.of(admin));
         when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
         when(petRepository.save(any(Pet.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(petRepository.saveAndFlush(any(Pet.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Mapper lenient (evita stubbing innecesario si algún test no lo usa)
         lenient().when(petMapper.toActionResponse(any(Pet.class))).thenAnswer(inv -> {
@@ -123,7 +136,7 @@ class PetServiceImplTest {
     @Test
     @DisplayName("feed: hunger -50 (min 0), hygiene -5, +1 acción")
     void feed_happyPath() {
-        PetActionResponse res = petService.feed(1L, OWNER_EMAIL);
+        PetActionResponse res = petService.feed(1L, null, OWNER_EMAIL);
 
         assertThat(res.getHunger()).isZero();
         assertThat(res.getHygiene()).isEqualTo(55);
@@ -135,13 +148,46 @@ class PetServiceImplTest {
         assertThat(saved.getActionCount()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("feed: invalida el JSON cacheado de la mascota")
+    void feed_evictsCachedJson() {
+        petService.feed(1L, null, OWNER_EMAIL);
+        verify(petJsonCache).evict(1L);
+    }
+
+    @Test
+    @DisplayName("getPetJsonById: pide al caché el JSON de la versión actual")
+    void getPetJsonById_usesCurrentVersion() {
+        pet.setVersion(3L);
+        petService.getPetJsonById(1L, OWNER_EMAIL);
+        verify(petJsonCache).get(eq(1L), eq(3L), any());
+    }
+
+    @Test
+    @DisplayName("feed con If-Match obsoleto: 412 sin aplicar reglas ni escribir")
+    void feed_staleVersion_isRejected() {
+        pet.setVersion(5L);
+        assertThatThrownBy(() -> petService.feed(1L, 4L, OWNER_EMAIL))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(pet.getHunger()).isEqualTo(40);
+        verify(petRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("feed con If-Match vigente: se aplica la acción")
+    void feed_matchingVersion_isApplied() {
+        pet.setVersion(5L);
+        PetActionResponse res = petService.feed(1L, 5L, OWNER_EMAIL);
+        assertThat(res.getHunger()).isZero();
+    }
+
     @Test
     @DisplayName("feed: lanza PetNotHungryException si hunger = 0")
     void feed_throwsWhenNotHungry() {
         pet.setHunger(0);
-        assertThatThrownBy(() -> petService.feed(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.feed(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetNotHungryException.class);
-        verify(petRepository, never()).save(any());
+        verify(petRepository, never()).saveAndFlush(any());
     }
 
 
@@ -151,7 +197,7 @@ class PetServiceImplTest {
     void wash_happyPath() {
         pet.setHygiene(75);
 
-        PetActionResponse res = petService.wash(1L, OWNER_EMAIL);
+        PetActionResponse res = petService.wash(1L, null, OWNER_EMAIL);
 
         assertThat(res.getHygiene()).isEqualTo(100);
         assertThat(res.getHunger()).isEqualTo(50); // 40 + 10 (tu impl)
@@ -165,9 +211,9 @@ class PetServiceImplTest {
     @DisplayName("wash: lanza PetAlreadyCleanException si hygiene = 100")
     void wash_throwsWhenAlreadyClean() {
         pet.setHygiene(100);
-        assertThatThrownBy(() -> petService.wash(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.wash(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetAlreadyCleanException.class);
-        verify(petRepository, never()).save(any());
+        verify(petRepository, never()).saveAndFlush(any());
     }
 
 
@@ -175,7 +221,7 @@ class PetServiceImplTest {
     @Test
     @DisplayName("play: fun +40 (max 100), hunger +15 (según impl), +1 acción")
     void play_happyPath() {
-        PetActionResponse res = petService.play(1L, OWNER_EMAIL);
+        PetActionResponse res = petService.play(1L, null, OWNER_EMAIL);
 
         assertThat(res.getFun()).isEqualTo(90);
         assertThat(res.getHunger()).isEqualTo(55); // 40 + 15 (tu impl)
@@ -189,9 +235,9 @@ class PetServiceImplTest {
     @DisplayName("play: lanza PetTooHappyException si fun = 100")
     void play_throwsWhenTooHappy() {
         pet.setFun(100);
-        assertThatThrownBy(() -> petService.play(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.play(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetTooHappyException.class);
-        verify(petRepository, never()).save(any());
+        verify(petRepository, never()).saveAndFlush(any());
     }
 
 
@@ -201,7 +247,7 @@ class PetServiceImplTest {
     void death_byHungerAtPlay() {
         pet.setHunger(90);
 
-        PetActionResponse res = petService.play(1L, OWNER_EMAIL);
+        PetActionResponse res = petService.play(1L, null, OWNER_EMAIL);
 
         assertThat(res.getLifeStage()).isEqualTo(LifeStage.PASSED);
         Pet saved = captureLastSavedPet();
@@ -216,7 +262,7 @@ class PetServiceImplTest {
         pet.setHygiene(0);
         pet.setFun(0);
 
-        PetActionResponse res = petService.feed(1L, OWNER_EMAIL);
+        PetActionResponse res = petService.feed(1L, null, OWNER_EMAIL);
 
         assertThat(res.getLifeStage()).isEqualTo(LifeStage.PASSED);
         Pet saved = captureLastSavedPet();
@@ -231,13 +277,13 @@ class PetServiceImplTest {
         pet.setDead(true);
         pet.setDeathAt(Instant.now());
 
-        assertThatThrownBy(() -> petService.feed(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.feed(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetDeceasedException.class);
-        assertThatThrownBy(() -> petService.wash(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.wash(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetDeceasedException.class);
-        assertThatThrownBy(() -> petService.play(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.play(1L, null, OWNER_EMAIL))
                 .isInstanceOf(PetDeceasedException.class);
-        verify(petRepository, never()).save(any());
+        verify(petRepository, never()).saveAndFlush(any());
     }
 
 
@@ -246,7 +292,7 @@ class PetServiceImplTest {
     @DisplayName("lifeStage: BABY→ADULT al pasar de 4 a 5 acciones")
     void lifeStage_babyToAdult_atFive() {
         pet.setActionCount(4);
-        petService.play(1L, OWNER_EMAIL);
+        petService.play(1L, null, OWNER_EMAIL);
         Pet saved = captureLastSavedPet();
         assertThat(saved.getActionCount()).isEqualTo(5);
         assertThat(saved.getLifeStage()).isEqualTo(LifeStage.ADULT);
@@ -260,7 +306,7 @@ class PetServiceImplTest {
         // re-stub para que findById devuelva el mismo objeto actualizado si hace falta
         when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
 
-        petService.play(1L, OWNER_EMAIL);
+        petService.play(1L, null, OWNER_EMAIL);
         Pet saved = captureLastSavedPet();
         assertThat(saved.getActionCount()).isEqualTo(10);
         assertThat(saved.getLifeStage()).isEqualTo(LifeStage.SENIOR);
@@ -272,7 +318,7 @@ class PetServiceImplTest {
     @DisplayName("feed: 404 si la mascota no existe")
     void feed_notFoundPet() {
         when(petRepository.findById(1L)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> petService.feed(1L, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.feed(1L, null, OWNER_EMAIL))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("404");
     }
@@ -280,8 +326,8 @@ class PetServiceImplTest {
     @Test
     @DisplayName("feed: 401 si el usuario no existe")
     void feed_unauthorizedWhenUserNotFound() {
-        when(userRepository.findByEmail(OWNER_EMAIL)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> petService.feed(1L, OWNER_EMAIL))
+        when(userCache.findByEmail(OWNER_EMAIL)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> petService.feed(1L, null, OWNER_EMAIL))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("401");
     }
@@ -294,21 +340,31 @@ class PetServiceImplTest {
         stranger.setEmail("other@example.com");
         stranger.setUsername("other");
         stranger.setRoles(new HashSet<>(Set.of("ROLE_USER")));
-        when(userRepository.findByEmail("other@example.com")).thenReturn(Optional.of(stranger));
+        when(userCache.findByEmail("other@example.com")).thenReturn(Optional.of(stranger));
 
-        assertThatThrownBy(() -> petService.feed(1L, "other@example.com"))
+        assertThatThrownBy(() -> petService.feed(1L, null, "other@example.com"))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("403");
-        verify(petRepository, never()).save(any());
+        verify(petRepository, never()).saveAndFlush(any());
     }
 
 
 
+    @Test
+    @DisplayName("getPetsByIds: 400 si se piden más ids que el máximo, sin consultar la BD")
+    void getPetsByIds_tooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+        assertThatThrownBy(() -> petService.getPetsByIds(ids, OWNER_EMAIL))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+        verify(petRepository, never()).findAllById(any());
+    }
+
     @Test
     @DisplayName("adminListPets: 403 si quien llama no es admin")
     void adminListPets_forbiddenWhenNotAdmin() {
         Pageable pageable = PageRequest.of(0, 10);
-        assertThatThrownBy(() -> petService.adminListPets(null, pageable, OWNER_EMAIL))
+        assertThatThrownBy(() -> petService.adminListPets(null, null, null, pageable, OWNER_EMAIL))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("403");
         verify(petRepository, never()).findAll(any(Pageable.class));
@@ -324,7 +380,7 @@ class PetServiceImplTest {
 
         when(petRepository.findAll(pageable)).thenReturn(page);
 
-        Page<PetResponse> result = petService.adminListPets(null, pageable, ADMIN_EMAIL);
+        Page<PetResponse> result = petService.adminListPets(null, null, null, pageable, ADMIN_EMAIL);
 
         verify(petRepository).findAll(pageable);
         verify(petRepository, never()).findAllByOwnerId(anyLong(), any(Pageable.class));
@@ -345,7 +401,7 @@ class PetServiceImplTest {
 
         when(petRepository.findAllByOwnerId(100L, pageable)).thenReturn(page);
 
-        Page<PetResponse> result = petService.adminListPets(100L, pageable, ADMIN_EMAIL);
+        Page<PetResponse> result = petService.adminListPets(100L, null, null, pageable, ADMIN_EMAIL);
 
         verify(petRepository).findAllByOwnerId(100L, pageable);
         verify(petRepository, never()).findAll(any(Pageable.class));
@@ -358,7 +414,7 @@ class PetServiceImplTest {
         Pageable pageable = PageRequest.of(0, 10);
         when(petRepository.findAll(pageable)).thenReturn(Page.empty(pageable));
 
-        Page<PetResponse> res = petService.adminListPets(null, pageable, ADMIN_EMAIL);
+        Page<PetResponse> res = petService.adminListPets(null, null, null, pageable, ADMIN_EMAIL);
 
         assertThat(res.getTotalElements()).isZero();
         assertThat(res.getContent()).isEmpty();
@@ -370,7 +426,7 @@ class PetServiceImplTest {
 
     private Pet captureLastSavedPet() {
         ArgumentCaptor<Pet> captor = ArgumentCaptor.forClass(Pet.class);
-        verify(petRepository, atLeastOnce()).save(captor.capture());
+        verify(petRepository, atLeastOnce()).saveAndFlush(captor.capture());
         List<Pet> all = captor.getAllValues();
         return all.get(all.size() - 1);
     }
@@ -390,4 +446,34 @@ class PetServiceImplTest {
         p.setDeathAt(null);
         return p;
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getChangesSince: página completa aún dentro de la ventana → cursor sin avanzar y hasMore=false")
+    void changes_fullUnsettledPage_hasNoMore() {
+        PetChangeLog fresh = mock(PetChangeLog.class);
+        when(fresh.getSeq()).thenReturn(11L);
+        when(fresh.getPetId()).thenReturn(1L);
+        when(fresh.getType()).thenReturn(PetChangeLog.Type.UPDATED);
+        when(fresh.getChangedAt()).thenReturn(Instant.now());
+        when(changeLogRepository.findByOwnerIdAndSeqGreaterThanOrderBySeqAsc(eq(100L), eq(10L), any(Pageable.class)))
+                .thenReturn(Collections.nCopies(501, fresh));
+        when(petRepository.findAllById(any())).thenReturn(List.of(pet));
+
+        var res = petService.getChangesSince(10L, OWNER_EMAIL);
+
+        assertThat(res.getCursor()).isEqualTo(10L);
+        assertThat(res.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getChangesSince: cursor anterior a la retención del log → 410")
+    void changes_cursorBehindRetention_gone() {
+        when(changeLogRepository.findByOwnerIdAndSeqGreaterThanOrderBySeqAsc(eq(100L), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(changeLogRepository.oldestSeq()).thenReturn(20L);
+
+        assertThatThrownBy(() -> petService.getChangesSince(3L, OWNER_EMAIL))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode()).isEqualTo(HttpStatus.GONE));
+    }
+}
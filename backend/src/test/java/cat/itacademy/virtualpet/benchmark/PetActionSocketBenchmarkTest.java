@@ -0,0 +1,165 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark: acciones por segundo por REST (una petición HTTP por acción) frente al canal
+ * WebSocket /ws/pets, esperando cada respuesta o enviando en pipeline.
+ * Cada acción escribe en la base de datos del perfil test, así que las acciones/s absolutas
+ * dependen de ella; lo significativo es la proporción REST / socket en una misma ejecución.
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetActionSocketBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"ws.pets.rate.capacity=1000000", "ws.pets.rate.refill-per-second=1000000"})
+class PetActionSocketBenchmarkTest {
+
+    private static final int WARMUP = 500;
+    private static final int ACTIONS = 2_000;
+
+    @LocalServerPort int port;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+
+    // HTTP/1.1 keep-alive: no h2c upgrade attempt on every request
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private User owner;
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        owner = users.save(user("bench"));
+        token = jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("REST vs WebSocket: acciones/s")
+    void actionsPerSecond() throws Exception {
+        rest(newPets(WARMUP));
+        socket(newPets(WARMUP), false);
+
+        double rest = rest(newPets(ACTIONS));
+        double socket = socket(newPets(ACTIONS), false);
+        double pipelined = socket(newPets(ACTIONS), true);
+
+        assertThat(rest).isPositive();
+        assertThat(socket).isPositive();
+        assertThat(pipelined).isPositive();
+    }
+
+    // -------- scenarios --------
+
+    private double rest(List<Long> ids) throws Exception {
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/pets/" + id + "/actions/play"))
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return report("REST sequential", ids.size(), System.nanoTime() - start);
+    }
+
+    private double socket(List<Long> ids, boolean pipelined) throws Exception {
+        Frames frames = new Frames();
+        WebSocket ws = http.newWebSocketBuilder()
+                .header("Origin", "http://localhost:3000")
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws/pets"), frames)
+                .join();
+        ws.sendText("AUTH " + token, true).join();
+        assertThat(frames.next()).contains("\"ok\":true");
+
+        long start = System.nanoTime();
+        if (pipelined) {
+            for (int i = 0; i < ids.size(); i++) ws.sendText(i + " p " + ids.get(i), true).join();
+            for (int i = 0; i < ids.size(); i++) assertThat(frames.next()).contains("\"status\":200");
+        } else {
+            for (int i = 0; i < ids.size(); i++) {
+                ws.sendText(i + " p " + ids.get(i), true).join();
+                assertThat(frames.next()).contains("\"status\":200");
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        ws.abort();
+        return report(pipelined ? "WS pipelined" : "WS sequential", ids.size(), elapsed);
+    }
+
+    // -------- helpers --------
+
+    private List<Long> newPets(int count) {
+        List<Pet> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Pet pet = new Pet();
+            pet.setName("Bench" + i);
+            pet.setBreed(Breed.LABRADOR);
+            pet.setOwner(owner);
+            batch.add(pet);
+        }
+        return pets.saveAll(batch).stream().map(Pet::getId).toList();
+    }
+
+    private static double report(String label, int actions, long elapsedNanos) {
+        double perSecond = actions / (elapsedNanos / 1e9);
+        System.out.printf("[benchmark] pet actions %-16s %6d actions in %5d ms -> %8.0f actions/s, %6.1f us/action%n",
+                label, actions, elapsedNanos / 1_000_000, perSecond, elapsedNanos / 1e3 / actions);
+        return perSecond;
+    }
+
+    private static final class Frames implements WebSocket.Listener {
+        private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                queue.add(partial.toString());
+                partial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        String next() throws InterruptedException {
+            String frame = queue.poll(30, TimeUnit.SECONDS);
+            assertThat(frame).as("reply frame").isNotNull();
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark: subidas concurrentes de avatares de ~5 MB hasta que todas las miniaturas existen.
+ * Mide throughput y el pico de heap frente a los bytes subidos.
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetAvatarUploadBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"pets.avatar.queue-capacity=64", "pets.avatar.max-bytes=8388608"})
+class PetAvatarUploadBenchmarkTest {
+
+    private static final int UPLOADS = 32;
+    private static final int CONCURRENCY = 8;
+    private static final int EDGE = 1_300;   // random RGB noise: PNG of ~5 MB
+
+    @LocalServerPort int port;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired MeterRegistry meterRegistry;
+
+    @TempDir Path tmp;
+
+    @Test
+    @DisplayName("32 subidas de 5 MB con 8 clientes: throughput y pico de heap")
+    void concurrentUploads() throws Exception {
+        pets.deleteAll();
+        users.deleteAll();
+        User owner = users.save(user("bench"));
+        String bearer = "Bearer " + jwtService.generateToken(owner);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) ids.add(pets.save(pet("Bench" + i, owner)).getId());
+
+        Path image = noisePng();
+        long imageBytes = Files.size(image);
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        System.gc();
+        long baseline = heapUsed();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (Long id : ids) {
+                statuses.add(clients.submit(() -> http.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/pets/" + id + "/avatar"))
+                        .header("Authorization", bearer)
+                        .header("Content-Type", "image/png")
+                        .PUT(HttpRequest.BodyPublishers.ofFile(image))
+                        .build(), HttpResponse.BodyHandlers.discarding()).statusCode()));
+            }
+        }
+        long accepted = System.nanoTime() - start;
+        for (Future<Integer> status : statuses) assertThat(status.get()).isEqualTo(202);
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (pets.findAllById(ids).stream().anyMatch(p -> p.getAvatarVersion() == 0)) {
+            assertThat(System.nanoTime()).as("thumbnails not done in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        long done = System.nanoTime() - start;
+        long peak = heapPeak();
+
+        Timer processing = meterRegistry.get("pets.avatar.processing").timer();
+        Timer queueWait = meterRegistry.get("pets.avatar.queue.wait").timer();
+        double uploadedMb = UPLOADS * imageBytes / 1048576.0;
+        System.out.printf("[benchmark] avatars %d x %.1f MB, %d clients: all accepted in %d ms (%.1f MB/s), " +
+                        "thumbnails done in %d ms -> %.1f uploads/s%n",
+                UPLOADS, imageBytes / 1048576.0, CONCURRENCY, accepted / 1_000_000, uploadedMb / (accepted / 1e9),
+                done / 1_000_000, UPLOADS / (done / 1e9));
+        System.out.printf("[benchmark] avatars processing mean %.0f ms max %.0f ms, queue wait mean %.0f ms max %.0f ms%n",
+                processing.mean(TimeUnit.MILLISECONDS), processing.max(TimeUnit.MILLISECONDS),
+                queueWait.mean(TimeUnit.MILLISECONDS), queueWait.max(TimeUnit.MILLISECONDS));
+        System.out.printf("[benchmark] avatars heap peak %.1f MB over %.1f MB baseline while %.1f MB were uploaded%n",
+                (peak - baseline) / 1048576.0, baseline / 1048576.0, uploadedMb);
+
+        assertThat(processing.count()).isGreaterThanOrEqualTo(UPLOADS);
+        // Streamed to disk: the heap never holds the uploaded bodies
+        assertThat(peak - baseline).isLessThan(UPLOADS * imageBytes);
+    }
+
+    // -------- helpers --------
+
+    private Path noisePng() throws Exception {
+        BufferedImage noise = new BufferedImage(EDGE, EDGE, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(7);
+        for (int y = 0; y < EDGE; y++) {
+            for (int x = 0; x < EDGE; x++) noise.setRGB(x, y, random.nextInt(0x1000000));
+        }
+        Path file = tmp.resolve("noise.png");
+        ImageIO.write(noise, "png", file.toFile());
+        return file;
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long heapPeak() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+}
@@ -0,0 +1,126 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark: GET /pets/{id} repetido con y sin caché de segundo nivel de Hibernate.
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetByIdReadBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PetByIdReadBenchmarkTest {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5_000;
+
+    abstract class Scenario {
+
+        @Autowired MockMvc mvc;
+        @Autowired JwtService jwtService;
+        @Autowired UserRepository users;
+        @Autowired PetRepository pets;
+        @Autowired EntityManagerFactory emf;
+
+        String bearer;
+        Long petId;
+
+        @BeforeEach
+        void setup() {
+            pets.deleteAll();
+            users.deleteAll();
+
+            User owner = user("bench");
+            owner = users.save(owner);
+
+            Pet pet = new Pet();
+            pet.setName("Bench");
+            pet.setBreed(Breed.LABRADOR);
+            pet.setOwner(owner);
+            petId = pets.save(pet).getId();
+
+            bearer = "Bearer " + jwtService.generateToken(owner);
+        }
+
+        Statistics run(String label) throws Exception {
+            for (int i = 0; i < WARMUP; i++) read();
+
+            Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+            stats.clear();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) read();
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("[benchmark] GET /pets/{id} %-14s %6d req in %5d ms -> %8.0f req/s, %6.1f us/req, " +
+                            "entityLoads=%d l2Hits=%d l2Misses=%d statements=%d%n",
+                    label, ITERATIONS, elapsed / 1_000_000,
+                    ITERATIONS / (elapsed / 1e9), elapsed / 1e3 / ITERATIONS,
+                    stats.getEntityLoadCount(), stats.getSecondLevelCacheHitCount(),
+                    stats.getSecondLevelCacheMissCount(), stats.getPrepareStatementCount());
+            return stats;
+        }
+
+        private void read() throws Exception {
+            mvc.perform(get("/pets/{id}", petId).header("Authorization", bearer))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Nested
+    @DisplayName("Con caché L2")
+    class WithSecondLevelCache extends Scenario {
+
+        @Test
+        @DisplayName("Una consulta de versión (ETag) por petición; la mascota sale de L2")
+        void repeatedReads_oneVersionQueryEach_petFromL2() throws Exception {
+            Statistics stats = run("with L2");
+            assertThat(stats.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(ITERATIONS);
+            assertThat(stats.getSecondLevelCacheMissCount()).isZero();
+            // PetServiceImpl.getPetETag: findVersionById before every read. The statistics are
+            // per session factory, so background jobs may add a few statements of their own
+            assertThat(stats.getPrepareStatementCount()).isBetween((long) ITERATIONS, ITERATIONS + 50L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Sin caché L2")
+    @TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=false")
+    class WithoutSecondLevelCache extends Scenario {
+
+        @Test
+        @DisplayName("Consulta de versión más carga de la mascota en cada petición")
+        void repeatedReads_hitTheDatabase() throws Exception {
+            Statistics stats = run("without L2");
+            assertThat(stats.getSecondLevelCacheHitCount()).isZero();
+            assertThat(stats.getPrepareStatementCount()).isGreaterThanOrEqualTo(2L * ITERATIONS);
+        }
+    }
+}
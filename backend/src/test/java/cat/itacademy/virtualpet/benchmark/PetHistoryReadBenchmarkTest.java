@@ -0,0 +1,141 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.history.PetStatRollupJob;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark: GET /pets/{id}/history sobre un año de muestras cada 5 minutos, ya compactadas
+ * en rollups por hora y por día. Cada resolución se lee desde su propio nivel.
+ * El número de filas que quedan tras el rollup es fijo; los ms por petición se miden contra el
+ * datasource del perfil test y no son comparables entre motores distintos.
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetHistoryReadBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "pets.history.max-buckets-per-run=100000")
+class PetHistoryReadBenchmarkTest {
+
+    private static final int DAYS = 365;
+    private static final Duration STEP = Duration.ofMinutes(5);
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PetStatRollupJob rollupJob;
+
+    private String bearer;
+    private Long petId;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        jdbc.update("delete from pet_stat_samples");
+        jdbc.update("delete from pet_stat_rollups");
+
+        User owner = users.save(user("bench"));
+        Pet pet = new Pet();
+        pet.setName("Bench");
+        pet.setBreed(Breed.LABRADOR);
+        pet.setOwner(owner);
+        petId = pets.save(pet).getId();
+        bearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    void history_isAnsweredFromRollups() throws Exception {
+        Instant now = Instant.now();
+        Instant start = now.truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(DAYS));
+
+        long seedStart = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>();
+        int seeded = 0;
+        for (Instant at = start; at.isBefore(now); at = at.plus(STEP)) {
+            int i = seeded++;
+            batch.add(new Object[]{petId, Timestamp.from(at), i % 101, (i * 7) % 101, (i * 13) % 101});
+            if (batch.size() == 5_000) flush(batch);
+        }
+        flush(batch);
+
+        long rollupStart = System.nanoTime();
+        rollupJob.runOnce(now);
+        long rollupNanos = System.nanoTime() - rollupStart;
+
+        long raw = count("select count(*) from pet_stat_samples");
+        long hours = count("select count(*) from pet_stat_rollups where resolution = 'HOUR'");
+        long days = count("select count(*) from pet_stat_rollups where resolution = 'DAY'");
+        System.out.printf("[benchmark] history seed %d samples in %d ms, rollup in %d ms -> kept raw=%d hour=%d day=%d%n",
+                seeded, (rollupStart - seedStart) / 1_000_000, rollupNanos / 1_000_000, raw, hours, days);
+        assertThat(raw + hours + days).isLessThan(seeded / 10);
+
+        measure("raw  2d", "raw", now.minus(Duration.ofDays(2)), now);
+        measure("hour 60d", "hour", now.minus(Duration.ofDays(60)), now);
+        measure("day  365d", "day", start, now);
+    }
+
+    // -------- helpers --------
+
+    private void measure(String label, String resolution, Instant from, Instant to) throws Exception {
+        for (int i = 0; i < WARMUP; i++) read(resolution, from, to);
+
+        long start = System.nanoTime();
+        int bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) bytes = read(resolution, from, to);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("[benchmark] GET /pets/{id}/history %-9s %4d req in %5d ms -> %6.2f ms/req, %7d bytes%n",
+                label, ITERATIONS, elapsed / 1_000_000, elapsed / 1e6 / ITERATIONS, bytes);
+    }
+
+    private int read(String resolution, Instant from, Instant to) throws Exception {
+        return mvc.perform(get("/pets/{id}/history", petId)
+                        .param("from", from.toString()).param("to", to.toString())
+                        .param("resolution", resolution)
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private void flush(List<Object[]> batch) {
+        jdbc.batchUpdate("insert into pet_stat_samples (pet_id, sampled_at, hunger, hygiene, fun) values (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
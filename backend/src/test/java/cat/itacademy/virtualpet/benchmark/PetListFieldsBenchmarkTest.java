@@ -0,0 +1,103 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark: GET /pets completo frente a GET /pets?fields=name,lifeStage sobre una lista grande
+ * (bytes de respuesta y latencia media).
+ * Los bytes no dependen de la base de datos; la latencia sí, así que solo es comparable entre
+ * ejecuciones sobre el mismo datasource del perfil test (MySQL).
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetListFieldsBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PetListFieldsBenchmarkTest {
+
+    private static final int PETS = 5_000;
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 100;
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+
+    private String bearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        User owner = users.save(user("bench"));
+
+        List<Pet> batch = new ArrayList<>(PETS);
+        for (int i = 0; i < PETS; i++) {
+            Pet pet = new Pet();
+            pet.setName("Bench" + i);
+            pet.setBreed(Breed.LABRADOR);
+            pet.setOwner(owner);
+            batch.add(pet);
+        }
+        pets.saveAll(batch);
+        bearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("fields= reduce bytes y latencia en listas grandes")
+    void sparseList_isSmallerAndFaster() throws Exception {
+        Result full = run("full", get("/pets"));
+        Result sparse = run("name,lifeStage", get("/pets").param("fields", "name,lifeStage"));
+
+        System.out.printf("[benchmark] GET /pets payload %.1f%% of full, latency %.1f%% of full%n",
+                100.0 * sparse.bytes / full.bytes, 100.0 * sparse.micros / full.micros);
+        assertThat(sparse.bytes).isLessThan(full.bytes / 2);
+    }
+
+    // -------- helpers --------
+
+    private Result run(String label, MockHttpServletRequestBuilder request) throws Exception {
+        request.header("Authorization", bearer);
+        int bytes = 0;
+        for (int i = 0; i < WARMUP; i++) bytes = perform(request);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) perform(request);
+        double micros = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+
+        System.out.printf("[benchmark] GET /pets %-16s %5d pets %9d bytes %9.1f us/req%n", label, PETS, bytes, micros);
+        return new Result(bytes, micros);
+    }
+
+    private int perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private record Result(int bytes, double micros) { }
+}
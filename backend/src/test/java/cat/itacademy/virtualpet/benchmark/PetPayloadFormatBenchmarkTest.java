@@ -0,0 +1,111 @@
+package cat.itacademy.virtualpet.benchmark;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark: bytes y CPU de serializar / deserializar una página de 10k PetResponse en JSON,
+ * CBOR y Smile, con los mismos ObjectMapper que usan los conversores de la aplicación.
+ * Ejecutar con: mvn -Pbenchmark test -Dtest=PetPayloadFormatBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+class PetPayloadFormatBenchmarkTest {
+
+    private static final int PAGE = 10_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+    private static final TypeReference<List<PetResponse>> PAGE_TYPE = new TypeReference<>() { };
+
+    private static List<PetResponse> page;
+
+    @Autowired MappingJackson2HttpMessageConverter json;
+    @Autowired MappingJackson2CborHttpMessageConverter cbor;
+    @Autowired MappingJackson2SmileHttpMessageConverter smile;
+
+    @BeforeAll
+    static void buildPage() {
+        page = new ArrayList<>(PAGE);
+        Instant now = Instant.now();
+        for (int i = 0; i < PAGE; i++) {
+            PetResponse pet = new PetResponse();
+            pet.setId((long) i + 1);
+            pet.setName("Bench" + i);
+            pet.setBreed(Breed.values()[i % Breed.values().length]);
+            pet.setLifeStage(LifeStage.values()[i % LifeStage.values().length]);
+            pet.setHunger(i % 101);
+            pet.setHygiene((i * 7) % 101);
+            pet.setFun((i * 13) % 101);
+            pet.setActionCount(i % 20);
+            pet.setOwnerId((long) (i % 50) + 1);
+            pet.setCreatedAt(now.minusSeconds(i));
+            pet.setVersion(i % 9);
+            page.add(pet);
+        }
+    }
+
+    @Test
+    @DisplayName("CBOR y Smile frente a JSON: bytes y CPU por página de 10k mascotas")
+    void binaryFormats_vsJson() throws Exception {
+        Result baseline = run("JSON", json.getObjectMapper());
+        Result cborResult = run("CBOR", cbor.getObjectMapper());
+        Result smileResult = run("Smile", smile.getObjectMapper());
+
+        for (Result r : List.of(cborResult, smileResult)) {
+            System.out.printf("[benchmark] %-5s vs JSON: %5.1f%% bytes, %5.1f%% write CPU, %5.1f%% read CPU%n",
+                    r.label, 100.0 * r.bytes / baseline.bytes,
+                    100.0 * r.writeMicros / baseline.writeMicros, 100.0 * r.readMicros / baseline.readMicros);
+            assertThat(r.bytes).isLessThan(baseline.bytes);
+        }
+    }
+
+    // -------- helpers --------
+
+    private static Result run(String label, ObjectMapper mapper) throws Exception {
+        ThreadMXBean cpu = ManagementFactory.getThreadMXBean();
+        byte[] bytes = null;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = mapper.writeValueAsBytes(page);
+            mapper.readValue(bytes, PAGE_TYPE);
+        }
+
+        long start = cpu.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) bytes = mapper.writeValueAsBytes(page);
+        double writeMicros = (cpu.getCurrentThreadCpuTime() - start) / 1e3 / ITERATIONS;
+
+        List<PetResponse> decoded = null;
+        start = cpu.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) decoded = mapper.readValue(bytes, PAGE_TYPE);
+        double readMicros = (cpu.getCurrentThreadCpuTime() - start) / 1e3 / ITERATIONS;
+
+        assertThat(decoded).hasSize(PAGE);
+        System.out.printf("[benchmark] %-5s %5d pets %9d bytes  write %8.0f us CPU  read %8.0f us CPU%n",
+                label, PAGE, bytes.length, writeMicros, readMicros);
+        return new Result(label, bytes.length, writeMicros, readMicros);
+    }
+
+    private record Result(String label, int bytes, double writeMicros, double readMicros) { }
+}
@@ -0,0 +1,45 @@
+package cat.itacademy.virtualpet.infrastructure.bloom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    @Test
+    @DisplayName("Sin falsos negativos para los elementos añadidos")
+    void noFalseNegatives() {
+        var filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) filter.add("user" + i + "@example.com");
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Tasa de falsos positivos cercana a la configurada")
+    void falsePositiveRate_isBounded() {
+        var filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.add("present-" + i);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent-" + i)) falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(300); // 3% de margen sobre el 1% teórico
+    }
+
+    @Test
+    @DisplayName("remove elimina el elemento sin afectar a los demás")
+    void remove_clearsOnlyThatEntry() {
+        var filter = new CountingBloomFilter(100, 0.01);
+        filter.add("ana");
+        filter.add("bob");
+
+        filter.remove("ana");
+
+        assertThat(filter.mightContain("ana")).isFalse();
+        assertThat(filter.mightContain("bob")).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import cat.itacademy.virtualpet.application.dto.pet.PetResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetJsonCacheTest {
+
+    private PetJsonCache cache;
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new PetJsonCache(new ObjectMapper(), new SimpleMeterRegistry(), 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Misma versión → se reutilizan los bytes sin volver a serializar")
+    void sameVersion_isServedFromCache() {
+        byte[] first = cache.get(1L, 0L, response("Kira"));
+        byte[] second = cache.get(1L, 0L, response("Kira"));
+
+        assertThat(serializations.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(text(second)).contains("\"name\":\"Kira\"");
+    }
+
+    @Test
+    @DisplayName("Nueva versión → se vuelve a serializar y se sustituye la entrada")
+    void newVersion_reserializes() {
+        cache.get(1L, 0L, response("Kira"));
+        byte[] updated = cache.get(1L, 1L, response("Luna"));
+
+        assertThat(serializations.get()).isEqualTo(2);
+        assertThat(text(updated)).contains("\"name\":\"Luna\"");
+        assertThat(text(cache.get(1L, 1L, response("ignored")))).contains("\"name\":\"Luna\"");
+    }
+
+    @Test
+    @DisplayName("evict obliga a serializar de nuevo")
+    void evict_forcesReserialization() {
+        cache.get(1L, 0L, response("Kira"));
+        cache.evict(1L);
+        cache.get(1L, 0L, response("Kira"));
+
+        assertThat(serializations.get()).isEqualTo(2);
+    }
+
+    // -------- helpers --------
+
+    private Supplier<PetResponse> response(String name) {
+        return () -> {
+            serializations.incrementAndGet();
+            PetResponse r = new PetResponse();
+            r.setId(1L);
+            r.setName(name);
+            return r;
+        };
+    }
+
+    private static String text(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package cat.itacademy.virtualpet.infrastructure.cache;
+
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(userRepository, registry, 100, Duration.ofMinutes(5));
+        user = User.builder().id(7L).username("ana").email("ana@example.com").roles(Set.of("ROLE_USER")).build();
+        when(userRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Segunda lectura por email (y por id) se sirve desde memoria")
+    void secondLookup_isServedFromMemory() {
+        assertThat(cache.findByEmail("ana@example.com")).contains(user);
+        assertThat(cache.findByEmail("ana@example.com")).contains(user);
+        assertThat(cache.findById(7L)).contains(user);
+
+        verify(userRepository, times(1)).findByEmail("ana@example.com");
+        verify(userRepository, never()).findById(any());
+        assertThat(registry.get("cache.gets").tag("cache", "users.byEmail").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("evict obliga a recargar desde BD")
+    void evict_forcesReload() {
+        cache.findByEmail("ana@example.com");
+        cache.evict(user);
+        cache.findByEmail("ana@example.com");
+
+        verify(userRepository, times(2)).findByEmail("ana@example.com");
+    }
+
+    @Test
+    @DisplayName("Usuarios inexistentes no se cachean")
+    void missingUsers_areNotCached() {
+        when(userRepository.findByEmail("nope@example.com")).thenReturn(Optional.empty());
+
+        assertThat(cache.findByEmail("nope@example.com")).isEmpty();
+        assertThat(cache.findByEmail("nope@example.com")).isEmpty();
+
+        verify(userRepository, times(2)).findByEmail("nope@example.com");
+    }
+
+    @Test
+    @DisplayName("Modificar el usuario devuelto no altera la entrada cacheada")
+    void returnedUser_isACopy() {
+        User first = cache.findByEmail("ana@example.com").orElseThrow();
+        first.setPasswordHash("never-saved");
+        first.addRole("ROLE_ADMIN");
+
+        User second = cache.findByEmail("ana@example.com").orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPasswordHash()).isNull();
+        assertThat(second.getRoles()).containsExactly("ROLE_USER");
+        verify(userRepository, times(1)).findByEmail("ana@example.com");
+    }
+}
@@ -0,0 +1,106 @@
+package cat.itacademy.virtualpet.infrastructure.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PetEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new PetEventBus(registry, 4, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    @DisplayName("Cada suscriptor recibe solo las mascotas de su dueño; el global recibe todas")
+    void events_areRoutedByOwner() throws Exception {
+        List<Long> ownerSeven = new CopyOnWriteArrayList<>();
+        List<Long> everyone = new CopyOnWriteArrayList<>();
+        bus.subscribe(7L, change -> ownerSeven.add(change.id()));
+        bus.subscribe(null, change -> everyone.add(change.id()));
+
+        bus.publish(change(1L, 7L));
+        bus.publish(change(2L, 8L));
+
+        waitUntil(() -> everyone.size() == 2);
+        assertThat(ownerSeven).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Un suscriptor lento pierde los eventos más antiguos, no bloquea al publicador")
+    void slowSubscriber_dropsOldest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(7L, change -> {
+            if (change.id() == 0L) {
+                entered.countDown();
+                release.await();
+            }
+            received.add(change.id());
+        });
+
+        // Event 0 blocks the sink; 1..9 then queue up in a buffer of 4
+        bus.publish(change(0L, 7L));
+        entered.await();
+        for (long id = 1; id < 10; id++) bus.publish(change(id, 7L));
+        release.countDown();
+
+        waitUntil(() -> received.size() == 5);
+        assertThat(received).containsExactly(0L, 6L, 7L, 8L, 9L);
+        assertThat(registry.get("pets.events.dropped").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Si el envío falla la suscripción se cierra")
+    void failingSink_isUnsubscribed() throws Exception {
+        bus.subscribe(7L, change -> { throw new IllegalStateException("client gone"); });
+        bus.publish(change(1L, 7L));
+
+        waitUntil(() -> bus.subscriberCount() == 0);
+    }
+
+    @Test
+    @DisplayName("Al cerrar la última suscripción de un dueño se libera su entrada")
+    void lastOwnerSubscription_closed_removesOwner() {
+        PetEventBus.Subscription first = bus.subscribe(7L, change -> { });
+        PetEventBus.Subscription second = bus.subscribe(7L, change -> { });
+
+        first.close();
+        assertThat(bus.ownerCount()).isEqualTo(1);
+
+        second.close();
+        assertThat(bus.ownerCount()).isZero();
+        assertThat(bus.subscriberCount()).isZero();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static PetChange change(Long id, Long ownerId) {
+        return new PetChange(PetChange.Type.UPDATED, id, ownerId, 1L, "Kira", null, 10, 20, 30, 1, false);
+    }
+}
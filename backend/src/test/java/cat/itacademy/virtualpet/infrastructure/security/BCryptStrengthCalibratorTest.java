@@ -0,0 +1,44 @@
+package cat.itacademy.virtualpet.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    @DisplayName("Fuerza fija -> no calibra y usa el valor configurado")
+    void fixedStrength_skipsCalibration() {
+        var calibrator = new BCryptStrengthCalibrator(new SimpleMeterRegistry(), 5, 250, 10, 16);
+        assertThat(calibrator.getStrength()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Calibración -> coste dentro del rango [min, max]")
+    void calibration_staysWithinBounds() {
+        var calibrator = new BCryptStrengthCalibrator(new SimpleMeterRegistry(), 0, 50, 4, 6);
+        assertThat(calibrator.getStrength()).isBetween(4, 6);
+    }
+
+    @Test
+    @DisplayName("needsRehash -> true si el coste del hash difiere (subida o bajada)")
+    void needsRehash_whenCostDiffers() {
+        var calibrator = new BCryptStrengthCalibrator(new SimpleMeterRegistry(), 5, 250, 10, 16);
+
+        assertThat(calibrator.needsRehash(new BCryptPasswordEncoder(5).encode("pw"))).isFalse();
+        assertThat(calibrator.needsRehash(new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+        assertThat(calibrator.needsRehash(new BCryptPasswordEncoder(6).encode("pw"))).isTrue();
+        assertThat(calibrator.needsRehash("not-a-bcrypt-hash")).isTrue();
+    }
+
+    @Test
+    @DisplayName("costOf -> extrae el coste del prefijo $2a$NN$")
+    void costOf_parsesPrefix() {
+        assertThat(BCryptStrengthCalibrator.costOf("$2a$10$abcdefghijklmnopqrstuv")).isEqualTo(10);
+        assertThat(BCryptStrengthCalibrator.costOf("$2b$12$abcdefghijklmnopqrstuv")).isEqualTo(12);
+        assertThat(BCryptStrengthCalibrator.costOf(null)).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package cat.itacademy.virtualpet.infrastructure.security;
+
+import cat.itacademy.virtualpet.web.error.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    @DisplayName("encode/matches se ejecutan en el pool y registran métricas")
+    void encodeAndMatches_runOnPool_andRecordMetrics() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), registry, 2, 4, 5000, 2);
+
+        String hash = service.encode("secret123");
+
+        assertThat(service.matches("secret123", hash)).isTrue();
+        assertThat(service.matches("wrong", hash)).isFalse();
+        assertThat(registry.get("auth.password.hash.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("auth.password.hash.queue.wait").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cola llena -> rechazo inmediato con PasswordHashingUnavailableException")
+    void saturatedPool_rejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingEncoder(started, release);
+        service = new PasswordHashingService(blocking, registry, 1, 1, 5000, 7);
+
+        // 1 hilo ocupado + 1 tarea en cola
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+        Thread.sleep(100);
+
+        assertThatThrownBy(() -> service.encode("c"))
+                .isInstanceOf(PasswordHashingUnavailableException.class)
+                .extracting(ex -> ((PasswordHashingUnavailableException) ex).getRetryAfterSeconds())
+                .isEqualTo(7L);
+
+        release.countDown();
+        assertThat(running.get(2, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(2, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return false;
+        }
+    }
+}
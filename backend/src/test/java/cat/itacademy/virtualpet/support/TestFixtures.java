@@ -0,0 +1,52 @@
+package cat.itacademy.virtualpet.support;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+
+import java.util.Set;
+
+/**
+ * Entidades de prueba compartidas por los tests de integración y los benchmarks.
+ * Devuelven entidades sin guardar: cada test las persiste con su propio repositorio.
+ */
+public final class TestFixtures {
+
+    /** Hash BCrypt ficticio: estos usuarios se autentican con JWT, nunca con contraseña. */
+    public static final String DUMMY_PASSWORD_HASH = "$2a$10$dummy";
+
+    private TestFixtures() {
+    }
+
+    /** Usuario {@code username} con email {@code username@example.com}; ROLE_USER si no se indican roles. */
+    public static User user(String username, String... roles) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash(DUMMY_PASSWORD_HASH)
+                .roles(roles.length == 0 ? Set.of("ROLE_USER") : Set.of(roles))
+                .build();
+    }
+
+    /** Labrador recién nacido con las estadísticas por defecto de la entidad. */
+    public static Pet pet(String name, User owner) {
+        Pet pet = new Pet();
+        pet.setName(name);
+        pet.setBreed(Breed.LABRADOR);
+        pet.setOwner(owner);
+        return pet;
+    }
+
+    public static Pet pet(String name, User owner, Breed breed, LifeStage stage, boolean dead,
+                          int hunger, int hygiene, int fun) {
+        Pet pet = pet(name, owner);
+        pet.setBreed(breed);
+        pet.setLifeStage(stage);
+        pet.setDead(dead);
+        pet.setHunger(hunger);
+        pet.setHygiene(hygiene);
+        pet.setFun(fun);
+        return pet;
+    }
+}
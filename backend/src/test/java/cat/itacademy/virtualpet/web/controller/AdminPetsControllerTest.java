@@ -6,6 +6,7 @@ import cat.itacademy.virtualpet.domain.pet.enums.Breed;
 import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
 import cat.itacademy.virtualpet.domain.user.User;
 import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.init.PetWellnessBackfill;
 import cat.itacademy.virtualpet.infrastructure.security.JwtService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,12 +15,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Set;
 
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -39,6 +44,8 @@ class AdminPetsControllerTest {
     @Autowired private JwtService jwtService;
     @Autowired private UserRepository userRepository;
     @Autowired private PetRepository petRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PetWellnessBackfill wellnessBackfill;
 
     private String adminToken;
     private User admin;
@@ -89,6 +96,54 @@ class AdminPetsControllerTest {
                 .andExpect(jsonPath("$.content[0].name").value("Rex"));
     }
 
+    @Test
+    @DisplayName("GET /admin/pets?atRisk=true → solo vivas con avisos, la más en riesgo primero")
+    void listAllPets_atRisk() throws Exception {
+        Pet dirty = petRepository.save(pet("Sucio", admin, Breed.DALMATIAN, LifeStage.ADULT, false, 40, 10, 70));       // wellness 10
+        Pet hungry = petRepository.save(pet("Hambriento", admin, Breed.DALMATIAN, LifeStage.ADULT, false, 80, 60, 70)); // wellness 20
+        Pet bored = petRepository.save(pet("Aburrido", admin, Breed.DALMATIAN, LifeStage.ADULT, false, 40, 60, 25));    // wellness 25: ya tiene aviso fun_low
+        petRepository.save(pet("Muerto", admin, Breed.DALMATIAN, LifeStage.PASSED, true, 100, 0, 0));
+
+        mockMvc.perform(get("/admin/pets").param("atRisk", "true").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].id").value(dirty.getId()))
+                .andExpect(jsonPath("$.content[0].wellness").value(10))
+                .andExpect(jsonPath("$.content[1].id").value(hungry.getId()))
+                .andExpect(jsonPath("$.content[2].id").value(bored.getId()));
+
+        mockMvc.perform(get("/admin/pets").param("maxWellness", "20").param("sort", "wellness,desc")
+                        .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(hungry.getId()));
+
+        // Sin filtro también se puede ordenar por la columna
+        mockMvc.perform(get("/admin/pets").param("sort", "wellness,desc").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(pet.getId()))
+                .andExpect(jsonPath("$.content[0].wellness").value(60));
+
+        mockMvc.perform(get("/admin/pets").param("maxWellness", "101").header("Authorization", adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Filas sin wellness (escritas por SQL) se rellenan con el backfill")
+    void wellnessBackfill_fillsMissingScores() throws Exception {
+        jdbc.update("insert into pets (name, breed, life_stage, hunger, hygiene, fun, action_count, created_at, " +
+                        "version, dead, avatar_version, owner_id) values (?, ?, ?, ?, ?, ?, 0, ?, 0, false, 0, ?)",
+                "Legacy", "LABRADOR", "ADULT", 90, 50, 50, Timestamp.from(Instant.now()), admin.getId());
+        Long legacyId = jdbc.queryForObject("select id from pets where name = 'Legacy'", Long.class);
+        assertThat(jdbc.queryForObject("select wellness from pets where id = ?", Integer.class, legacyId))
+                .isEqualTo(-1);
+
+        wellnessBackfill.run();
+
+        assertThat(jdbc.queryForObject("select wellness from pets where id = ?", Integer.class, legacyId))
+                .isEqualTo(10);
+    }
+
     @Test
     @DisplayName("GET /admin/pets/{id} devuelve 200 con la mascota")
     void getPetById_ok() throws Exception {
@@ -111,6 +166,20 @@ class AdminPetsControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /admin/pets?ids= devuelve las existentes y 404 por elemento para las demás")
+    void getPetsByIds_ok() throws Exception {
+        mockMvc.perform(
+                        get("/admin/pets")
+                                .param("ids", pet.getId() + "," + Long.MAX_VALUE)
+                                .header("Authorization", adminToken)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].pet.name").value("Rex"))
+                .andExpect(jsonPath("$[1].id").value(Long.MAX_VALUE))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+
     @Test
     @DisplayName("DELETE /admin/pets/{id} elimina mascota → 204")
     void deletePet_ok() throws Exception {
@@ -0,0 +1,199 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import cat.itacademy.virtualpet.infrastructure.stats.FleetStats;
+import cat.itacademy.virtualpet.infrastructure.stats.LifespanHistograms;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para GET /admin/stats: contadores incrementales por escritura y recuento,
+ * y percentiles de vida desde los snapshots de histogramas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminStatsControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired FleetStats fleetStats;
+    @Autowired LifespanHistograms lifespans;
+
+    private User owner;
+    private String adminBearer;
+    private String userBearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        // Other test contexts share the database but not these counters
+        fleetStats.recount();
+        lifespans.snapshot();
+        jdbc.update("delete from pet_lifespan_histograms");
+        lifespans.snapshot();
+
+        User admin = users.save(user("admin", "ROLE_ADMIN"));
+        owner = users.save(user("user"));
+        adminBearer = "Bearer " + jwtService.generateToken(admin);
+        userBearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("Altas, acciones y bajas se reflejan sin recontar")
+    void writes_updateCountersIncrementally() throws Exception {
+        Pet kira = pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.BABY, false, 40, 80, 70));
+        pets.save(pet("Max", owner, Breed.DALMATIAN, LifeStage.ADULT, false, 60, 50, 30));
+        Pet old = pets.save(pet("Old", owner, Breed.DALMATIAN, LifeStage.PASSED, true, 100, 0, 0));
+
+        stats()
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.alive").value(2))
+                .andExpect(jsonPath("$.dead").value(1))
+                .andExpect(jsonPath("$.byBreed.DALMATIAN").value(2))
+                .andExpect(jsonPath("$.byBreed.GOLDEN_RETRIEVER").value(0))
+                .andExpect(jsonPath("$.byStage.PASSED").value(1))
+                // Averages cover living pets only
+                .andExpect(jsonPath("$.averages.hunger").value(50.0))
+                .andExpect(jsonPath("$.averages.hygiene").value(65.0))
+                .andExpect(jsonPath("$.averages.fun").value(50.0));
+
+        mvc.perform(post("/pets/{id}/actions/play", kira.getId()).header("Authorization", userBearer))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/pets/{id}", old.getId()).header("Authorization", userBearer))
+                .andExpect(status().isNoContent());
+
+        Pet played = pets.findById(kira.getId()).orElseThrow();
+        stats()
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.dead").value(0))
+                .andExpect(jsonPath("$.byBreed.DALMATIAN").value(1))
+                .andExpect(jsonPath("$.averages.fun").value((played.getFun() + 30) / 2.0))
+                .andExpect(jsonPath("$.averages.hunger").value((played.getHunger() + 60) / 2.0));
+    }
+
+    @Test
+    @DisplayName("Escrituras fuera de Hibernate solo aparecen tras el recuento")
+    void recount_correctsDrift() throws Exception {
+        pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.BABY, false, 40, 80, 70));
+        jdbc.update("insert into pets (name, breed, life_stage, hunger, hygiene, fun, action_count, created_at, " +
+                        "version, dead, avatar_version, owner_id) values (?, ?, ?, ?, ?, ?, 0, ?, 0, false, 0, ?)",
+                "Bulk", "GOLDEN_RETRIEVER", "SENIOR", 20, 20, 20, Timestamp.from(Instant.now()), owner.getId());
+
+        stats().andExpect(jsonPath("$.total").value(1));
+
+        fleetStats.recount();
+        lifespans.snapshot();
+        jdbc.update("delete from pet_lifespan_histograms");
+        lifespans.snapshot();
+
+        stats()
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.byBreed.GOLDEN_RETRIEVER").value(1))
+                .andExpect(jsonPath("$.byStage.SENIOR").value(1))
+                .andExpect(jsonPath("$.averages.hunger").value(30.0))
+                .andExpect(jsonPath("$.recountedAt").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Las muertes entran en los percentiles de vida tras el snapshot")
+    void deaths_areRecordedInLifespanHistograms() throws Exception {
+        Pet kira = pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.SENIOR, false, 40, 80, 30));
+        Pet max = pets.save(pet("Max", owner, Breed.DALMATIAN, LifeStage.SENIOR, false, 40, 80, 30));
+        agedDying(kira, Duration.ofMinutes(10));
+        agedDying(max, Duration.ofHours(2));
+
+        // 15th action: seniors die
+        mvc.perform(post("/pets/{id}/actions/play", kira.getId()).header("Authorization", userBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dead").value(true));
+        mvc.perform(post("/pets/{id}/actions/play", max.getId()).header("Authorization", userBearer))
+                .andExpect(status().isOk());
+
+        lifespans().andExpect(jsonPath("$.overall").doesNotExist());
+
+        lifespans.snapshot();
+
+        long tenMinutes = Duration.ofMinutes(10).toMillis();
+        lifespans()
+                .andExpect(jsonPath("$.overall.deaths").value(2))
+                .andExpect(jsonPath("$.byBreed.LABRADOR.deaths").value(1))
+                .andExpect(jsonPath("$.byBreed.LABRADOR.p50Millis",
+                        allOf(greaterThanOrEqualTo(tenMinutes), lessThanOrEqualTo(tenMinutes * 102 / 100)), Long.class))
+                .andExpect(jsonPath("$.byBreed.GOLDEN_RETRIEVER").doesNotExist())
+                .andExpect(jsonPath("$.byActionCount['15+'].deaths").value(2))
+                .andExpect(jsonPath("$.byActionCount['0-4']").doesNotExist())
+                .andExpect(jsonPath("$.overall.maxMillis",
+                        greaterThanOrEqualTo(Duration.ofHours(2).toMillis()), Long.class));
+    }
+
+    @Test
+    @DisplayName("GET /admin/stats → 403 para usuarios sin ROLE_ADMIN")
+    void stats_forbiddenForUsers() throws Exception {
+        mvc.perform(get("/admin/stats").header("Authorization", userBearer))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/admin/stats/lifespans").header("Authorization", userBearer))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("/actuator/metrics → 403 para usuarios, 200 para admin; /actuator/health sigue público")
+    void actuatorMetrics_adminOnly() throws Exception {
+        mvc.perform(get("/actuator/metrics").header("Authorization", userBearer))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/actuator/metrics").header("Authorization", adminBearer))
+                .andExpect(status().isOk());
+        mvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    // -------- helpers --------
+
+    private ResultActions lifespans() throws Exception {
+        return mvc.perform(get("/admin/stats/lifespans").header("Authorization", adminBearer))
+                .andExpect(status().isOk());
+    }
+
+    // created_at is not updatable through JPA
+    private void agedDying(Pet pet, Duration age) {
+        jdbc.update("update pets set created_at = ?, action_count = 14 where id = ?",
+                Timestamp.from(Instant.now().minus(age)), pet.getId());
+    }
+
+    private ResultActions stats() throws Exception {
+        return mvc.perform(get("/admin/stats").header("Authorization", adminBearer))
+                .andExpect(status().isOk());
+    }
+}
@@ -7,6 +7,7 @@ import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
 import cat.itacademy.virtualpet.domain.user.User;
 import cat.itacademy.virtualpet.domain.user.UserRepository;
 import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -97,6 +98,35 @@ class AdminUsersControllerTest {
                 .andExpect(jsonPath("$[1].id").exists());
     }
 
+    @Test
+    @DisplayName("GET /admin/users?fields=username → solo id y username")
+    void getAllUsers_sparseFields() throws Exception {
+        mockMvc.perform(
+                        get("/admin/users")
+                                .param("fields", "username")
+                                .header("Authorization", adminToken)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].username").exists())
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /admin/users con Accept: application/cbor → lista en CBOR")
+    void getAllUsers_cbor() throws Exception {
+        byte[] body = mockMvc.perform(
+                        get("/admin/users")
+                                .accept("application/cbor")
+                                .header("Authorization", adminToken)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(body).get(0).has("email")).isTrue();
+    }
+
     // ================= GET USER BY ID =================
 
     @Test
@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -99,6 +100,90 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("POST /auth/register → 409 'Username already taken' si solo coincide el username")
+    void register_conflictIfUsernameTaken() throws Exception {
+        User existing = new User();
+        existing.setUsername("ocupado");
+        existing.setEmail("ocupado@example.com");
+        existing.setPasswordHash("$2a$10$dummy");
+        users.save(existing);
+
+        String json = """
+            {
+              "username": "ocupado",
+              "email": "otro@example.com",
+              "password": "AnotherPass123"
+            }
+        """;
+
+        mvc.perform(
+                        post("/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(json)
+                )
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Username already taken: ocupado"));
+
+        assertThat(users.findByEmail("otro@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /auth/availability → ocupado tras registrarse, libre si no existe")
+    void availability_reflectsRegisteredUsers() throws Exception {
+        String json = """
+            {
+              "username": "disponible",
+              "email": "disponible@example.com",
+              "password": "AnotherPass123"
+            }
+        """;
+        mvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/auth/availability")
+                        .param("username", "disponible")
+                        .param("email", "DISPONIBLE@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(false))
+                .andExpect(jsonPath("$.emailAvailable").value(false));
+
+        mvc.perform(get("/auth/availability").param("username", "nadie_usa_este_nombre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(true))
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /auth/availability → 429 cuando una IP agota su cupo, sin gastar el de login/registro")
+    void availability_throttledPerIp() throws Exception {
+        int status = 200;
+        // Capacity 60 per IP; the bucket refills while the loop runs, so allow plenty extra
+        for (int i = 0; i < 200 && status == 200; i++) {
+            status = mvc.perform(get("/auth/availability").param("username", "curioso" + i)
+                            .with(req -> { req.setRemoteAddr("10.9.9.9"); return req; }))
+                    .andReturn().getResponse().getStatus();
+        }
+        assertThat(status).isEqualTo(429);
+
+        mvc.perform(get("/auth/availability").param("username", "otro")
+                        .with(req -> { req.setRemoteAddr("10.9.9.9"); return req; }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // Other clients keep their own budget
+        mvc.perform(get("/auth/availability").param("username", "otro")
+                        .with(req -> { req.setRemoteAddr("10.9.9.10"); return req; }))
+                .andExpect(status().isOk());
+
+        // Login from the throttled IP still has its own budget: rejected for the credentials, not throttled
+        mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nadie@example.com\",\"password\":\"Whatever123\"}")
+                        .with(req -> { req.setRemoteAddr("10.9.9.9"); return req; }))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(429));
+    }
+
     @Test
     @DisplayName("POST /auth/login → 2xx con credenciales correctas y token en respuesta")
     void login_returnsSuccessWithToken() throws Exception {
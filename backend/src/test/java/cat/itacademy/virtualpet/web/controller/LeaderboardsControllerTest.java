@@ -0,0 +1,134 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import cat.itacademy.virtualpet.infrastructure.stats.PetLeaderboards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para GET /leaderboards/{board}: top-K en memoria actualizado por escritura
+ * y reconstruido desde la tabla.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LeaderboardsControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PetLeaderboards leaderboards;
+
+    private User owner;
+    private String bearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        // Other test contexts share the database but not these boards
+        leaderboards.rebuildAll();
+
+        owner = users.save(user("user"));
+        bearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("Acciones y muertes reordenan los rankings sin consultar la tabla")
+    void writes_updateBoardsIncrementally() throws Exception {
+        Pet kira = pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.SENIOR, false, 40, 80, 70));
+        Pet max = pets.save(pet("Max", owner, Breed.LABRADOR, LifeStage.ADULT, false, 60, 50, 30));
+        pets.save(pet("Dead", owner, Breed.LABRADOR, LifeStage.PASSED, true, 100, 0, 0));
+
+        board("wellness", null)
+                .andExpect(jsonPath("$.board").value("WELLNESS"))
+                .andExpect(jsonPath("$.entries.length()").value(2))
+                .andExpect(jsonPath("$.entries[0].name").value("Kira"))
+                .andExpect(jsonPath("$.entries[0].rank").value(1))
+                .andExpect(jsonPath("$.entries[0].value").value(60))
+                .andExpect(jsonPath("$.entries[1].value").value(30));
+
+        mvc.perform(post("/pets/{id}/actions/play", max.getId()).header("Authorization", bearer))
+                .andExpect(status().isOk());
+        board("actions", null)
+                .andExpect(jsonPath("$.entries[0].petId").value(max.getId()))
+                .andExpect(jsonPath("$.entries[0].value").value(1))
+                .andExpect(jsonPath("$.entries[1].value").value(0));
+
+        // 15th action: seniors die and leave every board
+        jdbc.update("update pets set action_count = 14 where id = ?", kira.getId());
+        mvc.perform(post("/pets/{id}/actions/play", kira.getId()).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dead").value(true));
+        board("age", null)
+                .andExpect(jsonPath("$.entries.length()").value(1))
+                .andExpect(jsonPath("$.entries[0].name").value("Max"));
+    }
+
+    @Test
+    @DisplayName("Escrituras fuera de Hibernate aparecen tras reconstruir desde la tabla")
+    void rebuild_readsTheTable() throws Exception {
+        pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.BABY, false, 40, 80, 70));
+        jdbc.update("insert into pets (name, breed, life_stage, hunger, hygiene, fun, action_count, created_at, " +
+                        "version, dead, avatar_version, owner_id) values (?, ?, ?, ?, ?, ?, 9, ?, 0, false, 0, ?)",
+                "Old", "LABRADOR", "ADULT", 20, 20, 20, Timestamp.from(Instant.now().minus(Duration.ofDays(3))),
+                owner.getId());
+
+        board("age", null).andExpect(jsonPath("$.entries.length()").value(1));
+
+        leaderboards.rebuildAll();
+
+        board("age", "1")
+                .andExpect(jsonPath("$.entries.length()").value(1))
+                .andExpect(jsonPath("$.entries[0].name").value("Old"))
+                .andExpect(jsonPath("$.entries[0].value",
+                        greaterThanOrEqualTo(Duration.ofDays(3).toSeconds()), Long.class));
+        board("actions", null).andExpect(jsonPath("$.entries[0].value").value(9));
+    }
+
+    @Test
+    @DisplayName("Ranking desconocido o límite fuera de rango → 400")
+    void badRequest() throws Exception {
+        mvc.perform(get("/leaderboards/{board}", "cuteness").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/leaderboards/{board}", "age").param("limit", "0").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/leaderboards/{board}", "age").param("limit", "lots").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------- helpers --------
+
+    private ResultActions board(String board, String limit) throws Exception {
+        var request = get("/leaderboards/{board}", board).header("Authorization", bearer);
+        if (limit != null) request.param("limit", limit);
+        return mvc.perform(request).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,92 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.pet.enums.Breed;
+import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para GET /me/dashboard: contexto completo, JWT real.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MeControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+
+    private Pet hungryPet;
+    private String bearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+
+        User owner = users.save(user("user"));
+        User other = users.save(user("other"));
+
+        hungryPet = pets.save(pet("Kira", owner, Breed.LABRADOR, LifeStage.BABY, false, 80, 70, 60));
+        pets.save(pet("Max", owner, Breed.LABRADOR, LifeStage.BABY, false, 40, 70, 60));
+        pets.save(pet("Rex", other, Breed.LABRADOR, LifeStage.BABY, false, 90, 70, 60));
+
+        bearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("GET /me/dashboard → 401 sin token")
+    void dashboard_unauthorized() throws Exception {
+        mvc.perform(get("/me/dashboard")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("GET /me/dashboard → perfil, sus mascotas, recuento por etapa y avisos activos")
+    void dashboard_aggregatesOwnData() throws Exception {
+        mvc.perform(get("/me/dashboard").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.email").value("user@example.com"))
+                .andExpect(jsonPath("$.pets.length()").value(2))
+                .andExpect(jsonPath("$.stageCounts.BABY").value(2))
+                .andExpect(jsonPath("$.stageCounts.PASSED").value(0))
+                .andExpect(jsonPath("$.warnings.length()").value(1))
+                .andExpect(jsonPath("$.warnings[0].petId").value(hungryPet.getId()))
+                .andExpect(jsonPath("$.warnings[0].warnings[0]").value("hunger_high"));
+    }
+
+    @Test
+    @DisplayName("GET /me/dashboard → refleja una acción hecha después de cachearse")
+    void dashboard_rebuiltAfterWrite() throws Exception {
+        mvc.perform(get("/me/dashboard").header("Authorization", bearer))
+                .andExpect(jsonPath("$.warnings.length()").value(1));
+
+        mvc.perform(post("/pets/{id}/actions/feed", hungryPet.getId())
+                        .header("Authorization", bearer).with(csrf()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/me/dashboard").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.warnings.length()").value(0));
+    }
+}
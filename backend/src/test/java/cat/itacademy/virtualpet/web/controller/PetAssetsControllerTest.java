@@ -0,0 +1,140 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para /assets/pets: imágenes direccionadas por contenido, servidor real.
+ */
+@SpringBootTest(classes = BackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PetAssetsControllerTest {
+
+    @TempDir static Path source;
+    @TempDir static Path store;
+
+    // Compressible: gets a .gz variant. Random: already "compressed", served as is.
+    private static byte[] dalmatianBaby;
+    private static byte[] labradorAdult;
+
+    @LocalServerPort int port;
+    @Autowired MockMvc mvc;
+
+    @DynamicPropertySource
+    static void assetDirs(DynamicPropertyRegistry registry) {
+        registry.add("assets.pets.source-dir", source::toString);
+        registry.add("assets.pets.store-dir", store::toString);
+    }
+
+    @BeforeAll
+    static void artwork() throws Exception {
+        dalmatianBaby = "dalmatian-baby-pixels ".repeat(4_000).getBytes();
+        labradorAdult = new byte[50_000];
+        new Random(42).nextBytes(labradorAdult);
+        Files.write(source.resolve("dalmatian_baby.png"), dalmatianBaby);
+        Files.write(source.resolve("labrador_adult.png"), labradorAdult);
+    }
+
+    @Test
+    @DisplayName("GET /assets/pets → manifiesto sin token; la URL estable redirige al fichero por hash")
+    void manifest_andRedirect() throws Exception {
+        mvc.perform(get("/assets/pets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['DALMATIAN/BABY']").value(matchesPattern("/assets/pets/[0-9a-f]{20}\\.png")))
+                .andExpect(jsonPath("$['LABRADOR/ADULT']").exists())
+                .andExpect(jsonPath("$['LABRADOR/BABY']").doesNotExist());
+
+        mvc.perform(get("/assets/pets/DALMATIAN/BABY"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", matchesPattern("/assets/pets/[0-9a-f]{20}\\.png")));
+
+        mvc.perform(get("/assets/pets/LABRADOR/BABY")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /assets/pets/{hash}.png → immutable, ETag fuerte y 304 con If-None-Match")
+    void asset_isImmutable_andConditional() throws Exception {
+        String url = location("LABRADOR/ADULT");
+
+        MvcResult first = mvc.perform(get(url).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().longValue("Content-Length", labradorAdult.length))
+                .andReturn();
+        assertThat(first.getResponse().getContentAsByteArray()).isEqualTo(labradorAdult);
+
+        mvc.perform(get(url).header("If-None-Match", first.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /assets/pets/{hash}.png → variante gzip precomprimida solo si el cliente la acepta")
+    void asset_precompressedGzip() throws Exception {
+        String url = location("DALMATIAN/BABY");
+
+        MvcResult gz = mvc.perform(get(url).header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-f]{20}-gz\"")))
+                .andReturn();
+        byte[] body = gz.getResponse().getContentAsByteArray();
+        assertThat(body.length).isLessThan(dalmatianBaby.length / 10);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes()).isEqualTo(dalmatianBaby);
+
+        mvc.perform(get(url).header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().bytes(dalmatianBaby));
+    }
+
+    @Test
+    @DisplayName("GET /assets/pets/{hash}.png sobre Tomcat real (sendfile) → mismos bytes")
+    void asset_overRealConnector() throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + port + location("LABRADOR/ADULT"));
+
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValueAsLong("Content-Length")).hasValue(labradorAdult.length);
+        assertThat(response.body()).isEqualTo(labradorAdult);
+    }
+
+    // -------- helpers --------
+
+    private String location(String key) throws Exception {
+        return mvc.perform(get("/assets/pets/" + key)).andReturn().getResponse().getHeader("Location");
+    }
+}
@@ -0,0 +1,171 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para avatares: PUT /pets/{id}/avatar y GET /avatars/{key}/{size}.jpg.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "pets.avatar.max-bytes=200000")
+class PetAvatarsControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired ObjectMapper objectMapper;
+
+    private Pet ownerPet;
+    private Pet otherPet;
+    private String ownerBearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+
+        User owner = users.save(user("user"));
+        User other = users.save(user("other"));
+
+        ownerPet = pets.save(pet("Kira", owner));
+        otherPet = pets.save(pet("Max", other));
+        ownerBearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("PUT /pets/{id}/avatar → 202; al terminar la mascota expone avatarUrls con miniaturas immutable")
+    void upload_thenThumbnailsServed() throws Exception {
+        mvc.perform(put("/pets/{id}/avatar", ownerPet.getId())
+                        .contentType(MediaType.IMAGE_PNG).content(png(800, 600, Color.ORANGE))
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isAccepted());
+
+        JsonNode pet = awaitAvatarVersion(ownerPet.getId(), 1);
+        String small = pet.at("/avatarUrls/64").asText();
+        assertThat(pet.at("/avatarUrls/256").asText()).matches("/avatars/[0-9a-f]{32}/256\\.jpg");
+
+        MvcResult thumb = mvc.perform(get(small))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andReturn();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumb.getResponse().getContentAsByteArray()));
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(image.getHeight()).isEqualTo(64);
+
+        mvc.perform(get(small).header("If-None-Match", thumb.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Segunda subida reemplaza la anterior; borrar la mascota borra las miniaturas")
+    void reupload_replaces_andDeleteCleansUp() throws Exception {
+        mvc.perform(put("/pets/{id}/avatar", ownerPet.getId())
+                .contentType(MediaType.IMAGE_PNG).content(png(300, 300, Color.RED))
+                .header("Authorization", ownerBearer));
+        String first = awaitAvatarVersion(ownerPet.getId(), 1).at("/avatarUrls/256").asText();
+
+        mvc.perform(put("/pets/{id}/avatar", ownerPet.getId())
+                .contentType(MediaType.IMAGE_JPEG).content(jpeg(300, 500, Color.BLUE))
+                .header("Authorization", ownerBearer));
+        String second = awaitAvatarVersion(ownerPet.getId(), 2).at("/avatarUrls/256").asText();
+
+        assertThat(second).isNotEqualTo(first);
+        mvc.perform(get(first)).andExpect(status().isNotFound());
+        mvc.perform(get(second)).andExpect(status().isOk());
+
+        mvc.perform(delete("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().is2xxSuccessful());
+        mvc.perform(get(second)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PUT /pets/{id}/avatar → 403 ajena, 415 si no es imagen, 413 si supera max-bytes")
+    void upload_rejections() throws Exception {
+        mvc.perform(put("/pets/{id}/avatar", otherPet.getId())
+                        .contentType(MediaType.IMAGE_PNG).content(png(100, 100, Color.GREEN))
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isForbidden());
+
+        mvc.perform(put("/pets/{id}/avatar", ownerPet.getId())
+                        .contentType(MediaType.IMAGE_PNG).content("not an image".getBytes())
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isUnsupportedMediaType());
+
+        mvc.perform(put("/pets/{id}/avatar", ownerPet.getId())
+                        .contentType(MediaType.IMAGE_PNG).content(new byte[250_000])
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertThat(pets.findById(ownerPet.getId()).orElseThrow().getAvatarVersion()).isZero();
+    }
+
+    // -------- helpers --------
+
+    private JsonNode awaitAvatarVersion(Long petId, long version) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mvc.perform(get("/pets/{id}", petId).header("Authorization", ownerBearer))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode pet = objectMapper.readTree(body);
+            if (pet.path("avatarVersion").asLong() >= version) return pet;
+            assertThat(System.currentTimeMillis()).as("avatar v%d not processed in time", version).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static byte[] png(int width, int height, Color color) throws Exception {
+        return encode(width, height, color, "png");
+    }
+
+    private static byte[] jpeg(int width, int height, Color color) throws Exception {
+        return encode(width, height, color, "jpeg");
+    }
+
+    private static byte[] encode(int width, int height, Color color, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
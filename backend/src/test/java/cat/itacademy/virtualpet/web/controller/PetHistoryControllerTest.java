@@ -0,0 +1,171 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.history.PetStatHistoryWriter;
+import cat.itacademy.virtualpet.infrastructure.history.PetStatRollupJob;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para GET /pets/{id}/history: muestras por acción, rollups hora/día y purga.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "pets.history.raw-retention=P1D")
+class PetHistoryControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PetStatHistoryWriter historyWriter;
+    @Autowired PetStatRollupJob rollupJob;
+
+    private Pet ownerPet;
+    private Pet otherPet;
+    private String ownerBearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+        historyWriter.flush();
+        jdbc.update("delete from pet_stat_samples");
+        jdbc.update("delete from pet_stat_rollups");
+
+        User owner = users.save(user("user"));
+        User other = users.save(user("other"));
+
+        ownerPet = pets.save(pet("Kira", owner));
+        otherPet = pets.save(pet("Max", other));
+        ownerBearer = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @Test
+    @DisplayName("Cada acción deja una muestra; por defecto últimas 24 h en RAW")
+    void actions_areSampled() throws Exception {
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk());
+        mvc.perform(post("/pets/{id}/actions/wash", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk());
+        historyWriter.flush();
+
+        Pet current = pets.findById(ownerPet.getId()).orElseThrow();
+        mvc.perform(get("/pets/{id}/history", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("RAW"))
+                // create + play + wash
+                .andExpect(jsonPath("$.points.length()").value(3))
+                .andExpect(jsonPath("$.points[2].hunger").value(current.getHunger()))
+                .andExpect(jsonPath("$.points[2].hygiene").value(current.getHygiene()))
+                .andExpect(jsonPath("$.points[2].fun").value(current.getFun()));
+    }
+
+    @Test
+    @DisplayName("Muestras aún en el buffer de una mascota borrada → no se insertan")
+    void deletedPet_bufferedSamplesAreSkipped() throws Exception {
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isNoContent());
+
+        historyWriter.flush();
+
+        assertThat(jdbc.queryForObject("select count(*) from pet_stat_samples where pet_id = ?",
+                Long.class, ownerPet.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("HOUR/DAY: mismo resultado antes (desde RAW) y después del rollup; RAW purgado tras la retención")
+    void rollups_matchRawAndSurvivePurge() throws Exception {
+        Instant day = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(3));
+        sample(day.plus(Duration.ofMinutes(10)), 10, 80, 40);
+        sample(day.plus(Duration.ofMinutes(20)), 30, 60, 50);
+        sample(day.plus(Duration.ofMinutes(65)), 50, 40, 90);
+
+        String hours = history("from=" + day + "&to=" + day.plus(Duration.ofHours(2)) + "&resolution=hour");
+        String days = history("from=" + day + "&to=" + day.plus(Duration.ofDays(1)) + "&resolution=day");
+
+        rollupJob.runOnce(Instant.now());
+
+        assertThat(jdbc.queryForObject("select count(*) from pet_stat_samples where sampled_at < ?",
+                Long.class, Timestamp.from(day.plus(Duration.ofDays(1))))).isZero();
+        assertThat(history("from=" + day + "&to=" + day.plus(Duration.ofHours(2)) + "&resolution=hour")).isEqualTo(hours);
+        assertThat(history("from=" + day + "&to=" + day.plus(Duration.ofDays(1)) + "&resolution=day")).isEqualTo(days);
+
+        mvc.perform(get("/pets/{id}/history", ownerPet.getId())
+                        .param("from", day.toString()).param("to", day.plus(Duration.ofHours(2)).toString())
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                // 3 days ago is beyond the 1-day raw retention: AUTO answers from the hourly level
+                .andExpect(jsonPath("$.resolution").value("HOUR"))
+                .andExpect(jsonPath("$.points.length()").value(2))
+                .andExpect(jsonPath("$.points[0].hunger").value(20.0))
+                .andExpect(jsonPath("$.points[0].samples").value(2))
+                .andExpect(jsonPath("$.points[1].fun").value(90.0));
+
+        mvc.perform(get("/pets/{id}/history", ownerPet.getId())
+                        .param("from", day.toString()).param("to", day.plus(Duration.ofDays(1)).toString())
+                        .param("resolution", "day")
+                        .header("Authorization", ownerBearer))
+                .andExpect(jsonPath("$.points[0].hunger").value(30.0))
+                .andExpect(jsonPath("$.points[0].hygiene").value(60.0))
+                .andExpect(jsonPath("$.points[0].samples").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /pets/{id}/history → 403 ajena, 400 resolución inválida o RAW demasiado amplio")
+    void history_rejections() throws Exception {
+        mvc.perform(get("/pets/{id}/history", otherPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/pets/{id}/history", ownerPet.getId()).param("resolution", "minute")
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/pets/{id}/history", ownerPet.getId())
+                        .param("from", "2025-01-01T00:00:00Z").param("to", "2025-02-01T00:00:00Z")
+                        .param("resolution", "raw")
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------- helpers --------
+
+    private String history(String query) throws Exception {
+        return mvc.perform(get("/pets/" + ownerPet.getId() + "/history?" + query).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void sample(Instant at, int hunger, int hygiene, int fun) {
+        jdbc.update("insert into pet_stat_samples (pet_id, sampled_at, hunger, hygiene, fun) values (?, ?, ?, ?, ?)",
+                ownerPet.getId(), Timestamp.from(at), hunger, hygiene, fun);
+    }
+}
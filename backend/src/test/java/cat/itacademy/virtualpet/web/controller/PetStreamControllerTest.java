@@ -0,0 +1,106 @@
+package cat.itacademy.virtualpet.web.controller;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test para GET /pets/stream (SSE): contexto completo, JWT real.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PetStreamControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+
+    private User other;
+    private Pet ownerPet;
+    private Pet otherPet;
+    private String ownerBearer;
+    private String otherBearer;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+
+        User owner = users.save(user("user"));
+        other = users.save(user("other"));
+
+        ownerPet = pets.save(pet("Kira", owner));
+        otherPet = pets.save(pet("Max", other));
+
+        ownerBearer = "Bearer " + jwtService.generateToken(owner);
+        otherBearer = "Bearer " + jwtService.generateToken(other);
+    }
+
+    @Test
+    @DisplayName("GET /pets/stream → 401 sin token")
+    void stream_unauthorized() throws Exception {
+        mvc.perform(get("/pets/stream")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("GET /pets/stream → recibe los cambios de sus mascotas y no los de otros")
+    void stream_pushesOwnChangesOnly() throws Exception {
+        MvcResult stream = mvc.perform(get("/pets/stream").header("Authorization", ownerBearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(post("/pets/{id}/actions/play", otherPet.getId())
+                        .header("Authorization", otherBearer).with(csrf()))
+                .andExpect(status().isOk());
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer).with(csrf()))
+                .andExpect(status().isOk());
+
+        String body = awaitContent(stream, "\"id\":" + ownerPet.getId());
+        assertThat(stream.getResponse().getContentType()).startsWith("text/event-stream");
+        assertThat(body).contains("event:pet", "\"type\":\"UPDATED\"", "\"fun\":");
+        assertThat(body).doesNotContain("\"id\":" + otherPet.getId() + ",");
+    }
+
+    @Test
+    @DisplayName("GET /pets/stream?ownerId de otro usuario → 403 si no eres admin")
+    void stream_otherOwner_forbidden() throws Exception {
+        mvc.perform(get("/pets/stream").param("ownerId", String.valueOf(other.getId()))
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isForbidden());
+    }
+
+    // -------- helpers --------
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
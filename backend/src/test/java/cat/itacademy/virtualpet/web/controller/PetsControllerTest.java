@@ -7,7 +7,11 @@ import cat.itacademy.virtualpet.domain.pet.enums.Breed;
 import cat.itacademy.virtualpet.domain.pet.enums.LifeStage;
 import cat.itacademy.virtualpet.domain.user.User;
 import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.events.PetChangeLogPurgeJob;
 import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,10 +22,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +46,8 @@ class PetsControllerTest  {
     @Autowired JwtService jwtService;
     @Autowired UserRepository users;
     @Autowired PetRepository pets;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired PetChangeLogPurgeJob changeLogPurge;
 
     private User owner;
     private User other;
@@ -116,6 +124,89 @@ class PetsControllerTest  {
                 .andExpect(jsonPath("$[0].breed").value("LABRADOR"));
     }
 
+    @Test
+    @DisplayName("GET /pets?ids= → un resultado por id: 200 propia, 403 ajena, 404 inexistente")
+    void multiGet_reportsPerElement() throws Exception {
+        mvc.perform(get("/pets").param("ids", ownerPet.getId() + "," + otherPet.getId() + "," + Long.MAX_VALUE + "," + ownerPet.getId())
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].pet.name").value("Kira"))
+                .andExpect(jsonPath("$[1].id").value(otherPet.getId()))
+                .andExpect(jsonPath("$[1].status").value(403))
+                .andExpect(jsonPath("$[1].pet").doesNotExist())
+                .andExpect(jsonPath("$[2].status").value(404));
+    }
+
+    @Test
+    @DisplayName("GET /pets?fields=name,lifeStage → solo id y esos campos")
+    void listPets_sparseFields() throws Exception {
+        mvc.perform(get("/pets").param("fields", "name,lifeStage").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(ownerPet.getId()))
+                .andExpect(jsonPath("$[0].name").value("Kira"))
+                .andExpect(jsonPath("$[0].lifeStage").value("BABY"))
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$[0].hunger").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /pets/{id}?fields=<todos> → mismo JSON que la respuesta completa")
+    void getPet_allFieldsMatchFullResponse() throws Exception {
+        String full = mvc.perform(get("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String sparse = mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .param("fields", "name,breed,lifeStage,hunger,hygiene,fun,actionCount,wellness,ownerId,createdAt,version,dead,deathAt,avatarVersion")
+                        .header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(sparse)).isEqualTo(objectMapper.readTree(full));
+    }
+
+    @Test
+    @DisplayName("Accept: application/cbor → mismo DTO en CBOR, más compacto que JSON")
+    void negotiation_cbor() throws Exception {
+        byte[] json = mvc.perform(get("/pets").header("Authorization", ownerBearer))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mvc.perform(get("/pets").accept("application/cbor").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(objectMapper.readTree(json));
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    @DisplayName("GET /pets/{id} con Accept: application/x-jackson-smile → Smile; sin Accept → JSON cacheado")
+    void negotiation_smileById() throws Exception {
+        byte[] smile = mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .accept("application/x-jackson-smile").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new SmileMapper().readTree(smile).get("name").asText()).isEqualTo("Kira");
+
+        mvc.perform(get("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Kira"));
+    }
+
+    @Test
+    @DisplayName("fields= con un campo desconocido → 400; mascota ajena → 403")
+    void sparseFields_errors() throws Exception {
+        mvc.perform(get("/pets").param("fields", "name,password").header("Authorization", ownerBearer))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/pets/{id}", otherPet.getId()).param("fields", "name").header("Authorization", ownerBearer))
+                .andExpect(status().isForbidden());
+    }
+
     // ========== ACCIONES HAPPY PATH (valores exactos + persistencia) ==========
 
     @Test
@@ -242,6 +333,283 @@ class PetsControllerTest  {
                 .andExpect(jsonPath("$.status").value(410));
     }
 
+    // ========== CONDITIONAL GET (ETag) ==========
+
+    @Test
+    @DisplayName("GET /pets/{id} con If-None-Match vigente → 304 sin cuerpo; tras una acción → 200")
+    void getPetById_conditional() throws Exception {
+        String etag = mvc.perform(get("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mvc.perform(post("/pets/{id}/actions/feed", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actionCount").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /pets con If-None-Match vigente → 304; tras crear una mascota → 200")
+    void listPets_conditional() throws Exception {
+        String etag = mvc.perform(get("/pets").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/pets").header("Authorization", ownerBearer).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(post("/pets")
+                        .header("Authorization", ownerBearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nala\",\"breed\":\"DALMATIAN\"}")
+                        .with(csrf()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(get("/pets").header("Authorization", ownerBearer).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /pets/{id} en CBOR → ETag propio del formato; el de JSON no da 304 y el 304 lleva Vary: Accept")
+    void getPetById_conditional_perFormat() throws Exception {
+        String json = mvc.perform(get("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String cbor = mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .accept("application/cbor").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(cbor).isEqualTo("\"" + ownerPet.getId() + "-" + ownerPet.getVersion() + "-cbor\"").isNotEqualTo(json);
+
+        mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .accept("application/cbor").header("Authorization", ownerBearer)
+                        .header("If-None-Match", json))
+                .andExpect(status().isOk());
+        mvc.perform(get("/pets/{id}", ownerPet.getId())
+                        .accept("application/cbor").header("Authorization", ownerBearer)
+                        .header("If-None-Match", cbor))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+
+        // If-Match takes the format's tag for the same version
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-Match", cbor)
+                        .with(csrf()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /pets en Smile → ETag de lista distinto del de JSON")
+    void listPets_conditional_perFormat() throws Exception {
+        String json = mvc.perform(get("/pets").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/pets").accept("application/x-jackson-smile")
+                        .header("Authorization", ownerBearer).header("If-None-Match", json))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", json.substring(0, json.length() - 1) + "-smile\""));
+    }
+
+    @Test
+    @DisplayName("GET /pets/{id} de otro usuario con If-None-Match → 403, nunca 304")
+    void getPetById_conditional_stillChecksOwnership() throws Exception {
+        mvc.perform(get("/pets/{id}", otherPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-None-Match", "\"" + otherPet.getId() + "-0\""))
+                .andExpect(status().isForbidden());
+    }
+
+    // ========== CONDITIONAL ACTIONS (If-Match) ==========
+
+    @Test
+    @DisplayName("POST acción con If-Match vigente → 200 y nuevo ETag; repetirla con el mismo If-Match → 412")
+    void action_ifMatch() throws Exception {
+        String etag = mvc.perform(get("/pets/{id}", ownerPet.getId()).header("Authorization", ownerBearer))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String next = mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-Match", etag)
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actionCount").value(2))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(next).isNotEqualTo(etag);
+
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-Match", etag)
+                        .with(csrf()))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+
+        assertThat(pets.findById(ownerPet.getId()).orElseThrow().getActionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST acción con If-Match de otra mascota → 412")
+    void action_ifMatchForAnotherPet() throws Exception {
+        mvc.perform(post("/pets/{id}/actions/feed", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("If-Match", "\"" + otherPet.getId() + "-0\"")
+                        .with(csrf()))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // ========== IDEMPOTENCY-KEY ==========
+
+    @Test
+    @DisplayName("POST /pets repetido con el mismo Idempotency-Key → misma respuesta y una sola mascota")
+    void create_withIdempotencyKey_isReplayed() throws Exception {
+        String first = mvc.perform(post("/pets")
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nala\",\"breed\":\"DALMATIAN\"}")
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mvc.perform(post("/pets")
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nala\",\"breed\":\"DALMATIAN\"}")
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first));
+
+        assertThat(pets.findAllByOwnerId(owner.getId())).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Acción reintentada con el mismo Idempotency-Key → se aplica una sola vez")
+    void action_withIdempotencyKey_appliesOnce() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                            .header("Authorization", ownerBearer)
+                            .header("Idempotency-Key", "play-1")
+                            .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.actionCount").value(2));
+        }
+        assertThat(pets.findById(ownerPet.getId()).orElseThrow().getActionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key reutilizado en otra petición → 422")
+    void idempotencyKey_reusedForAnotherRequest() throws Exception {
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "k-1")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/pets/{id}/actions/wash", ownerPet.getId())
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "k-1")
+                        .with(csrf()))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key reutilizado con otro cuerpo en la misma URI → 422 y no se crea otra mascota")
+    void idempotencyKey_reusedWithAnotherBody() throws Exception {
+        mvc.perform(post("/pets")
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nala\",\"breed\":\"DALMATIAN\"}")
+                        .with(csrf()))
+                .andExpect(status().isCreated());
+
+        mvc.perform(post("/pets")
+                        .header("Authorization", ownerBearer)
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Simba\",\"breed\":\"DALMATIAN\"}")
+                        .with(csrf()))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+
+        assertThat(pets.findAllByOwnerId(owner.getId())).hasSize(2);
+    }
+
+    // ========== DELTA SYNC ==========
+
+    @Test
+    @DisplayName("GET /pets/changes?since → solo las mascotas cambiadas del usuario y tombstones de las borradas")
+    void changes_sinceCursor() throws Exception {
+        String start = mvc.perform(get("/pets/changes").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        long cursor = Long.parseLong(start.replaceAll(".*\"cursor\":(\\d+).*", "$1"));
+
+        mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                        .header("Authorization", ownerBearer).with(csrf()))
+                .andExpect(status().isOk());
+        mvc.perform(post("/pets/{id}/actions/play", otherPet.getId())
+                        .header("Authorization", "Bearer " + jwtService.generateToken(other)).with(csrf()))
+                .andExpect(status().isOk());
+
+        Pet extra = new Pet();
+        extra.setName("Nala");
+        extra.setBreed(Breed.DALMATIAN);
+        extra.setOwner(owner);
+        extra = pets.save(extra);
+        mvc.perform(delete("/pets/{id}", extra.getId()).header("Authorization", ownerBearer).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/pets/changes").param("since", String.valueOf(cursor)).header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].id").value(ownerPet.getId()))
+                .andExpect(jsonPath("$.changed[0].actionCount").value(2))
+                .andExpect(jsonPath("$.deleted[0]").value(extra.getId()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /pets/changes?since → 410 si el log se purgó por detrás del cursor")
+    void changes_sincePurged_gone() throws Exception {
+        String start = mvc.perform(get("/pets/changes").header("Authorization", ownerBearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long cursor = Long.parseLong(start.replaceAll(".*\"cursor\":(\\d+).*", "$1"));
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/pets/{id}/actions/play", ownerPet.getId())
+                            .header("Authorization", ownerBearer).with(csrf()))
+                    .andExpect(status().isOk());
+        }
+        // Everything is past the retention a month from now; only the newest row is kept
+        assertThat(changeLogPurge.purge(Instant.now().plus(Duration.ofDays(60)))).isPositive();
+
+        mvc.perform(get("/pets/changes").param("since", String.valueOf(cursor)).header("Authorization", ownerBearer))
+                .andExpect(status().isGone());
+    }
+
     // ========== 404 / 403 ==========
 
     @Test
@@ -1,17 +1,20 @@
 package cat.itacademy.virtualpet.web.error;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.core.MethodParameter;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.FieldError;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
@@ -104,9 +107,10 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    @DisplayName("DataIntegrityViolation con 'email' en la causa -> 409 y mensaje amigable")
+    @DisplayName("DataIntegrityViolation sobre uk_users_email -> 409 y mensaje amigable")
     void dataIntegrity_email_returns409_withFriendlyMessage() {
-        var cause = new RuntimeException("duplicate key value violates unique constraint on email");
+        var cause = new ConstraintViolationException("could not execute statement",
+                new SQLException("Duplicate entry 'a@b.com' for key 'users.uk_users_email'"), "users.uk_users_email");
         var ex = new DataIntegrityViolationException("fk/unique error", cause);
 
         var response = handler.dataIntegrity(ex, mockReq("/auth/register"));
@@ -116,6 +120,18 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().get("path")).isEqualTo("/auth/register");
     }
 
+    @Test
+    @DisplayName("DataIntegrityViolation sobre uk_users_username (solo mensaje SQL) -> 409 username")
+    void dataIntegrity_usernameFromMessage_returns409() {
+        var cause = new SQLException("Duplicate entry 'ana' for key 'users.uk_users_username'");
+        var ex = new DataIntegrityViolationException("unique error", cause);
+
+        var response = handler.dataIntegrity(ex, mockReq("/auth/register"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().get("message")).isEqualTo("Username already taken");
+    }
+
     @Test
     @DisplayName("DataIntegrityViolation sin 'email' -> 409 con mensaje genérico")
     void dataIntegrity_withoutEmail_returns409_genericMessage() {
@@ -171,6 +187,48 @@ class GlobalExceptionHandlerTest {
                 .isEqualTo("Your pet is already too happy and tired to play 🎾💤");
     }
 
+    @Test
+    @DisplayName("TooManyRequestsException -> 429 con cabecera Retry-After")
+    void tooManyRequests_returns429_withRetryAfter() {
+        var response = handler.tooManyRequests(new TooManyRequestsException(10), mockReq("/auth/login"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("10");
+        assertThat(response.getBody().get("status")).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("PreconditionFailedException -> 412")
+    void preconditionFailed_returns412() {
+        var response = handler.preconditionFailed(new PreconditionFailedException(7L), mockReq("/pets/7/actions/feed"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(response.getBody().get("status")).isEqualTo(412);
+    }
+
+    @Test
+    @DisplayName("Bloqueo optimista -> 412 con If-Match, 409 sin él")
+    void optimisticLock_dependsOnIfMatch() {
+        var ex = new ObjectOptimisticLockingFailureException(Object.class, 7L);
+        HttpServletRequest conditional = mockReq("/pets/7/actions/feed");
+        when(conditional.getHeader("If-Match")).thenReturn("\"7-3\"");
+
+        assertThat(handler.optimisticLock(ex, conditional).getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(handler.optimisticLock(ex, mockReq("/pets/7/actions/feed")).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("PasswordHashingUnavailableException -> 503 con cabecera Retry-After")
+    void hashingUnavailable_returns503_withRetryAfter() {
+        var ex = new PasswordHashingUnavailableException(3);
+        var response = handler.hashingUnavailable(ex, mockReq("/auth/login"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getBody().get("status")).isEqualTo(503);
+        assertThat(response.getBody().get("path")).isEqualTo("/auth/login");
+    }
+
     @Test
     @DisplayName("ResponseStatusException (404) -> respeta el status y mensaje")
     void responseStatusException_respectsStatusAndMessage() {
@@ -0,0 +1,56 @@
+package cat.itacademy.virtualpet.web.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test para el store de Idempotency-Key en BD: reserva, respuesta guardada y
+ * reservas huérfanas (nodo caído a mitad de petición) recuperadas tras el lease.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"idempotency.store=database", "idempotency.in-progress-timeout=PT1M"})
+class DatabaseIdempotencyStoreTest {
+
+    @Autowired IdempotencyStore store;
+    @Autowired IdempotencyRecordRepository repository;
+    @Autowired TransactionTemplate tx;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Reserva en curso reciente → los reintentos ven 'en curso'; completada → se reproduce")
+    void freshReservation_isInProgress_thenReplayed() {
+        assertThat(store.reserve("u|k-1", "POST /pets abc")).isNull();
+        assertThat(store.reserve("u|k-1", "POST /pets abc").isInProgress()).isTrue();
+
+        store.complete("u|k-1", new IdempotentResponse("POST /pets abc", 201, "application/json", null, new byte[] {1}));
+
+        assertThat(store.reserve("u|k-1", "POST /pets abc").status()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Reserva en curso más antigua que el lease → el siguiente reintento se la queda")
+    void staleReservation_isTakenOver() {
+        tx.executeWithoutResult(s -> repository.insertReservation(
+                "u|k-2", "POST /pets abc", Instant.now().minus(Duration.ofMinutes(5))));
+
+        assertThat(store.reserve("u|k-2", "POST /pets abc")).isNull();
+        // The new owner holds a fresh lease
+        assertThat(store.reserve("u|k-2", "POST /pets abc").isInProgress()).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package cat.itacademy.virtualpet.web.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedTokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Consume la capacidad y luego rechaza con tiempo de espera")
+    void exhaustsCapacity_thenRejectsWithWait() {
+        var buckets = new StripedTokenBuckets(4, 100, 3, 1.0);
+
+        assertThat(buckets.tryAcquire("1.2.3.4", 0)).isZero();
+        assertThat(buckets.tryAcquire("1.2.3.4", 0)).isZero();
+        assertThat(buckets.tryAcquire("1.2.3.4", 0)).isZero();
+
+        long wait = buckets.tryAcquire("1.2.3.4", 0);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(SECOND);
+    }
+
+    @Test
+    @DisplayName("Rellena tokens con el tiempo sin superar la capacidad")
+    void refillsOverTime_cappedAtCapacity() {
+        var buckets = new StripedTokenBuckets(4, 100, 2, 1.0);
+        buckets.tryAcquire("k", 0);
+        buckets.tryAcquire("k", 0);
+        assertThat(buckets.tryAcquire("k", 0)).isPositive();
+
+        long later = 10 * SECOND;
+        assertThat(buckets.tryAcquire("k", later)).isZero();
+        assertThat(buckets.tryAcquire("k", later)).isZero();
+        assertThat(buckets.tryAcquire("k", later)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Claves distintas no comparten bucket")
+    void keysAreIndependent() {
+        var buckets = new StripedTokenBuckets(4, 100, 1, 0.1);
+        assertThat(buckets.tryAcquire("a@example.com", 0)).isZero();
+        assertThat(buckets.tryAcquire("a@example.com", 0)).isPositive();
+        assertThat(buckets.tryAcquire("b@example.com", 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("La memoria está acotada por stripes * maxKeysPerStripe (LRU)")
+    void memoryIsBounded() {
+        var buckets = new StripedTokenBuckets(4, 10, 5, 1.0);
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("ip-" + i, 0);
+        }
+        assertThat(buckets.size()).isLessThanOrEqualTo(4 * 10);
+    }
+}
@@ -0,0 +1,166 @@
+package cat.itacademy.virtualpet.web.socket;
+
+import cat.itacademy.virtualpet.BackendApplication;
+import cat.itacademy.virtualpet.domain.pet.Pet;
+import cat.itacademy.virtualpet.domain.pet.PetRepository;
+import cat.itacademy.virtualpet.domain.user.User;
+import cat.itacademy.virtualpet.domain.user.UserRepository;
+import cat.itacademy.virtualpet.infrastructure.security.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static cat.itacademy.virtualpet.support.TestFixtures.pet;
+import static cat.itacademy.virtualpet.support.TestFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test para el canal WebSocket /ws/pets: servidor real, JWT real.
+ */
+@SpringBootTest(classes = BackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"ws.pets.rate.capacity=5", "ws.pets.rate.refill-per-second=0.001"})
+class PetActionSocketHandlerTest {
+
+    @LocalServerPort int port;
+    @Autowired JwtService jwtService;
+    @Autowired UserRepository users;
+    @Autowired PetRepository pets;
+    @Autowired ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private Client client;
+
+    private Pet ownerPet;
+    private Pet otherPet;
+    private String ownerToken;
+
+    @BeforeEach
+    void setup() {
+        pets.deleteAll();
+        users.deleteAll();
+
+        User owner = users.save(user("user"));
+        User other = users.save(user("other"));
+
+        ownerPet = pets.save(pet("Kira", owner));
+        otherPet = pets.save(pet("Max", other));
+        ownerToken = jwtService.generateToken(owner);
+    }
+
+    @AfterEach
+    void close() {
+        if (client != null) client.socket.abort();
+    }
+
+    @Test
+    @DisplayName("WS /ws/pets → cierra con 1008 si el primer frame no es AUTH válido")
+    void connect_withoutAuth_closes() throws Exception {
+        client = connect();
+        client.socket.sendText("1 play " + ownerPet.getId(), true);
+
+        assertThat(client.closeCode.get(5, TimeUnit.SECONDS)).isEqualTo(1008);
+    }
+
+    @Test
+    @DisplayName("WS /ws/pets → AUTH y acciones en orden con el mismo resultado que REST")
+    void actions_repliedInOrder() throws Exception {
+        client = authenticated();
+
+        client.socket.sendText("a p " + ownerPet.getId(), true);
+        client.socket.sendText("b play " + ownerPet.getId() + " 0", true);
+        client.socket.sendText("c play " + otherPet.getId(), true);
+
+        JsonNode first = client.next();
+        assertThat(first.get("rid").asText()).isEqualTo("a");
+        assertThat(first.get("ok").asBoolean()).isTrue();
+        assertThat(first.at("/pet/fun").asInt()).isGreaterThan(60);
+        assertThat(first.at("/pet/version").asLong()).isEqualTo(1);
+
+        JsonNode stale = client.next();
+        assertThat(stale.get("rid").asText()).isEqualTo("b");
+        assertThat(stale.get("status").asInt()).isEqualTo(412);
+
+        JsonNode forbidden = client.next();
+        assertThat(forbidden.get("rid").asText()).isEqualTo("c");
+        assertThat(forbidden.get("status").asInt()).isEqualTo(403);
+    }
+
+    @Test
+    @DisplayName("WS /ws/pets → 429 al superar el límite de la conexión")
+    void actions_rateLimitedPerConnection() throws Exception {
+        client = authenticated();
+
+        for (int i = 0; i < 6; i++) client.socket.sendText(i + " x " + ownerPet.getId(), true);
+        for (int i = 0; i < 5; i++) assertThat(client.next().get("status").asInt()).isEqualTo(400);
+
+        JsonNode throttled = client.next();
+        assertThat(throttled.get("status").asInt()).isEqualTo(429);
+        assertThat(throttled.get("retryAfterMs").asLong()).isPositive();
+    }
+
+    // -------- helpers --------
+
+    private Client authenticated() throws Exception {
+        Client c = connect();
+        c.socket.sendText("AUTH " + ownerToken, true);
+        assertThat(c.next().get("ok").asBoolean()).isTrue();
+        return c;
+    }
+
+    private Client connect() {
+        Client c = new Client();
+        c.socket = http.newWebSocketBuilder()
+                .header("Origin", "http://localhost:3000")
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws/pets"), c)
+                .join();
+        return c;
+    }
+
+    private class Client implements WebSocket.Listener {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final CompletableFuture<Integer> closeCode = new CompletableFuture<>();
+        final StringBuilder partial = new StringBuilder();
+        WebSocket socket;
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                frames.add(partial.toString());
+                partial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closeCode.complete(statusCode);
+            return null;
+        }
+
+        JsonNode next() throws Exception {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("reply frame").isNotNull();
+            return objectMapper.readTree(frame);
+        }
+    }
+}
@@ -14,7 +14,7 @@ import { useAuthStore } from "@/lib/stores/auth-store"
 
 function AppDashboard() {
   const router = useRouter()
-  const { items: pets, loading: petsLoading, fetchAll: fetchPets } = usePetsStore()
+  const { items: pets, loading: petsLoading, fetchDashboard, subscribe: subscribePets } = usePetsStore()
   const { items: users, loading: usersLoading, error: usersError, fetchAll: fetchUsers } = useUsersStore()
   const { token, _hasHydrated, isAdmin } = useAuthStore()
 
@@ -33,15 +33,21 @@ function AppDashboard() {
         console.log("[v0] AppDashboard: Admin detected, fetching users...")
         fetchUsers()
       } else {
-        console.log("[v0] AppDashboard: Regular user detected, fetching pets...")
-        fetchPets()
+        console.log("[v0] AppDashboard: Regular user detected, fetching dashboard...")
+        fetchDashboard()
       }
     } else if (_hasHydrated && !token) {
       console.warn("[v0] AppDashboard: Auth hydrated but no token found")
     } else {
       console.log("[v0] AppDashboard: Waiting for auth hydration...")
     }
-  }, [_hasHydrated, token, isAdmin, fetchPets, fetchUsers])
+  }, [_hasHydrated, token, isAdmin, fetchDashboard, fetchUsers])
+
+  // Server pushes pet changes (admin actions, other tabs) instead of the page polling
+  useEffect(() => {
+    if (!_hasHydrated || !token || isAdmin) return
+    return subscribePets(token)
+  }, [_hasHydrated, token, isAdmin, subscribePets])
 
   const sortedPets = useMemo(() => {
     return [...pets].sort((a, b) => {
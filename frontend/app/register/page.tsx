@@ -1,6 +1,6 @@
 "use client"
 
-import { useState } from "react"
+import { useEffect, useState } from "react"
 import Link from "next/link"
 import { useRouter } from "next/navigation"
 import { useForm } from "react-hook-form"
@@ -25,14 +25,42 @@ export default function RegisterPage() {
   const router = useRouter()
   const [isLoading, setIsLoading] = useState(false)
 
+  const [usernameTaken, setUsernameTaken] = useState(false)
+  const [emailTaken, setEmailTaken] = useState(false)
+
   const {
     register,
     handleSubmit,
+    watch,
     formState: { errors },
   } = useForm<RegisterFormData>({
     resolver: zodResolver(registerSchema),
   })
 
+  const watchedUsername = watch("username")
+  const watchedEmail = watch("email")
+
+  // Debounced live check; negative answers are served from the backend Bloom filter
+  useEffect(() => {
+    const username = watchedUsername?.trim()
+    const email = watchedEmail?.trim()
+    if ((!username || username.length < 3) && !email) return
+
+    const timer = setTimeout(async () => {
+      try {
+        const { data } = await apiClient.get<{ usernameAvailable?: boolean; emailAvailable?: boolean }>(
+          "/auth/availability",
+          { params: { username: username || undefined, email: email || undefined } },
+        )
+        setUsernameTaken(data.usernameAvailable === false)
+        setEmailTaken(data.emailAvailable === false)
+      } catch {
+        // The submit still validates; ignore availability errors
+      }
+    }, 300)
+    return () => clearTimeout(timer)
+  }, [watchedUsername, watchedEmail])
+
   const onSubmit = async (data: RegisterFormData) => {
     setIsLoading(true)
     try {
@@ -59,6 +87,9 @@ export default function RegisterPage() {
               <Label htmlFor="username">Username</Label>
               <Input id="username" type="text" placeholder="johndoe" {...register("username")} disabled={isLoading} />
               {errors.username && <p className="text-sm text-destructive">{errors.username.message}</p>}
+              {!errors.username && usernameTaken && (
+                <p className="text-sm text-destructive">This username is already taken</p>
+              )}
             </div>
 
             <div className="space-y-2">
@@ -71,6 +102,7 @@ export default function RegisterPage() {
                 disabled={isLoading}
               />
               {errors.email && <p className="text-sm text-destructive">{errors.email.message}</p>}
+              {!errors.email && emailTaken && <p className="text-sm text-destructive">This email is already registered</p>}
             </div>
 
             <div className="space-y-2">
@@ -1,16 +1,25 @@
 import { create } from "zustand"
 import apiClient from "@/lib/api-client"
-import type { PetResponse, CreatePetRequest, UpdatePetRequest, PetActionResponse } from "@/lib/types"
+import type { PetResponse, CreatePetRequest, UpdatePetRequest, PetActionResponse, DashboardResponse } from "@/lib/types"
 
 interface PetsState {
   items: PetResponse[]
   loading: boolean
   error: string | null
   fetchAll: () => Promise<void>
+  fetchDashboard: () => Promise<DashboardResponse | null>
   create: (data: CreatePetRequest) => Promise<PetResponse>
   update: (id: number, data: UpdatePetRequest) => Promise<PetResponse>
   remove: (id: number) => Promise<void>
   act: (id: number, action: "feed" | "wash" | "play") => Promise<PetActionResponse>
+  subscribe: (token: string) => () => void
+}
+
+// Compact change pushed by GET /pets/stream
+interface PetChange extends Partial<PetResponse> {
+  type: "CREATED" | "UPDATED" | "DELETED"
+  id: number
+  version: number
 }
 
 export const usePetsStore = create<PetsState>((set, get) => ({
@@ -35,6 +44,22 @@ export const usePetsStore = create<PetsState>((set, get) => ({
     }
   },
 
+  // First paint in one round trip: pets come with the profile, stage counts and warnings
+  fetchDashboard: async () => {
+    set({ loading: true, error: null })
+    try {
+      const response = await apiClient.get<DashboardResponse>("/me/dashboard")
+      set({ items: response.data.pets, loading: false })
+      return response.data
+    } catch (error: any) {
+      set({
+        error: error.response?.data?.message || "Failed to fetch dashboard",
+        loading: false,
+      })
+      return null
+    }
+  },
+
   create: async (data) => {
     set({ loading: true, error: null })
     try {
@@ -91,13 +116,18 @@ export const usePetsStore = create<PetsState>((set, get) => ({
   act: async (id, action) => {
     set({ loading: true, error: null })
     try {
-      const response = await apiClient.post<PetActionResponse>(`/pets/${id}/actions/${action}`)
+      // Only act on the state the user is looking at: a stale version gets 412 instead of a surprise
+      const current = get().items.find((pet) => pet.id === id)
+      const headers = current ? { "If-Match": `"${id}-${current.version}"` } : undefined
+      const response = await apiClient.post<PetActionResponse>(`/pets/${id}/actions/${action}`, undefined, { headers })
       set((state) => ({
         items: state.items.map((pet) => (pet.id === id ? response.data : pet)),
         loading: false,
       }))
       return response.data
     } catch (error: any) {
+      // The pet changed elsewhere: reload it so the next attempt uses the current version
+      if (error.response?.status === 412) await get().fetchAll().catch(() => {})
       set({
         error: error.response?.data?.message || `Failed to ${action} pet`,
         loading: false,
@@ -105,4 +135,67 @@ export const usePetsStore = create<PetsState>((set, get) => ({
       throw error
     }
   },
+
+  // Live updates over SSE. fetch (not EventSource) so the bearer token goes in a header.
+  subscribe: (token) => {
+    const controller = new AbortController()
+    const baseURL = apiClient.defaults.baseURL ?? ""
+
+    const apply = (change: PetChange) => {
+      set((state) => {
+        if (change.type === "DELETED") {
+          return { items: state.items.filter((pet) => pet.id !== change.id) }
+        }
+        const current = state.items.find((pet) => pet.id === change.id)
+        if (!current) {
+          // New pet: the delta is not a full PetResponse, reload the list
+          get().fetchAll().catch(() => {})
+          return {}
+        }
+        if (current.version >= change.version) return {}
+        const { type, ...fields } = change
+        return { items: state.items.map((pet) => (pet.id === change.id ? { ...pet, ...fields } : pet)) }
+      })
+    }
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const response = await fetch(`${baseURL}/pets/stream`, {
+            headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+            signal: controller.signal,
+          })
+          if (!response.ok || !response.body) throw new Error(`stream status ${response.status}`)
+
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+          let buffer = ""
+          for (;;) {
+            const { value, done } = await reader.read()
+            if (done) break
+            buffer += value
+            let boundary
+            while ((boundary = buffer.indexOf("\n\n")) >= 0) {
+              const frame = buffer.slice(0, boundary)
+              buffer = buffer.slice(boundary + 2)
+              const data = frame
+                .split("\n")
+                .filter((line) => line.startsWith("data:"))
+                .map((line) => line.slice(5))
+                .join("\n")
+              if (data) apply(JSON.parse(data) as PetChange)
+            }
+          }
+        } catch (error) {
+          if (controller.signal.aborted) return
+          console.warn("[v0] Pets Store: stream interrupted, reconnecting", error)
+        }
+        // Back off before reconnecting; events missed meanwhile are recovered by a refetch
+        await new Promise((resolve) => setTimeout(resolve, 3000))
+        if (!controller.signal.aborted) get().fetchAll().catch(() => {})
+      }
+    }
+
+    connect()
+    return () => controller.abort()
+  },
 }))
@@ -9,11 +9,17 @@ export interface PetResponse {
   hygiene: number
   fun: number
   actionCount: number
+  // min(100 - hunger, hygiene, fun); at or below 25 the pet has warnings
+  wellness: number
   lifeStage: LifeStage
   createdAt: string
   updatedAt: string
   dead: boolean
   deathAt: string | null
+  version: number
+  avatarVersion: number
+  // Thumbnail URL (relative to the API) per pixel size, e.g. "64", "256"; absent until an avatar is uploaded
+  avatarUrls?: Record<string, string>
   ownerId?: number
   owner?: {
     id: number
@@ -27,6 +33,22 @@ export interface PetActionResponse extends PetResponse {
   warnings?: string[] | null
 }
 
+// One element of GET /pets?ids= (or /admin/pets?ids=): pet on 200, message on 403/404
+export interface PetBatchItem {
+  id: number
+  status: number
+  pet?: PetResponse
+  message?: string
+}
+
+// GET /me/dashboard: everything the pets page needs for first paint
+export interface DashboardResponse {
+  user: UserResponse
+  pets: PetResponse[]
+  stageCounts: Record<LifeStage, number>
+  warnings: { petId: number; petName: string; warnings: string[] }[]
+}
+
 export interface CreatePetRequest {
   name: string
   breed: Breed